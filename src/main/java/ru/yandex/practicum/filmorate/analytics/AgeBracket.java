@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.analytics;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+enum AgeBracket {
+    UNDER_18("0-17", 0),
+    FROM_18("18-24", 18),
+    FROM_25("25-34", 25),
+    FROM_35("35-44", 35),
+    FROM_45("45-54", 45),
+    FROM_55("55-64", 55),
+    FROM_65("65+", 65),
+    UNKNOWN("unknown", Integer.MAX_VALUE);
+
+    private final String label;
+    private final int minAge;
+
+    AgeBracket(String label, int minAge) {
+        this.label = label;
+        this.minAge = minAge;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    static AgeBracket of(LocalDate birthday, LocalDate today) {
+        if (birthday == null || birthday.isAfter(today)) {
+            return UNKNOWN;
+        }
+        int age = Period.between(birthday, today).getYears();
+        AgeBracket bracket = UNDER_18;
+        for (AgeBracket candidate : values()) {
+            if (candidate != UNKNOWN && age >= candidate.minAge) {
+                bracket = candidate;
+            }
+        }
+        return bracket;
+    }
+}
@@ -0,0 +1,142 @@
+package ru.yandex.practicum.filmorate.analytics;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.config.AnalyticsProperties;
+import ru.yandex.practicum.filmorate.exception.AnalyticsNotReadyException;
+import ru.yandex.practicum.filmorate.model.AgeBracketLikers;
+import ru.yandex.practicum.filmorate.model.AnalyticsReport;
+import ru.yandex.practicum.filmorate.model.DecadeDuration;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.YearLikes;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сводные отчёты по каталогу: лайки по годам выпуска, средняя длительность по десятилетиям и лайкнувшие
+ * юзеры по возрасту. Отчёты пересчитываются в фоне раз в {@code refreshInterval} в отдельном
+ * ForkJoinPool; запрос только читает последний готовый результат, поэтому аналитика не занимает
+ * ни потоки запросов, ни общий пул.
+ * <p>
+ * Пересчёт идёт по снимку: сначала {@code getAll()} фильмов, затем юзеров. Каждый фильм в снимке
+ * согласован с собой, а все, кто его лайкнул, к моменту снимка юзеров уже существуют.
+ * <p>
+ * Бин создаётся сразу и при ленивой инициализации (профиль {@code fast-startup}): иначе первый пересчёт
+ * запустился бы только на первом запросе аналитики, и тот получил бы 503.
+ */
+@Slf4j
+@Service
+@Lazy(false)
+public class AnalyticsService {
+    private final FilmStorage filmStorage;
+    private final UserStorage userStorage;
+    private final AnalyticsProperties properties;
+    private final ForkJoinPool pool;
+    private final ScheduledExecutorService refresher;
+    private volatile Snapshot snapshot;
+
+    public AnalyticsService(FilmStorage filmStorage, UserStorage userStorage, AnalyticsProperties properties) {
+        this.filmStorage = filmStorage;
+        this.userStorage = userStorage;
+        this.properties = properties;
+        this.pool = new ForkJoinPool(Math.max(1, properties.getParallelism()), pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("analytics-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+        this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "analytics-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isEnabled()) {
+            long intervalMs = properties.getRefreshInterval().toMillis();
+            refresher.scheduleWithFixedDelay(this::refreshQuietly, 0, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public AnalyticsReport<YearLikes> getLikesByYear() {
+        Snapshot current = current();
+        return current.report(current.likesByYear());
+    }
+
+    public AnalyticsReport<DecadeDuration> getDurationByDecade() {
+        Snapshot current = current();
+        return current.report(current.durationByDecade());
+    }
+
+    public AnalyticsReport<AgeBracketLikers> getLikersByAge() {
+        Snapshot current = current();
+        return current.report(current.likersByAge());
+    }
+
+    /**
+     * Пересчитывает все отчёты и подменяет их разом; вызывается из фонового потока.
+     */
+    public void refresh() {
+        long start = System.nanoTime();
+        List<Film> films = List.copyOf(filmStorage.getAll());
+        List<User> users = List.copyOf(userStorage.getAll());
+        LocalDate today = LocalDate.now();
+        // позиции и возраст юзеров — один линейный проход; основная работа — обход лайков — идёт параллельно
+        Map<Long, Integer> positions = new HashMap<>(users.size() * 4 / 3 + 1);
+        AgeBracket[] brackets = new AgeBracket[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            User user = users.get(i);
+            positions.put(user.getId(), i);
+            brackets[i] = AgeBracket.of(user.getBirthday(), today);
+        }
+        CatalogueAggregate aggregate = pool.invoke(new ParallelReduction<>(films, properties.getSplitThreshold(),
+                () -> new CatalogueAggregate(positions, brackets), CatalogueAggregate::add, CatalogueAggregate::merge));
+        snapshot = new Snapshot(Instant.now(), films.size(), users.size(), aggregate.likesByYear(),
+                aggregate.durationByDecade(), aggregate.likersByAge());
+        log.debug("Аналитика пересчитана за {} мс: фильмов {}, юзеров {}",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), films.size(), users.size());
+    }
+
+    @PreDestroy
+    public void close() {
+        refresher.shutdownNow();
+        pool.shutdownNow();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            // исключение отменило бы расписание; до следующей попытки отдаётся прошлый результат
+            log.warn("Не удалось пересчитать аналитику: {}", e.getMessage());
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            throw new AnalyticsNotReadyException("Аналитика ещё не посчитана");
+        }
+        return current;
+    }
+
+    private record Snapshot(Instant computedAt, int films, int users, List<YearLikes> likesByYear,
+                            List<DecadeDuration> durationByDecade, List<AgeBracketLikers> likersByAge) {
+
+        <T> AnalyticsReport<T> report(List<T> items) {
+            return new AnalyticsReport<>(computedAt, films, users, items);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.analytics;
+
+import ru.yandex.practicum.filmorate.model.AgeBracketLikers;
+import ru.yandex.practicum.filmorate.model.DecadeDuration;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.YearLikes;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Аккумулятор одного куска каталога для {@link ParallelReduction}: все три отчёта считаются за один
+ * проход по фильмам. Лайкнувшие юзеры отмечаются битами по их позиции в снимке юзеров, так что
+ * слияние кусков — это OR битовых множеств, а не объединение множеств id.
+ */
+final class CatalogueAggregate {
+    private static final int FILMS = 0;
+    private static final int TOTAL = 1;
+
+    private final Map<Long, Integer> userPositions;
+    private final AgeBracket[] userBrackets;
+    // год выпуска → [фильмы, лайки]
+    private final TreeMap<Integer, long[]> years = new TreeMap<>();
+    // десятилетие → [фильмы, суммарная длительность]
+    private final TreeMap<Integer, long[]> decades = new TreeMap<>();
+    private final long[] bracketLikes = new long[AgeBracket.values().length];
+    private final BitSet likers = new BitSet();
+
+    CatalogueAggregate(Map<Long, Integer> userPositions, AgeBracket[] userBrackets) {
+        this.userPositions = userPositions;
+        this.userBrackets = userBrackets;
+    }
+
+    void add(Film film) {
+        LocalDate releaseDate = film.getReleaseDate();
+        if (releaseDate != null) {
+            int year = releaseDate.getYear();
+            long[] byYear = years.computeIfAbsent(year, key -> new long[2]);
+            byYear[FILMS]++;
+            byYear[TOTAL] += film.getLikes().size();
+            if (film.getDuration() != null) {
+                long[] byDecade = decades.computeIfAbsent(Math.floorDiv(year, 10) * 10, key -> new long[2]);
+                byDecade[FILMS]++;
+                byDecade[TOTAL] += film.getDuration();
+            }
+        }
+        for (Long userId : film.getLikes()) {
+            Integer position = userPositions.get(userId);
+            // юзер удалён между снимками фильмов и юзеров
+            if (position != null) {
+                bracketLikes[userBrackets[position].ordinal()]++;
+                likers.set(position);
+            }
+        }
+    }
+
+    CatalogueAggregate merge(CatalogueAggregate other) {
+        other.years.forEach((year, counts) -> mergeInto(years, year, counts));
+        other.decades.forEach((decade, counts) -> mergeInto(decades, decade, counts));
+        for (int i = 0; i < bracketLikes.length; i++) {
+            bracketLikes[i] += other.bracketLikes[i];
+        }
+        likers.or(other.likers);
+        return this;
+    }
+
+    List<YearLikes> likesByYear() {
+        List<YearLikes> rows = new ArrayList<>(years.size());
+        years.forEach((year, counts) -> rows.add(new YearLikes(year, (int) counts[FILMS], counts[TOTAL])));
+        return rows;
+    }
+
+    List<DecadeDuration> durationByDecade() {
+        List<DecadeDuration> rows = new ArrayList<>(decades.size());
+        decades.forEach((decade, counts) -> rows.add(
+                new DecadeDuration(decade, (int) counts[FILMS], (double) counts[TOTAL] / counts[FILMS])));
+        return rows;
+    }
+
+    List<AgeBracketLikers> likersByAge() {
+        int[] users = new int[bracketLikes.length];
+        int[] likerCounts = new int[bracketLikes.length];
+        for (AgeBracket bracket : userBrackets) {
+            users[bracket.ordinal()]++;
+        }
+        for (int position = likers.nextSetBit(0); position >= 0; position = likers.nextSetBit(position + 1)) {
+            likerCounts[userBrackets[position].ordinal()]++;
+        }
+        List<AgeBracketLikers> rows = new ArrayList<>(bracketLikes.length);
+        for (AgeBracket bracket : AgeBracket.values()) {
+            int i = bracket.ordinal();
+            rows.add(new AgeBracketLikers(bracket.getLabel(), users[i], likerCounts[i], bracketLikes[i]));
+        }
+        return rows;
+    }
+
+    private static void mergeInto(Map<Integer, long[]> target, int key, long[] counts) {
+        long[] existing = target.putIfAbsent(key, counts);
+        if (existing != null) {
+            existing[FILMS] += counts[FILMS];
+            existing[TOTAL] += counts[TOTAL];
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.analytics;
+
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Supplier;
+
+/**
+ * Свёртка списка в ForkJoinPool: диапазон делится пополам, пока не станет не больше {@code threshold},
+ * каждый кусок копит свой аккумулятор без синхронизации, результаты сливаются слева направо.
+ */
+final class ParallelReduction<T, A> extends RecursiveTask<A> {
+    private final List<T> items;
+    private final int from;
+    private final int to;
+    private final int threshold;
+    private final Supplier<A> identity;
+    private final BiConsumer<A, T> accumulator;
+    private final BinaryOperator<A> combiner;
+
+    ParallelReduction(List<T> items, int threshold, Supplier<A> identity, BiConsumer<A, T> accumulator,
+                      BinaryOperator<A> combiner) {
+        this(items, 0, items.size(), Math.max(1, threshold), identity, accumulator, combiner);
+    }
+
+    private ParallelReduction(List<T> items, int from, int to, int threshold, Supplier<A> identity,
+                              BiConsumer<A, T> accumulator, BinaryOperator<A> combiner) {
+        this.items = items;
+        this.from = from;
+        this.to = to;
+        this.threshold = threshold;
+        this.identity = identity;
+        this.accumulator = accumulator;
+        this.combiner = combiner;
+    }
+
+    @Override
+    protected A compute() {
+        if (to - from <= threshold) {
+            A result = identity.get();
+            for (int i = from; i < to; i++) {
+                accumulator.accept(result, items.get(i));
+            }
+            return result;
+        }
+        int middle = (from + to) >>> 1;
+        ParallelReduction<T, A> left = split(from, middle);
+        left.fork();
+        A right = split(middle, to).compute();
+        return combiner.apply(left.join(), right);
+    }
+
+    private ParallelReduction<T, A> split(int start, int end) {
+        return new ParallelReduction<>(items, start, end, threshold, identity, accumulator, combiner);
+    }
+}
@@ -6,14 +6,17 @@ import jakarta.validation.ConstraintValidatorContext;
 import java.time.LocalDate;
 
 public class ReleaseDateValidator implements ConstraintValidator<ReleaseDate, LocalDate> {
-    private final LocalDate validStartDate = LocalDate.of(1895, 12, 28);
+    private static final LocalDate VALID_START_DATE = LocalDate.of(1895, 12, 28);
 
     @Override
     public boolean isValid(LocalDate value, ConstraintValidatorContext context) {
+        return isValid(value);
+    }
 
+    public static boolean isValid(LocalDate value) {
         if (value != null) {
-            return value.isAfter(validStartDate)
-                    || value.isEqual(validStartDate);
+            return value.isAfter(VALID_START_DATE)
+                    || value.isEqual(VALID_START_DATE);
         }
         return true;
     }
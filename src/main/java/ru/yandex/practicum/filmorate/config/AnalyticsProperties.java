@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.analytics")
+public class AnalyticsProperties {
+    /**
+     * false — отчёты не пересчитываются в фоне, аналитика отвечает 503.
+     */
+    private boolean enabled = true;
+    /**
+     * Пауза между окончанием одного пересчёта и началом следующего.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(1);
+    /**
+     * Потоки отдельного ForkJoinPool для пересчёта; общий пул и потоки запросов не используются.
+     */
+    private int parallelism = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    /**
+     * Сколько фильмов одна подзадача обходит сама, не деля диапазон дальше.
+     */
+    private int splitThreshold = 2_048;
+}
@@ -0,0 +1,28 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+    private Map<String, EndpointClass> classes = new LinkedHashMap<>();
+
+    @Data
+    public static class EndpointClass {
+        // класс без шаблонов принимает все запросы, не попавшие в остальные классы
+        private List<String> patterns = new ArrayList<>();
+        private int maxConcurrent = 16;
+        private int maxQueue = 32;
+        private Duration maxWait = Duration.ofMillis(100);
+    }
+}
@@ -0,0 +1,13 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.changes")
+public class ChangeLogProperties {
+    private int retention = 10_000;
+    private int maxLimit = 1_000;
+}
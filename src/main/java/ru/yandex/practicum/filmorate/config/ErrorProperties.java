@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.errors")
+public class ErrorProperties {
+    /**
+     * Не чаще одного warn-сообщения за интервал на каждый вид ошибки, остальные только считаются.
+     */
+    private Duration logInterval = Duration.ofSeconds(10);
+}
@@ -0,0 +1,44 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.jfr")
+public class FlightRecorderProperties {
+    /**
+     * Встроенная конфигурация JFR, поверх которой включаются события Filmorate: default или profile.
+     */
+    private String settings = "profile";
+    private Duration defaultDuration = Duration.ofMinutes(1);
+    /**
+     * Запись дольше этого не запускается, даже если запрошена.
+     */
+    private Duration maxDuration = Duration.ofMinutes(10);
+    /**
+     * Сколько данных запись держит на диске; старые куски вытесняются.
+     */
+    private long maxSizeBytes = 256L * 1024 * 1024;
+    /**
+     * Каталог для выгрузок записей; пусто — filmorate-jfr во временном каталоге системы.
+     */
+    private String directory = "";
+    private Thresholds thresholds = new Thresholds();
+
+    /**
+     * Пороги длительности для событий Filmorate в записях, запущенных через эндпоинт. Записи,
+     * запущенные через jcmd или -XX:StartFlightRecording, берут пороги из аннотаций событий.
+     */
+    @Data
+    public static class Thresholds {
+        private Duration popularFilms = Duration.ofMillis(10);
+        private Duration addLike = Duration.ofMillis(5);
+        private Duration commonFriends = Duration.ofMillis(10);
+        private Duration duplicateCheck = Duration.ofMillis(5);
+        private Duration storageScan = Duration.ofMillis(20);
+    }
+}
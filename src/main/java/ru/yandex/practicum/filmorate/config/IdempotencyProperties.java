@@ -0,0 +1,21 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.idempotency")
+public class IdempotencyProperties {
+    private boolean enabled = true;
+    private int maxEntries = 10_000;
+    private Duration ttl = Duration.ofHours(1);
+    private Duration waitTimeout = Duration.ofSeconds(10);
+    /**
+     * Тело запроса с ключом читается в память целиком; тела больше этого размера получают 413.
+     */
+    private int maxBodyBytes = 64 * 1024;
+}
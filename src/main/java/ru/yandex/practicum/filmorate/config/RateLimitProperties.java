@@ -0,0 +1,36 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int maxBuckets = 1_000_000;
+    private Duration sweepInterval = Duration.ofSeconds(30);
+    private Map<String, RouteGroup> groups = new LinkedHashMap<>();
+
+    @Data
+    public static class RouteGroup {
+        private List<String> patterns = new ArrayList<>();
+        private List<String> methods = new ArrayList<>();
+        private String userVariable;
+        private Limit user = new Limit();
+        private Limit ip = new Limit();
+    }
+
+    @Data
+    public static class Limit {
+        private int capacity = 20;
+        private double refillPerSecond = 10;
+    }
+}
@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.response-cache")
+public class ResponseCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 1_000;
+    private int minGzipSize = 1024;
+}
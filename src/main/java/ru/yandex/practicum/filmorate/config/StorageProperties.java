@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.storage")
+public class StorageProperties {
+    private String mode = "cow";
+    private int offHeapChunkSize = 16 * 1024 * 1024;
+    private Tiered tiered = new Tiered();
+
+    @Data
+    public static class Tiered {
+        /**
+         * Каталог для файлов холодного уровня; пусто — временный каталог системы.
+         */
+        private String directory = "";
+        /**
+         * Бюджет горячего уровня в куче, по оценке размера фильмов.
+         */
+        private long hotBytes = 64L * 1024 * 1024;
+        private long segmentBytes = 64L * 1024 * 1024;
+        /**
+         * Доля устаревших записей, после которой закрытый сегмент переписывается.
+         */
+        private double compactionRatio = 0.5;
+    }
+}
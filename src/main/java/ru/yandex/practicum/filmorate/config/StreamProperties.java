@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.stream")
+public class StreamProperties {
+    private int topSize = 10;
+    private int bufferSize = 256;
+    private long flushIntervalMs = 200;
+    private long heartbeatIntervalMs = 30_000;
+    private long timeoutMs = 30 * 60 * 1000;
+    private int senderThreads = 2;
+}
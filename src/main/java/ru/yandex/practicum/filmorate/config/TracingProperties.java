@@ -0,0 +1,30 @@
+package ru.yandex.practicum.filmorate.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "filmorate.tracing")
+public class TracingProperties {
+    private boolean enabled = true;
+    /**
+     * Доля запросов, для которых записывается трасса; запрос с флагом sampled в traceparent записывается всегда.
+     */
+    private double sampleRate = 0.01;
+    /**
+     * Каталог для файлов трасс; пусто — filmorate-traces во временном каталоге системы.
+     */
+    private String directory = "";
+    private long maxFileBytes = 16L * 1024 * 1024;
+    /**
+     * Сколько файлов хранится вместе с текущим, более старые удаляются при ротации.
+     */
+    private int maxFiles = 5;
+    /**
+     * Очередь трасс на запись; при переполнении новые трассы отбрасываются, а не тормозят запросы.
+     */
+    private int queueSize = 1_024;
+    private int maxSpansPerTrace = 256;
+}
@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.analytics.AnalyticsService;
+import ru.yandex.practicum.filmorate.model.AgeBracketLikers;
+import ru.yandex.practicum.filmorate.model.AnalyticsReport;
+import ru.yandex.practicum.filmorate.model.DecadeDuration;
+import ru.yandex.practicum.filmorate.model.YearLikes;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    private final AnalyticsService analyticsService;
+
+    @GetMapping("/likes-by-year")
+    public AnalyticsReport<YearLikes> getLikesByYear() {
+        log.info("Получен http-запрос на получение лайков по годам выпуска");
+        return analyticsService.getLikesByYear();
+    }
+
+    @GetMapping("/duration-by-decade")
+    public AnalyticsReport<DecadeDuration> getDurationByDecade() {
+        log.info("Получен http-запрос на получение средней длительности фильмов по десятилетиям");
+        return analyticsService.getDurationByDecade();
+    }
+
+    @GetMapping("/likers-by-age")
+    public AnalyticsReport<AgeBracketLikers> getLikersByAge() {
+        log.info("Получен http-запрос на получение лайкнувших юзеров по возрасту");
+        return analyticsService.getLikersByAge();
+    }
+}
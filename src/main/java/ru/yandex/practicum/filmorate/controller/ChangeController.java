@@ -0,0 +1,31 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.ChangesResponse;
+import ru.yandex.practicum.filmorate.service.ChangeLogService;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/changes")
+public class ChangeController {
+    private final ChangeLogService changeLogService;
+
+    @GetMapping
+    public ChangesResponse getChanges(
+            @RequestParam(defaultValue = "0") @PositiveOrZero long since,
+            @RequestParam(defaultValue = "100") @Positive int limit
+    ) {
+        log.info("Получен http-запрос на получение изменений после seq {}", since);
+        return changeLogService.getChanges(since, limit);
+    }
+}
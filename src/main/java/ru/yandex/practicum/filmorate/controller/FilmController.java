@@ -1,7 +1,10 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -17,10 +20,14 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.IdPage;
 import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.validation.FastValidated;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Validated
@@ -36,12 +43,30 @@ public class FilmController {
         return filmService.getAll();
     }
 
+    @GetMapping(params = "ids")
+    public BatchResult<Film> getByIds(
+            @RequestParam @NotEmpty @Size(max = BatchResult.MAX_IDS) List<@Positive Long> ids
+    ) {
+        log.info("Получен http-запрос на получение фильмов по списку из {} id", ids.size());
+        return filmService.getByIds(ids);
+    }
+
     @GetMapping("/{id}")
     public Film getById(@PathVariable @Positive long id) {
         log.info("Получен http-запрос на получение фильма с id {}", id);
         return filmService.getById(id);
     }
 
+    @GetMapping("/{id}/likes")
+    public IdPage getLikes(
+            @PathVariable @Positive long id,
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "100") @Positive @Max(IdPage.MAX_LIMIT) int limit
+    ) {
+        log.info("Получен http-запрос на получение лайков фильма с id {} после id {}", id, after);
+        return filmService.getLikes(id, after, limit);
+    }
+
     @GetMapping("/popular")
     public Collection<Film> getPopularFilms(@RequestParam(defaultValue = "10") @Positive int count) {
         log.info("Получен http-запрос на вывод списка из {} самых популярных фильмов", count);
@@ -51,7 +76,7 @@ public class FilmController {
     @PostMapping
     @Validated({Marker.OnCreate.class})
     @ResponseStatus(HttpStatus.CREATED)
-    public Film create(@Valid @RequestBody Film film) {
+    public Film create(@FastValidated @RequestBody Film film) {
         log.info("Получен http-запрос на добавление фильма");
         Film createdFilm = filmService.create(film);
         log.info("Новый фильм с id {} был добавлен в базу данных", createdFilm.getId());
@@ -60,11 +85,18 @@ public class FilmController {
 
     @PutMapping
     @Validated(Marker.OnUpdate.class)
-    public Film update(@Valid @RequestBody Film newFilm) {
+    public Film update(@FastValidated @RequestBody Film newFilm) {
         log.info("Получен http-запрос на обновление фильма");
         return filmService.update(newFilm);
     }
 
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable @Positive long id) {
+        log.info("Получен http-запрос на удаление фильма с id {}", id);
+        filmService.delete(id);
+    }
+
     @PutMapping("/{id}/like/{userId}")
     public Film addLike(@PathVariable @Positive long id, @PathVariable @Positive long userId) {
         log.info("Получен http-запрос, что юзер ставит лайк фильму");
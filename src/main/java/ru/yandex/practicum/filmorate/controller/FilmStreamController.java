@@ -0,0 +1,24 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.service.stream.PopularityStreamService;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/films")
+public class FilmStreamController {
+    private final PopularityStreamService popularityStreamService;
+
+    @GetMapping(value = "/popular/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamPopularity() {
+        log.info("Получен http-запрос на подписку на изменения популярности фильмов");
+        return popularityStreamService.subscribe();
+    }
+}
@@ -1,9 +1,13 @@
 package ru.yandex.practicum.filmorate.controller;
 
-import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -12,12 +16,18 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.IdPage;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.validation.FastValidated;
 
 import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 @Validated
@@ -33,6 +43,14 @@ public class UserController {
         return userService.getAll();
     }
 
+    @GetMapping(params = "ids")
+    public BatchResult<User> getByIds(
+            @RequestParam @NotEmpty @Size(max = BatchResult.MAX_IDS) List<@Positive Long> ids
+    ) {
+        log.info("Получен http-запрос на получение юзеров по списку из {} id", ids.size());
+        return userService.getByIds(ids);
+    }
+
     @GetMapping("/{id}")
     public User getById(@PathVariable @Positive long id) {
         log.info("Получен http-запрос на получение юзера с id {}", id);
@@ -45,6 +63,16 @@ public class UserController {
         return userService.getUserFriends(id);
     }
 
+    @GetMapping("/{id}/friends/ids")
+    public IdPage getFriendIds(
+            @PathVariable @Positive long id,
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "100") @Positive @Max(IdPage.MAX_LIMIT) int limit
+    ) {
+        log.info("Получен http-запрос на получение id друзей юзера с id {} после id {}", id, after);
+        return userService.getFriendIds(id, after, limit);
+    }
+
     @GetMapping("/{id}/friends/common/{otherId}")
     public Collection<User> getCommonFriends(
             @PathVariable @Positive long id,
@@ -54,9 +82,18 @@ public class UserController {
         return userService.getCommonFriends(id, otherId);
     }
 
+    @GetMapping("/{id}/friends/common")
+    public Collection<User> getCommonFriends(
+            @PathVariable @Positive long id,
+            @RequestParam @NotEmpty @Size(max = UserService.MAX_COMMON_FRIENDS_USERS) List<@Positive Long> others
+    ) {
+        log.info("Получен http-запрос на получение списка друзей, общих с несколькими юзерами");
+        return userService.getCommonFriends(id, others);
+    }
+
     @PostMapping
     @Validated({Marker.OnCreate.class})
-    public User create(@Valid @RequestBody User user) {
+    public User create(@FastValidated @RequestBody User user) {
         log.info("Получен http-запрос на создание юзера");
         User createdUser = userService.create(user);
         log.info("Новый юзер с id {} был добавлен в базу данных", createdUser.getId());
@@ -65,11 +102,18 @@ public class UserController {
 
     @PutMapping
     @Validated(Marker.OnUpdate.class)
-    public User update(@Valid @RequestBody User newUser) {
+    public User update(@FastValidated @RequestBody User newUser) {
         log.info("Получен http-запрос на обновление юзера");
         return userService.update(newUser);
     }
 
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable @Positive long id) {
+        log.info("Получен http-запрос на удаление юзера с id {}", id);
+        userService.delete(id);
+    }
+
     @PutMapping("/{id}/friends/{friendId}")
     public User addFriend(
             @PathVariable @Positive long id,
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.GraphStats;
+import ru.yandex.practicum.filmorate.model.UserComponent;
+import ru.yandex.practicum.filmorate.service.SocialGraphIndex;
+import ru.yandex.practicum.filmorate.service.UserService;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users")
+public class UserGraphController {
+    private final UserService userService;
+    private final SocialGraphIndex socialGraphIndex;
+
+    @GetMapping("/graph/stats")
+    public GraphStats getStats() {
+        log.info("Получен http-запрос на получение статистики графа дружбы");
+        return socialGraphIndex.getStats();
+    }
+
+    @GetMapping("/{id}/component")
+    public UserComponent getComponent(@PathVariable @Positive long id) {
+        log.info("Получен http-запрос на получение компоненты связности юзера с id {}", id);
+        userService.getById(id);
+        return socialGraphIndex.getComponent(id);
+    }
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.controller;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.model.IdPage;
+import ru.yandex.practicum.filmorate.service.FilmService;
+
+@Slf4j
+@Validated
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/users")
+public class UserLikeController {
+    private final FilmService filmService;
+
+    @GetMapping("/{id}/likes")
+    public IdPage getLikedFilmIds(
+            @PathVariable @Positive long id,
+            @RequestParam(defaultValue = "0") @PositiveOrZero long after,
+            @RequestParam(defaultValue = "100") @Positive @Max(IdPage.MAX_LIMIT) int limit
+    ) {
+        log.info("Получен http-запрос на получение фильмов, которые лайкнул юзер с id {}", id);
+        return filmService.getLikedFilmIds(id, after, limit);
+    }
+}
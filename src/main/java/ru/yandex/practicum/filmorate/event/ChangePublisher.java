@@ -0,0 +1,123 @@
+package ru.yandex.practicum.filmorate.event;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Публикует события изменений в порядке их номеров из {@link ChangeSequence}. Сами записи в хранилище
+ * идут параллельно и общей блокировки не держат; упорядочена только доставка: событие с номером
+ * {@code n} уходит синхронным слушателям после всех событий с меньшими номерами. Запись, получившая номер,
+ * освобождает его всегда — с событием или без, иначе доставка встанет.
+ * <p>
+ * Слушатель может сам изменить данные, как {@code FilmService.onUserDeleted}: такое вложенное событие
+ * ставится в очередь и доставляется тем же потоком после текущего, не дожидаясь своей очереди внутри
+ * слушателя.
+ */
+@Slf4j
+@Component
+public class ChangePublisher {
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong lastSeq = new AtomicLong();
+    private final Map<Long, Delivery> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock dispatch = new ReentrantLock();
+    private final Condition progress = dispatch.newCondition();
+    private long delivered;
+
+    public ChangePublisher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Выполняет запись в хранилище и, если хранилище выдало ей номер, публикует событие, построенное
+     * по результату, в порядке номеров; {@code null} вместо события освобождает номер без публикации.
+     * Возвращается после доставки события, ошибка слушателя пробрасывается вызывающему.
+     */
+    public <T> T write(Supplier<T> write, Function<? super T, ?> event) {
+        ChangeSequence.Ticket ticket = new ChangeSequence.Ticket(lastSeq);
+        T result = null;
+        Object change = null;
+        try {
+            result = ChangeSequence.within(ticket, write);
+            if (ticket.seq() != 0) {
+                change = event.apply(result);
+            }
+        } finally {
+            if (ticket.seq() != 0) {
+                deliver(ticket.seq(), change);
+            }
+        }
+        return result;
+    }
+
+    private void deliver(long seq, Object change) {
+        boolean nested = dispatch.isHeldByCurrentThread();
+        Delivery delivery = new Delivery(change, nested);
+        pending.put(seq, delivery);
+        if (nested) {
+            return;
+        }
+        dispatch.lock();
+        try {
+            while (true) {
+                drain();
+                if (delivered >= seq) {
+                    break;
+                }
+                progress.awaitUninterruptibly();
+            }
+        } finally {
+            dispatch.unlock();
+        }
+        if (delivery.failure != null) {
+            throw delivery.failure;
+        }
+    }
+
+    /**
+     * Доставляет все события, номера которых идут подряд за последним доставленным, включая
+     * поставленные в очередь самими слушателями.
+     */
+    private void drain() {
+        long before = delivered;
+        Delivery next;
+        while ((next = pending.remove(delivered + 1)) != null) {
+            delivered++;
+            if (next.change == null) {
+                continue;
+            }
+            try {
+                eventPublisher.publishEvent(next.change);
+            } catch (RuntimeException e) {
+                if (next.nested) {
+                    // вложенную запись уже некому дождаться: её слушатель вернулся раньше доставки
+                    log.error("Слушатель не обработал событие {} с seq {}", next.change, delivered, e);
+                } else {
+                    next.failure = e;
+                }
+            }
+        }
+        if (delivered != before) {
+            progress.signalAll();
+        }
+    }
+
+    private static final class Delivery {
+        private final Object change;
+        private final boolean nested;
+        private RuntimeException failure;
+
+        private Delivery(Object change, boolean nested) {
+            this.change = change;
+            this.nested = nested;
+        }
+    }
+}
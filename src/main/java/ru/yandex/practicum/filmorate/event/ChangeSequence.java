@@ -0,0 +1,64 @@
+package ru.yandex.practicum.filmorate.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Порядковый номер изменения. Хранилище вызывает {@link #stamp()} в той же точке, где фиксирует
+ * изменение: внутри {@code compute} по ключу или под блокировкой записи. Поэтому номера
+ * идут в порядке изменений данных, хотя записи разных потоков выполняются параллельно.
+ * <p>
+ * Номер получает только запись, открытая через {@link ChangePublisher}: вне её (прямые вызовы хранилища
+ * в тестах, наполнение при старте) {@link #stamp()} ничего не делает.
+ */
+public final class ChangeSequence {
+    private static final ThreadLocal<Ticket> CURRENT = new ThreadLocal<>();
+
+    private ChangeSequence() {
+    }
+
+    /**
+     * Выдаёт номер текущей записи потока, если он ещё не выдан. Хранилище вызывает его, только если
+     * данные действительно изменились.
+     */
+    public static void stamp() {
+        Ticket ticket = CURRENT.get();
+        if (ticket != null && ticket.seq == 0) {
+            ticket.seq = ticket.counter.incrementAndGet();
+        }
+    }
+
+    /**
+     * Выполняет действие в рамках записи {@code ticket} и восстанавливает прежнюю: слушатель может
+     * открыть вложенную запись, пока выполняется внешняя.
+     */
+    static <T> T within(Ticket ticket, Supplier<T> action) {
+        Ticket previous = CURRENT.get();
+        CURRENT.set(ticket);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    static final class Ticket {
+        private final AtomicLong counter;
+        private long seq;
+
+        Ticket(AtomicLong counter) {
+            this.counter = counter;
+        }
+
+        /**
+         * Номер изменения или 0, если запись ничего не изменила.
+         */
+        long seq() {
+            return seq;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.event;
+
+public record LikeEvent(long filmId, long userId, boolean added, int likeCount) {
+
+    public int delta() {
+        return added ? 1 : -1;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class AnalyticsNotReadyException extends RuntimeException {
+    public AnalyticsNotReadyException(String message) {
+        super(message);
+    }
+}
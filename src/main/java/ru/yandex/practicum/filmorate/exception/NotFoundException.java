@@ -1,7 +1,47 @@
 package ru.yandex.practicum.filmorate.exception;
 
+/**
+ * Исключение без стектрейса: оно описывает ожидаемый ответ 404, а не ошибку в коде.
+ * Для фильмов и юзеров сообщение собирается лениво по шаблону, чтобы поток 404 не форматировал
+ * строки, которые никто не прочитает.
+ */
 public class NotFoundException extends RuntimeException {
+    public static final String FILM_TEMPLATE = "Фильма с id %d нет в базе данных";
+    public static final String USER_TEMPLATE = "Юзера с id %d нет в базе данных";
+
+    private final String template;
+    private final long id;
+
     public NotFoundException(String message) {
-        super(message);
+        super(message, null, false, false);
+        this.template = null;
+        this.id = 0;
+    }
+
+    private NotFoundException(String template, long id) {
+        super(null, null, false, false);
+        this.template = template;
+        this.id = id;
+    }
+
+    public static NotFoundException film(long id) {
+        return new NotFoundException(FILM_TEMPLATE, id);
+    }
+
+    public static NotFoundException user(long id) {
+        return new NotFoundException(USER_TEMPLATE, id);
+    }
+
+    @Override
+    public String getMessage() {
+        return template == null ? super.getMessage() : String.format(template, id);
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+
+    public long getId() {
+        return id;
     }
 }
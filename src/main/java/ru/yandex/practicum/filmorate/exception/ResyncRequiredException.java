@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.exception;
+
+public class ResyncRequiredException extends RuntimeException {
+    public ResyncRequiredException(String message) {
+        super(message);
+    }
+}
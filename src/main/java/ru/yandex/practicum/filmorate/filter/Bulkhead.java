@@ -0,0 +1,116 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.yandex.practicum.filmorate.config.BulkheadProperties;
+
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class Bulkhead {
+    private final String name;
+    private final List<PathPattern> patterns;
+    private final int maxConcurrent;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Counter rejectedQueueFull;
+    private final Counter rejectedTimeout;
+    private final Timer queueWait;
+
+    Bulkhead(String name, BulkheadProperties.EndpointClass config, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.patterns = config.getPatterns()
+                .stream()
+                .map(PathPatternParser.defaultInstance::parse)
+                .toList();
+        this.maxConcurrent = config.getMaxConcurrent();
+        this.maxQueue = config.getMaxQueue();
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.permits = new Semaphore(maxConcurrent);
+        this.rejectedQueueFull = rejectedCounter(name, "queue_full", meterRegistry);
+        this.rejectedTimeout = rejectedCounter(name, "timeout", meterRegistry);
+        this.queueWait = Timer.builder("filmorate.bulkhead.queue.wait")
+                .tag("class", name)
+                .description("Время ожидания свободного слота в пуле класса эндпоинтов")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.bulkhead.active", this, Bulkhead::getActive)
+                .tag("class", name)
+                .register(meterRegistry);
+        Gauge.builder("filmorate.bulkhead.queued", queued, AtomicInteger::get)
+                .tag("class", name)
+                .register(meterRegistry);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isFallback() {
+        return patterns.isEmpty();
+    }
+
+    boolean matches(PathContainer path) {
+        for (PathPattern pattern : patterns) {
+            if (pattern.matches(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return причина отказа или {@code null}, если слот получен и его нужно вернуть через {@link #release()}
+     */
+    String tryEnter() {
+        if (permits.tryAcquire()) {
+            queueWait.record(0, TimeUnit.NANOSECONDS);
+            return null;
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejectedQueueFull.increment();
+            return "очередь заполнена";
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        } finally {
+            queued.decrementAndGet();
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!acquired) {
+            rejectedTimeout.increment();
+            return "истекло время ожидания в очереди";
+        }
+        return null;
+    }
+
+    void release() {
+        permits.release();
+    }
+
+    private double getActive() {
+        return maxConcurrent - permits.availablePermits();
+    }
+
+    private static Counter rejectedCounter(String name, String reason, MeterRegistry meterRegistry) {
+        return Counter.builder("filmorate.bulkhead.rejected")
+                .tag("class", name)
+                .tag("reason", reason)
+                .description("Запросы, отклонённые из-за перегрузки класса эндпоинтов")
+                .register(meterRegistry);
+    }
+}
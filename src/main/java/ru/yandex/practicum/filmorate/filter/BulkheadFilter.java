@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.yandex.practicum.filmorate.config.BulkheadProperties;
+
+import java.io.IOException;
+import java.util.List;
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 30)
+public class BulkheadFilter extends OncePerRequestFilter {
+    private final BulkheadProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final List<Bulkhead> bulkheads;
+    private final Bulkhead fallback;
+
+    public BulkheadFilter(BulkheadProperties properties, ErrorResponseWriter errorResponseWriter,
+                          MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        List<Bulkhead> all = properties.getClasses().entrySet()
+                .stream()
+                .map(entry -> new Bulkhead(entry.getKey(), entry.getValue(), meterRegistry))
+                .toList();
+        this.bulkheads = all.stream()
+                .filter(bulkhead -> !bulkhead.isFallback())
+                .toList();
+        this.fallback = all.stream()
+                .filter(Bulkhead::isFallback)
+                .findFirst()
+                .orElse(null);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || (bulkheads.isEmpty() && fallback == null);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Bulkhead bulkhead = resolve(PathContainer.parsePath(request.getRequestURI()));
+        if (bulkhead == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String rejection = bulkhead.tryEnter();
+        if (rejection != null) {
+            log.warn("Запрос {} отклонён, класс эндпоинтов {} перегружен: {}", request.getRequestURI(),
+                    bulkhead.getName(), rejection);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            errorResponseWriter.write(response, HttpStatus.SERVICE_UNAVAILABLE, "Ошибка 503",
+                    "Сервис перегружен, повторите запрос позже");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private Bulkhead resolve(PathContainer path) {
+        for (Bulkhead bulkhead : bulkheads) {
+            if (bulkhead.matches(path)) {
+                return bulkhead;
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+record CachedResponse(String contentType, byte[] body, byte[] gzippedBody) {
+
+    static CachedResponse of(String contentType, byte[] body, int minGzipSize) {
+        return new CachedResponse(contentType, body, body.length >= minGzipSize ? gzip(body) : null);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
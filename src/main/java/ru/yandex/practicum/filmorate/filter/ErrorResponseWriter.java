@@ -0,0 +1,25 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.io.IOException;
+
+@Component
+@RequiredArgsConstructor
+public class ErrorResponseWriter {
+    private final ObjectMapper objectMapper;
+
+    public void write(HttpServletResponse response, HttpStatus status, String error, String description)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse(error, description));
+    }
+}
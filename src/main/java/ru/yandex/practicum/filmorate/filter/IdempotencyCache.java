@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+class IdempotencyCache {
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // ключи в порядке добавления: у всех записей одинаковый TTL, поэтому самые старые всегда в голове очереди
+    private final Queue<Slot> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    IdempotencyCache(int maxEntries, Duration ttl, LongSupplier clock) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttl.toMillis();
+        this.clock = clock;
+    }
+
+    /**
+     * Регистрирует новую запись либо возвращает уже существующую живую запись с тем же ключом.
+     * Выполнять запрос должен только тот, кто получил {@code owner == true}.
+     */
+    Claim claim(String key, byte[] fingerprint) {
+        long now = clock.getAsLong();
+        Entry created = new Entry(fingerprint, now);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, created);
+            if (existing == null || (isExpired(existing, now) && entries.replace(key, existing, created))) {
+                insertionOrder.add(new Slot(key, created));
+                evict(now);
+                return new Claim(created, true);
+            }
+            if (!isExpired(existing, now)) {
+                return new Claim(existing, false);
+            }
+        }
+    }
+
+    /**
+     * SHA-256 тела запроса. 32-битного хэша мало: при коллизии повтор с другим телом получил бы чужой
+     * сохранённый ответ вместо 422.
+     */
+    static byte[] fingerprint(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            // SHA-256 обязана поддерживать любая реализация Java
+            throw new IllegalStateException(e);
+        }
+    }
+
+    void remove(String key, Entry entry) {
+        entries.remove(key, entry);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Slot head;
+        while ((head = insertionOrder.peek()) != null
+                && (entries.size() > maxEntries || isExpired(head.entry(), now) || !head.isCurrent(entries))) {
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key(), head.entry());
+            }
+        }
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return now - entry.createdAt() >= ttlMillis;
+    }
+
+    record Entry(byte[] fingerprint, long createdAt, CompletableFuture<StoredResponse> response) {
+
+        Entry(byte[] fingerprint, long createdAt) {
+            this(fingerprint, createdAt, new CompletableFuture<>());
+        }
+
+        boolean matches(byte[] other) {
+            return MessageDigest.isEqual(fingerprint, other);
+        }
+    }
+
+    record Claim(Entry entry, boolean owner) {
+    }
+
+    record StoredResponse(int status, String contentType, byte[] body) {
+    }
+
+    private record Slot(String key, Entry entry) {
+
+        boolean isCurrent(Map<String, Entry> entries) {
+            return entries.get(key) == entry;
+        }
+    }
+}
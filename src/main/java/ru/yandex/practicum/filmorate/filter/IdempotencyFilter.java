@@ -0,0 +1,161 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.yandex.practicum.filmorate.config.IdempotencyProperties;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final List<Endpoint> ENDPOINTS = List.of(
+            new Endpoint(HttpMethod.POST, "/films"),
+            new Endpoint(HttpMethod.POST, "/users"),
+            new Endpoint(HttpMethod.PUT, "/films/{id}/like/{userId}"),
+            new Endpoint(HttpMethod.PUT, "/users/{id}/friends/{friendId}")
+    );
+
+    private final IdempotencyProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final IdempotencyCache cache;
+
+    public IdempotencyFilter(IdempotencyProperties properties, ErrorResponseWriter errorResponseWriter) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        this.cache = new IdempotencyCache(properties.getMaxEntries(), properties.getTtl(), System::currentTimeMillis);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!properties.isEnabled() || request.getHeader(IDEMPOTENCY_KEY) == null) {
+            return true;
+        }
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        return ENDPOINTS.stream().noneMatch(endpoint -> endpoint.matches(request.getMethod(), path));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            errorResponseWriter.write(response, HttpStatus.BAD_REQUEST, "Ошибка 400",
+                    "Заголовок " + IDEMPOTENCY_KEY + " должен быть непустым и не длиннее " + MAX_KEY_LENGTH);
+            return;
+        }
+        byte[] body = readBody(request);
+        if (body == null) {
+            errorResponseWriter.write(response, HttpStatus.PAYLOAD_TOO_LARGE, "Ошибка 413",
+                    "Тело запроса с ключом идемпотентности должно быть не больше "
+                            + properties.getMaxBodyBytes() + " байт");
+            return;
+        }
+        String cacheKey = request.getMethod() + " " + request.getRequestURI() + " " + key;
+        byte[] fingerprint = IdempotencyCache.fingerprint(body);
+
+        IdempotencyCache.Claim claim = cache.claim(cacheKey, fingerprint);
+        IdempotencyCache.Entry entry = claim.entry();
+        if (!entry.matches(fingerprint)) {
+            log.warn("Ключ идемпотентности {} повторно использован с другим телом запроса", key);
+            errorResponseWriter.write(response, HttpStatus.UNPROCESSABLE_ENTITY, "Ошибка идемпотентности",
+                    "Ключ " + key + " уже использован для другого запроса");
+            return;
+        }
+        if (claim.owner()) {
+            execute(new CachedBodyRequest(request, body), response, filterChain, cacheKey, entry);
+        } else {
+            replay(response, entry, key);
+        }
+    }
+
+    /**
+     * Тело целиком держится в памяти до конца запроса, поэтому его размер ограничен; {@code null} — тело
+     * больше {@code maxBodyBytes}.
+     */
+    private byte[] readBody(HttpServletRequest request) throws IOException {
+        int maxBodyBytes = properties.getMaxBodyBytes();
+        if (request.getContentLengthLong() > maxBodyBytes) {
+            return null;
+        }
+        byte[] body = request.getInputStream().readNBytes(maxBodyBytes + 1);
+        return body.length > maxBodyBytes ? null : body;
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         String cacheKey, IdempotencyCache.Entry entry) throws ServletException, IOException {
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(request, wrapper);
+        } catch (IOException | ServletException | RuntimeException e) {
+            cache.remove(cacheKey, entry);
+            entry.response().complete(null);
+            throw e;
+        }
+        var stored = new IdempotencyCache.StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                wrapper.getContentAsByteArray());
+        if (stored.status() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+            // серверные ошибки не запоминаем, чтобы повтор клиента выполнился заново
+            cache.remove(cacheKey, entry);
+        }
+        entry.response().complete(stored);
+        wrapper.copyBodyToResponse();
+    }
+
+    private void replay(HttpServletResponse response, IdempotencyCache.Entry entry, String key) throws IOException {
+        IdempotencyCache.StoredResponse stored;
+        try {
+            stored = entry.response().get(properties.getWaitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stored = null;
+        } catch (ExecutionException | TimeoutException e) {
+            stored = null;
+        }
+        if (stored == null) {
+            errorResponseWriter.write(response, HttpStatus.CONFLICT, "Ошибка идемпотентности",
+                    "Запрос с ключом " + key + " ещё выполняется или завершился ошибкой, повторите позже");
+            return;
+        }
+        log.info("Запрос с ключом идемпотентности {} обслужен из кэша", key);
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private record Endpoint(HttpMethod method, PathPattern pattern) {
+
+        Endpoint(HttpMethod method, String pattern) {
+            this(method, PathPatternParser.defaultInstance.parse(pattern));
+        }
+
+        boolean matches(String requestMethod, PathContainer path) {
+            return method.matches(requestMethod) && pattern.matches(path);
+        }
+    }
+}
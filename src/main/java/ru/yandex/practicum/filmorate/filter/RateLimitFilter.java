@@ -0,0 +1,147 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.PathContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import ru.yandex.practicum.filmorate.config.RateLimitProperties;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 40)
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RateLimitProperties properties;
+    private final ErrorResponseWriter errorResponseWriter;
+    private final List<Route> routes;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper;
+
+    public RateLimitFilter(RateLimitProperties properties, ErrorResponseWriter errorResponseWriter) {
+        this.properties = properties;
+        this.errorResponseWriter = errorResponseWriter;
+        this.routes = properties.getGroups().entrySet()
+                .stream()
+                .flatMap(group -> Route.of(group.getKey(), group.getValue()).stream())
+                .toList();
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSweepInterval().toMillis();
+        sweeper.scheduleWithFixedDelay(this::evictIdleBuckets, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || routes.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Route route : routes) {
+            PathPattern.PathMatchInfo match = route.match(request.getMethod(), path);
+            if (match == null) {
+                continue;
+            }
+            long now = System.nanoTime();
+            String userId = route.userVariable() != null ? match.getUriVariables().get(route.userVariable()) : null;
+            long wait = userId != null ? acquire(route.group() + ":user:" + userId, route.userRate(), now) : 0;
+            if (wait == 0) {
+                wait = acquire(route.group() + ":ip:" + request.getRemoteAddr(), route.ipRate(), now);
+            }
+            if (wait > 0) {
+                reject(response, route.group(), wait);
+                return;
+            }
+            break;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    int getBucketCount() {
+        return buckets.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private long acquire(String key, TokenBucket.Rate rate, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= properties.getMaxBuckets()) {
+                // при переполнении пропускаем запрос, а не растим память без ограничений
+                return 0;
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(rate, now));
+        }
+        return bucket.tryAcquire(now);
+    }
+
+    private void reject(HttpServletResponse response, String group, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999));
+        log.warn("Превышен лимит запросов для группы {}, повтор через {} с", group, retryAfterSeconds);
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        errorResponseWriter.write(response, HttpStatus.TOO_MANY_REQUESTS, "Ошибка 429",
+                "Слишком много запросов, повторите через " + retryAfterSeconds + " с");
+    }
+
+    private void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("Удалено {} простаивающих корзин лимита запросов", before - buckets.size());
+    }
+
+    private record Route(String group, PathPattern pattern, Set<String> methods, String userVariable,
+                         TokenBucket.Rate userRate, TokenBucket.Rate ipRate) {
+
+        static List<Route> of(String group, RateLimitProperties.RouteGroup config) {
+            Set<String> methods = config.getMethods()
+                    .stream()
+                    .map(String::toUpperCase)
+                    .collect(Collectors.toSet());
+            TokenBucket.Rate userRate = TokenBucket.Rate.of(config.getUser().getCapacity(),
+                    config.getUser().getRefillPerSecond());
+            TokenBucket.Rate ipRate = TokenBucket.Rate.of(config.getIp().getCapacity(),
+                    config.getIp().getRefillPerSecond());
+            return config.getPatterns()
+                    .stream()
+                    .map(pattern -> new Route(group, PathPatternParser.defaultInstance.parse(pattern), methods,
+                            config.getUserVariable(), userRate, ipRate))
+                    .toList();
+        }
+
+        PathPattern.PathMatchInfo match(String method, PathContainer path) {
+            if (!methods.isEmpty() && !methods.contains(method)) {
+                return null;
+            }
+            return pattern.matchAndExtract(path);
+        }
+    }
+}
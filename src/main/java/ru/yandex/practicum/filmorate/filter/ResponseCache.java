@@ -0,0 +1,91 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Закэшированные ответы, сгруппированные по ключу (id фильма, 0 — популярные). Запись ответа и сброс
+ * группы идут через {@code compute} по её ключу и поэтому упорядочены: ответ, посчитанный до сброса,
+ * либо не попадёт в кэш, либо будет удалён этим же сбросом.
+ * <p>
+ * Поколения ведутся по полосам ключей, а не одно на кэш: сброс популярных, который идёт на каждый лайк,
+ * не отбраковывает ответы по фильмам, считавшиеся в это время. Полос фиксированное число, поэтому
+ * память под поколения не растёт с числом фильмов; ключи одной полосы сбрасывают поколение друг другу,
+ * что лишь изредка отбраковывает свежий ответ.
+ */
+class ResponseCache {
+    private final Map<Long, Map<String, CachedResponse>> groups = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int maxEntries;
+
+    ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    CachedResponse get(long key, String variant) {
+        return groups.getOrDefault(key, Map.of()).get(variant);
+    }
+
+    /**
+     * Поколение ключа; его нужно взять до того, как запрос прочитает данные, и передать в {@link #put}.
+     */
+    long generation(long key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Кладёт ответ, если с {@code startGeneration} ключ не сбрасывался. Когда кэш полон, он
+     * очищается целиком: горячие ответы быстро вернутся, а кэш не перестаёт принимать новые.
+     */
+    boolean put(long key, String variant, CachedResponse response, long startGeneration) {
+        if (size.get() >= maxEntries) {
+            clear();
+        }
+        boolean[] stored = new boolean[1];
+        groups.compute(key, (k, group) -> {
+            if (generations.get(stripe(key)) != startGeneration) {
+                return group;
+            }
+            Map<String, CachedResponse> target = group != null ? group : new ConcurrentHashMap<>();
+            if (target.put(variant, response) == null) {
+                size.incrementAndGet();
+            }
+            stored[0] = true;
+            return target;
+        });
+        return stored[0];
+    }
+
+    void evict(long key) {
+        groups.compute(key, (k, group) -> {
+            // поколение меняется под той же блокировкой, под которой put его проверяет
+            generations.incrementAndGet(stripe(key));
+            if (group != null) {
+                size.addAndGet(-group.size());
+            }
+            return null;
+        });
+    }
+
+    void clear() {
+        for (Long key : groups.keySet()) {
+            groups.computeIfPresent(key, (k, group) -> {
+                size.addAndGet(-group.size());
+                return null;
+            });
+        }
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    private static int stripe(long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L) & (GENERATION_STRIPES - 1);
+    }
+}
@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.yandex.practicum.filmorate.config.ResponseCacheProperties;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.FilmUpdatedEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+
+import java.io.IOException;
+import java.util.Objects;
+
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 10)
+public class ResponseCacheFilter extends OncePerRequestFilter {
+    private static final String FILMS_PREFIX = "/films/";
+    private static final String POPULAR_PATH = "/films/popular";
+    private static final long POPULAR_KEY = 0;
+
+    private final ResponseCacheProperties properties;
+    // ключ — id фильма, для /films/popular используется 0
+    private final ResponseCache cache;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties) {
+        this.properties = properties;
+        this.cache = new ResponseCache(properties.getMaxEntries());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled()
+                || !HttpMethod.GET.matches(request.getMethod())
+                || resolveCacheKey(request.getRequestURI()) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Long cacheKey = resolveCacheKey(request.getRequestURI());
+        String variant = request.getQueryString() + "|" + request.getHeader(HttpHeaders.ACCEPT);
+        boolean acceptsGzip = acceptsGzip(request);
+
+        CachedResponse cached = cache.get(cacheKey, variant);
+        if (cached != null) {
+            write(response, cached, acceptsGzip);
+            return;
+        }
+
+        long startGeneration = cache.generation(cacheKey);
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        filterChain.doFilter(request, wrapper);
+        if (wrapper.getStatus() != HttpServletResponse.SC_OK || Objects.isNull(wrapper.getContentType())) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        CachedResponse created = CachedResponse.of(wrapper.getContentType(), wrapper.getContentAsByteArray(),
+                properties.getMinGzipSize());
+        // если за время запроса фильм успел измениться, ответ мог устареть — кэш его не примет
+        cache.put(cacheKey, variant, created, startGeneration);
+        write(response, created, acceptsGzip);
+    }
+
+    @EventListener
+    public void onFilmCreated(FilmCreatedEvent event) {
+        cache.evict(POPULAR_KEY);
+    }
+
+    @EventListener
+    public void onFilmUpdated(FilmUpdatedEvent event) {
+        cache.evict(event.film().getId());
+        cache.evict(POPULAR_KEY);
+    }
+
+    @EventListener
+    public void onFilmDeleted(FilmDeletedEvent event) {
+        cache.evict(event.film().getId());
+        cache.evict(POPULAR_KEY);
+    }
+
+    @EventListener
+    public void onLike(LikeEvent event) {
+        cache.evict(event.filmId());
+        cache.evict(POPULAR_KEY);
+    }
+
+    private static void write(HttpServletResponse response, CachedResponse cached, boolean acceptsGzip)
+            throws IOException {
+        byte[] body = cached.body();
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentType(cached.contentType());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip && cached.gzippedBody() != null) {
+            body = cached.gzippedBody();
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    private static Long resolveCacheKey(String uri) {
+        if (POPULAR_PATH.equals(uri)) {
+            return POPULAR_KEY;
+        }
+        if (!uri.startsWith(FILMS_PREFIX) || uri.length() == FILMS_PREFIX.length()
+                || uri.length() > FILMS_PREFIX.length() + 18) {
+            return null;
+        }
+        long id = 0;
+        for (int i = FILMS_PREFIX.length(); i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id > 0 ? id : null;
+    }
+}
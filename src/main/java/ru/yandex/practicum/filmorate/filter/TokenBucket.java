@@ -0,0 +1,48 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов в форме GCRA: всё состояние — одно «теоретическое время прибытия»,
+ * которое обновляется через CAS без блокировок. Если это время в прошлом, корзина полна
+ * и её можно удалить из памяти без потери информации.
+ */
+class TokenBucket {
+    private final Rate rate;
+    private final AtomicLong theoreticalArrival;
+
+    TokenBucket(Rate rate, long nowNanos) {
+        this.rate = rate;
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * @return 0, если токен получен, иначе сколько наносекунд нужно подождать до следующего
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long next = Math.max(arrival, nowNanos) + rate.emissionIntervalNanos();
+            long wait = next - nowNanos - rate.burstNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) {
+                return 0;
+            }
+        }
+    }
+
+    boolean isFull(long nowNanos) {
+        return theoreticalArrival.get() <= nowNanos;
+    }
+
+    record Rate(long emissionIntervalNanos, long burstNanos) {
+
+        static Rate of(int capacity, double refillPerSecond) {
+            long interval = (long) (TimeUnit.SECONDS.toNanos(1) / refillPerSecond);
+            return new Rate(interval, interval * capacity);
+        }
+    }
+}
@@ -1,39 +1,75 @@
 package ru.yandex.practicum.filmorate.handler;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.yandex.practicum.filmorate.config.ErrorProperties;
+import ru.yandex.practicum.filmorate.exception.AnalyticsNotReadyException;
 import ru.yandex.practicum.filmorate.exception.DuplicateEmailException;
 import ru.yandex.practicum.filmorate.exception.DuplicateLoginException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.exception.ResyncRequiredException;
 import ru.yandex.practicum.filmorate.model.ErrorResponse;
 
+import java.util.function.Supplier;
+
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final ErrorResponse BAD_ARGUMENT =
+            new ErrorResponse("Ошибка 400", "Некорректные данные от пользователя");
+
+    private final NotFoundBodies notFoundBodies;
+    private final ThrottledLog argumentLog;
+    private final ThrottledLog notFoundLog;
+    private final ThrottledLog violationLog;
+
+    public GlobalExceptionHandler(NotFoundBodies notFoundBodies, ErrorProperties properties) {
+        this.notFoundBodies = notFoundBodies;
+        long interval = properties.getLogInterval().toNanos();
+        this.argumentLog = new ThrottledLog(interval, System::nanoTime);
+        this.notFoundLog = new ThrottledLog(interval, System::nanoTime);
+        this.violationLog = new ThrottledLog(interval, System::nanoTime);
+    }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleMethodArgumentNotValid(final MethodArgumentNotValidException e) {
-        log.warn("Некорректное значение параметра {}: {}", e.getParameter(), e.getMessage());
-        return new ErrorResponse("Ошибка 400", "Некорректные данные от пользователя");
+        warn(argumentLog, "Некорректное значение параметра: {}", e::getMessage);
+        return BAD_ARGUMENT;
     }
 
+    /**
+     * Клиентам, принимающим JSON, отдаёт заранее сериализованное тело; остальным — {@link ErrorResponse}
+     * через обычное согласование формата.
+     */
     @ExceptionHandler
-    @ResponseStatus(HttpStatus.NOT_FOUND)
-    public ErrorResponse handleFilmNotFound(final NotFoundException e) {
-        log.warn("Попытка обращения к несуществующему ресурсу: {}", e.getMessage());
-        return new ErrorResponse("Ошибка 404", e.getMessage());
+    public ResponseEntity<Object> handleFilmNotFound(final NotFoundException e, final HttpServletRequest request)
+            throws JsonProcessingException {
+        warn(notFoundLog, "Попытка обращения к несуществующему ресурсу: {}", e::getMessage);
+        if (acceptsJson(request.getHeader(HttpHeaders.ACCEPT))) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(notFoundBodies.render(e));
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(new ErrorResponse(NotFoundBodies.ERROR, e.getMessage()));
     }
 
     @ExceptionHandler
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleConstraintViolation(final ConstraintViolationException e) {
-        log.warn("Неудачная попытка валидации данных: {}", e.getConstraintViolations());
+        warn(violationLog, "Неудачная попытка валидации данных: {}", e::getConstraintViolations);
         return new ErrorResponse("Ошибка валидации", e.getMessage());
     }
 
@@ -44,10 +80,49 @@ public class GlobalExceptionHandler {
         return new ErrorResponse("Ошибка дубликата", e.getMessage());
     }
 
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.GONE)
+    public ErrorResponse handleResyncRequired(final ResyncRequiredException e) {
+        log.warn("Клиент слишком отстал от журнала изменений: {}", e.getMessage());
+        return new ErrorResponse("Требуется полная синхронизация", e.getMessage());
+    }
+
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ErrorResponse handleAnalyticsNotReady(final AnalyticsNotReadyException e) {
+        log.warn("Запрошена аналитика до первого пересчёта: {}", e.getMessage());
+        return new ErrorResponse("Аналитика недоступна", e.getMessage());
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleThrowable(final Throwable e) {
         log.warn("Возникла непредвиденная ошибка: {}", e.getMessage());
         return new ErrorResponse("Ошибка обращения к сервису", e.getMessage());
     }
+
+    private static void warn(ThrottledLog throttle, String message, Supplier<Object> argument) {
+        long suppressed = throttle.tryAcquire();
+        if (suppressed == 0) {
+            log.warn(message, argument.get());
+        } else if (suppressed > 0) {
+            log.warn(message + " (ещё {} таких же ошибок с прошлого сообщения)", argument.get(), suppressed);
+        }
+    }
+
+    private static boolean acceptsJson(String accept) {
+        if (accept == null || accept.isEmpty()) {
+            return true;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                    return true;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+        return false;
+    }
 }
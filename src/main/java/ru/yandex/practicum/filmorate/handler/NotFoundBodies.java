@@ -0,0 +1,57 @@
+package ru.yandex.practicum.filmorate.handler;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * JSON-тела ответов 404, заранее сериализованные по шаблонам {@link NotFoundException}:
+ * на запрос остаётся только вставить id между готовыми префиксом и суффиксом.
+ */
+@Component
+public class NotFoundBodies {
+    static final String ERROR = "Ошибка 404";
+    private static final String ID_PLACEHOLDER = "%d";
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[][]> parts;
+
+    public NotFoundBodies(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.parts = Map.of(
+                NotFoundException.FILM_TEMPLATE, split(NotFoundException.FILM_TEMPLATE),
+                NotFoundException.USER_TEMPLATE, split(NotFoundException.USER_TEMPLATE));
+    }
+
+    public byte[] render(NotFoundException e) throws JsonProcessingException {
+        byte[][] templateParts = e.getTemplate() == null ? null : parts.get(e.getTemplate());
+        if (templateParts == null) {
+            return objectMapper.writeValueAsBytes(new ErrorResponse(ERROR, e.getMessage()));
+        }
+        byte[] prefix = templateParts[0];
+        byte[] suffix = templateParts[1];
+        byte[] id = Long.toString(e.getId()).getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[prefix.length + id.length + suffix.length];
+        System.arraycopy(prefix, 0, body, 0, prefix.length);
+        System.arraycopy(id, 0, body, prefix.length, id.length);
+        System.arraycopy(suffix, 0, body, prefix.length + id.length, suffix.length);
+        return body;
+    }
+
+    private byte[][] split(String template) {
+        try {
+            String json = objectMapper.writeValueAsString(new ErrorResponse(ERROR, template));
+            int at = json.indexOf(ID_PLACEHOLDER);
+            return new byte[][]{
+                    json.substring(0, at).getBytes(StandardCharsets.UTF_8),
+                    json.substring(at + ID_PLACEHOLDER.length()).getBytes(StandardCharsets.UTF_8)};
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
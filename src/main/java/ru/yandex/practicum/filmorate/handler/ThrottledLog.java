@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.handler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Пропускает одно сообщение за интервал и считает подавленные. Первый вызов после окончания интервала
+ * получает число подавленных с прошлого сообщения, чтобы вывести его в лог.
+ */
+class ThrottledLog {
+    private final long intervalNanos;
+    private final LongSupplier clock;
+    private final AtomicLong nextAllowed;
+    private final AtomicLong suppressed = new AtomicLong();
+
+    ThrottledLog(long intervalNanos, LongSupplier clock) {
+        this.intervalNanos = intervalNanos;
+        this.clock = clock;
+        this.nextAllowed = new AtomicLong(clock.getAsLong());
+    }
+
+    /**
+     * @return {@code -1}, если сообщение нужно подавить, иначе число подавленных с прошлого сообщения
+     */
+    long tryAcquire() {
+        long now = clock.getAsLong();
+        long allowedAt = nextAllowed.get();
+        if (now - allowedAt >= 0 && nextAllowed.compareAndSet(allowedAt, now + intervalNanos)) {
+            return suppressed.getAndSet(0);
+        }
+        suppressed.incrementAndGet();
+        return -1;
+    }
+}
@@ -0,0 +1,33 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("filmorate.AddLike")
+@Label("Лайк фильму")
+@Description("Проверка фильма и юзера, запись лайка и чтение обновлённого фильма")
+@Category({"Filmorate", "Сервисы"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class AddLikeEvent extends Event {
+    @Label("Id фильма")
+    public long filmId;
+
+    @Label("Id юзера")
+    public long userId;
+
+    @Label("Фильмов в каталоге")
+    public int datasetSize;
+
+    @Label("Лайков у фильма")
+    public int resultSize;
+
+    @Label("Лайк добавлен")
+    @Description("false, если юзер уже лайкал этот фильм")
+    public boolean added;
+}
@@ -0,0 +1,34 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("filmorate.CommonFriends")
+@Label("Общие друзья")
+@Description("Пересечение множеств друзей юзера и других юзеров")
+@Category({"Filmorate", "Сервисы"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class CommonFriendsEvent extends Event {
+    @Label("Id юзера")
+    public long userId;
+
+    @Label("Юзеров в пересечении")
+    @Description("Юзер и все, с кем ищутся общие друзья")
+    public int users;
+
+    @Label("Друзей во всех множествах")
+    public int datasetSize;
+
+    @Label("Кандидатов")
+    @Description("Размер самого маленького множества, которое перебирается")
+    public int candidates;
+
+    @Label("Общих друзей")
+    public int resultSize;
+}
@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("filmorate.DuplicateCheck")
+@Label("Проверка на дубликат")
+@Description("Поиск занятого имейла или логина полным обходом юзеров")
+@Category({"Filmorate", "Сервисы"})
+@StackTrace(false)
+@Threshold("5 ms")
+public class DuplicateCheckEvent extends Event {
+    @Label("Поле")
+    @Description("email или login")
+    public String field;
+
+    @Label("Просмотрено юзеров")
+    public int datasetSize;
+
+    @Label("Найден дубликат")
+    public boolean duplicate;
+}
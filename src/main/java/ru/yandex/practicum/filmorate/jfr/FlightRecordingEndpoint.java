@@ -0,0 +1,190 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.FlightRecorderProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Служебный эндпоинт для записи JFR на работающем сервисе:
+ * <ul>
+ *     <li>{@code POST /actuator/flightrecording} с {@code {"duration": "2m"}} запускает запись;</li>
+ *     <li>{@code GET /actuator/flightrecording} — состояние последней записи;</li>
+ *     <li>{@code GET /actuator/flightrecording/{id}} выгружает то, что уже записано, в файл .jfr;</li>
+ *     <li>{@code DELETE /actuator/flightrecording/{id}} останавливает запись раньше срока.</li>
+ * </ul>
+ * Запись ограничена по времени ({@code maxDuration}) и по объёму ({@code maxSizeBytes}) и идёт одна:
+ * новая запускается только после остановки предыдущей, при этом старая запись и её выгрузка удаляются.
+ * <p>
+ * Аутентификации в сервисе нет, поэтому эндпоинт выключен и не выставлен наружу по умолчанию: иначе
+ * любой клиент публичного порта мог бы забивать диск записями и скачивать их. Включать его стоит только
+ * вместе с отдельным {@code management.server.port}, доступным лишь изнутри:
+ * {@code management.endpoint.flightrecording.enabled=true} и {@code flightrecording} в
+ * {@code management.endpoints.web.exposure.include}. События с переменными окружения, системными
+ * свойствами, аргументами JVM и дампами потоков в запись не попадают, даже если их включает конфигурация.
+ */
+@Slf4j
+@Component
+@Endpoint(id = "flightrecording", enableByDefault = false)
+public class FlightRecordingEndpoint {
+    private static final int STATUS_CONFLICT = 409;
+    // jdk.Initial* — окружение, -D и security-свойства на старте; в них и в аргументах JVM бывают пароли
+    // и токены, а дамп потоков раскрывает внутренности сервиса
+    private static final String INITIAL_EVENTS = "jdk.Initial";
+    private static final List<String> SENSITIVE_EVENTS = List.of("jdk.JVMInformation", "jdk.ThreadDump");
+
+    private final FlightRecorderProperties properties;
+    private final Path directory;
+    private Recording recording;
+
+    public FlightRecordingEndpoint(FlightRecorderProperties properties) {
+        this.properties = properties;
+        this.directory = properties.getDirectory().isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "filmorate-jfr")
+                : Path.of(properties.getDirectory());
+    }
+
+    @ReadOperation
+    public synchronized RecordingStatus status() {
+        return recording == null ? null : statusOf(recording);
+    }
+
+    @WriteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> start(@Nullable Duration duration) {
+        if (!FlightRecorder.isAvailable()) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(statusOf(recording), STATUS_CONFLICT);
+        }
+        Duration requested = duration == null || duration.isNegative() || duration.isZero()
+                ? properties.getDefaultDuration()
+                : duration;
+        Duration bounded = requested.compareTo(properties.getMaxDuration()) > 0
+                ? properties.getMaxDuration()
+                : requested;
+        discard();
+        Recording started = new Recording(settings());
+        started.setName("filmorate");
+        started.setToDisk(true);
+        started.setDuration(bounded);
+        started.setMaxSize(properties.getMaxSizeBytes());
+        started.start();
+        recording = started;
+        log.info("Запущена запись JFR {} на {}", started.getId(), bounded);
+        return new WebEndpointResponse<>(statusOf(started), WebEndpointResponse.STATUS_OK);
+    }
+
+    /**
+     * Выгружает запись в файл и отдаёт его. Работающая запись не останавливается: в файл попадает
+     * всё, что записано к этому моменту.
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized WebEndpointResponse<Resource> dump(@Selector long id) throws IOException {
+        if (recording == null || recording.getId() != id || recording.getState() == RecordingState.NEW) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        Files.createDirectories(directory);
+        Path file = dumpFile(recording);
+        recording.dump(file);
+        log.info("Запись JFR {} выгружена в {}", id, file);
+        return new WebEndpointResponse<>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK);
+    }
+
+    @DeleteOperation
+    public synchronized WebEndpointResponse<RecordingStatus> stop(@Selector long id) {
+        if (recording == null || recording.getId() != id) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            log.info("Запись JFR {} остановлена", id);
+        }
+        return new WebEndpointResponse<>(statusOf(recording), WebEndpointResponse.STATUS_OK);
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        discard();
+    }
+
+    /**
+     * Встроенная конфигурация без чувствительных событий плюс события Filmorate с порогами из настроек.
+     */
+    private Map<String, String> settings() {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration(properties.getSettings()).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalStateException("Не удалось прочитать конфигурацию JFR " + properties.getSettings(), e);
+        }
+        settings.keySet().stream()
+                .filter(key -> key.startsWith(INITIAL_EVENTS))
+                .map(key -> key.substring(0, key.indexOf('#')))
+                .distinct()
+                .toList()
+                .forEach(event -> settings.put(event + "#enabled", "false"));
+        for (String event : SENSITIVE_EVENTS) {
+            settings.put(event + "#enabled", "false");
+        }
+        FlightRecorderProperties.Thresholds thresholds = properties.getThresholds();
+        enable(settings, PopularFilmsEvent.class, thresholds.getPopularFilms());
+        enable(settings, AddLikeEvent.class, thresholds.getAddLike());
+        enable(settings, CommonFriendsEvent.class, thresholds.getCommonFriends());
+        enable(settings, DuplicateCheckEvent.class, thresholds.getDuplicateCheck());
+        enable(settings, StorageScanEvent.class, thresholds.getStorageScan());
+        return settings;
+    }
+
+    private static void enable(Map<String, String> settings, Class<? extends Event> type, Duration threshold) {
+        String name = EventType.getEventType(type).getName();
+        settings.put(name + "#enabled", "true");
+        settings.put(name + "#threshold", threshold.toNanos() + " ns");
+    }
+
+    private void discard() {
+        if (recording == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(dumpFile(recording));
+        } catch (IOException e) {
+            log.warn("Не удалось удалить выгрузку записи JFR {}: {}", recording.getId(), e.getMessage());
+        }
+        recording.close();
+        recording = null;
+    }
+
+    private Path dumpFile(Recording recording) {
+        return directory.resolve("filmorate-" + recording.getId() + ".jfr");
+    }
+
+    private static RecordingStatus statusOf(Recording recording) {
+        return new RecordingStatus(recording.getId(), recording.getName(), recording.getState().name(),
+                recording.getStartTime(), recording.getDuration(), recording.getMaxSize(), recording.getSize());
+    }
+}
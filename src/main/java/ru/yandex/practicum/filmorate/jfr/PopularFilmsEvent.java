@@ -0,0 +1,26 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("filmorate.PopularFilms")
+@Label("Популярные фильмы")
+@Description("Построение рейтинга популярных фильмов")
+@Category({"Filmorate", "Сервисы"})
+@StackTrace(false)
+@Threshold("10 ms")
+public class PopularFilmsEvent extends Event {
+    @Label("Запрошено фильмов")
+    public int count;
+
+    @Label("Фильмов в каталоге")
+    public int datasetSize;
+
+    @Label("Фильмов в ответе")
+    public int resultSize;
+}
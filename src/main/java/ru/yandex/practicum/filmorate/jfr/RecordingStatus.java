@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Состояние последней записи, запущенной через эндпоинт.
+ */
+public record RecordingStatus(long id, String name, String state, Instant startTime, Duration duration,
+                              long maxSizeBytes, long sizeBytes) {
+}
@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.springframework.aop.support.AopUtils;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+@Name("filmorate.StorageScan")
+@Label("Полный обход хранилища")
+@Description("Вызов getAll: все фильмы или все юзеры собираются в коллекцию")
+@Category({"Filmorate", "Хранилища"})
+@StackTrace(false)
+@Threshold("20 ms")
+public class StorageScanEvent extends Event {
+    @Label("Хранилище")
+    public String storage;
+
+    @Label("Записей")
+    public int resultSize;
+
+    /**
+     * Выполняет {@code getAll} хранилища и, если обход дольше порога, записывает событие.
+     */
+    public static <T> Collection<T> scan(Object storage, Supplier<Collection<T>> getAll) {
+        StorageScanEvent event = new StorageScanEvent();
+        event.begin();
+        Collection<T> all = getAll.get();
+        event.end();
+        if (event.shouldCommit()) {
+            event.storage = AopUtils.getTargetClass(storage).getSimpleName();
+            event.resultSize = all.size();
+            event.commit();
+        }
+        return all;
+    }
+}
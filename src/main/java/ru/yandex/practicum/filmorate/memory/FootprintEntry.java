@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.memory;
+
+/**
+ * Оценка памяти одной части данных: сущностей, коллекции внутри них или индекса.
+ *
+ * @param name  раздел, например {@code films.likes}
+ * @param count число элементов раздела: сущностей, лайков, записей индекса
+ * @param bytes оценка удерживаемых байт в куче
+ */
+public record FootprintEntry(String name, long count, long bytes) {
+}
@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import java.util.List;
+
+/**
+ * Компонент, который умеет оценить, сколько кучи занимают его данные. Оценка обходит все элементы,
+ * поэтому рассчитана на редкие служебные запросы, а не на горячий путь.
+ */
+public interface FootprintSource {
+    List<FootprintEntry> estimateFootprint();
+}
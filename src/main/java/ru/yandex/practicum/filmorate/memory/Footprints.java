@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+import ru.yandex.practicum.filmorate.model.UserSnapshot;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Оценки для хранилищ на неизменяемых снимках в ConcurrentHashMap (режим cow).
+ */
+public final class Footprints {
+    private Footprints() {
+    }
+
+    public static List<FootprintEntry> ofFilms(Map<Long, FilmSnapshot> films, Map<Long, Set<Long>> likedFilms) {
+        long filmBytes = 0;
+        long likes = 0;
+        long likeBytes = 0;
+        long keyBytes = 0;
+        for (FilmSnapshot film : films.values()) {
+            filmBytes += ObjectSizes.snapshot(film);
+            likes += film.likes().size();
+            likeBytes += ObjectSizes.immutableIds(film.likes());
+            keyBytes += ObjectSizes.boxedLong(film.id());
+        }
+        return List.of(
+                new FootprintEntry("films", films.size(), filmBytes),
+                new FootprintEntry("films.likes", likes, likeBytes),
+                new FootprintEntry("films.index", films.size(), ObjectSizes.concurrentHashMap(films.size()) + keyBytes),
+                new FootprintEntry("films.likedIndex", ObjectSizes.valueCount(likedFilms),
+                        ObjectSizes.concurrentIndex(likedFilms)));
+    }
+
+    public static List<FootprintEntry> ofUsers(Map<Long, UserSnapshot> users) {
+        long userBytes = 0;
+        long friends = 0;
+        long friendBytes = 0;
+        long keyBytes = 0;
+        for (UserSnapshot user : users.values()) {
+            userBytes += ObjectSizes.snapshot(user);
+            friends += user.friends().size();
+            friendBytes += ObjectSizes.immutableIds(user.friends());
+            keyBytes += ObjectSizes.boxedLong(user.id());
+        }
+        return List.of(
+                new FootprintEntry("users", users.size(), userBytes),
+                new FootprintEntry("users.friends", friends, friendBytes),
+                new FootprintEntry("users.index", users.size(), ObjectSizes.concurrentHashMap(users.size()) + keyBytes));
+    }
+}
@@ -0,0 +1,41 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Служебный эндпоинт {@code GET /actuator/memory}: сколько кучи по оценке удерживают фильмы, юзеры,
+ * их лайки и друзья и индексы над ними. Ограниченные по размеру кэши и журналы не учитываются.
+ * <p>
+ * Каждый вызов обходит все записи хранилищ под их блокировками чтения, а аутентификации в сервисе нет,
+ * поэтому эндпоинт выключен и не выставлен наружу по умолчанию. Для диагностики его включают вместе
+ * с отдельным внутренним {@code management.server.port}: {@code management.endpoint.memory.enabled=true}
+ * и {@code memory} в {@code management.endpoints.web.exposure.include}.
+ */
+@Component
+@Endpoint(id = "memory", enableByDefault = false)
+@RequiredArgsConstructor
+public class MemoryEndpoint {
+    private final List<FootprintSource> sources;
+    private final StorageProperties storageProperties;
+
+    @ReadOperation
+    public MemoryReport report() {
+        List<FootprintEntry> entries = sources.stream()
+                .flatMap(source -> source.estimateFootprint().stream())
+                .sorted(Comparator.comparing(FootprintEntry::name))
+                .toList();
+        long estimatedBytes = entries.stream().mapToLong(FootprintEntry::bytes).sum();
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        return new MemoryReport(storageProperties.getMode(), heap.getUsed(), heap.getCommitted(), heap.getMax(),
+                estimatedBytes, entries);
+    }
+}
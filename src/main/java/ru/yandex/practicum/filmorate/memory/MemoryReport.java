@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import java.util.List;
+
+/**
+ * Ответ эндпоинта {@code /actuator/memory}: оценки по разделам данных рядом с фактическим
+ * заполнением кучи, чтобы было видно, какая доля кучи приходится на данные приложения.
+ */
+public record MemoryReport(String storageMode, long heapUsed, long heapCommitted, long heapMax,
+                           long estimatedBytes, List<FootprintEntry> entries) {
+}
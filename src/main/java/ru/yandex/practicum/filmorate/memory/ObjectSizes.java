@@ -0,0 +1,214 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserSnapshot;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Оценка размеров объектов в куче для 64-битной HotSpot со сжатыми указателями (куча до 32 ГБ):
+ * заголовок объекта 12 байт, ссылка 4 байта, выравнивание по 8. Размеры коллекций считаются
+ * по их внутреннему устройству в JDK 17: узлы, таблицы и упакованные элементы.
+ */
+public final class ObjectSizes {
+    public static final int OBJECT_HEADER = 12;
+    public static final int ARRAY_HEADER = 16;
+    public static final int REFERENCE = 4;
+    public static final long LONG_BOX = 24;
+    public static final long INTEGER_BOX = 16;
+    public static final long LOCAL_DATE = 24;
+
+    private static final long STRING = 24;
+    // HashMap: две ссылки из AbstractMap, table, entrySet и четыре int
+    private static final long HASH_MAP = 48;
+    private static final long HASH_SET = 16;
+    private static final long HASH_NODE = 32;
+    private static final long CONCURRENT_HASH_MAP = 64;
+    private static final long KEY_SET_VIEW = 24;
+    private static final long IMMUTABLE_SET = 24;
+    private static final long SKIP_LIST = 64;
+    // узел ConcurrentSkipListMap (key, val, next) и индексный узел (node, down, right)
+    private static final long SKIP_LIST_NODE = 24;
+    private static final long SKIP_LIST_INDEX = 24;
+    private static final long TREE_MAP = 48;
+    private static final long TREE_ENTRY = 40;
+    private static final long FILM = align(OBJECT_HEADER + 6 * REFERENCE);
+    private static final long FILM_SNAPSHOT = align(OBJECT_HEADER + Long.BYTES + 5 * REFERENCE);
+    private static final long USER = align(OBJECT_HEADER + 6 * REFERENCE);
+    private static final long USER_SNAPSHOT = align(OBJECT_HEADER + Long.BYTES + 5 * REFERENCE);
+
+    private ObjectSizes() {
+    }
+
+    public static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    public static long array(int length, int elementBytes) {
+        return align(ARRAY_HEADER + (long) length * elementBytes);
+    }
+
+    /**
+     * {@code Long.valueOf} кэширует значения от -128 до 127, они не занимают отдельной памяти.
+     */
+    public static long boxedLong(long value) {
+        return value >= -128 && value <= 127 ? 0 : LONG_BOX;
+    }
+
+    public static long boxedInteger(Integer value) {
+        return value == null || value >= -128 && value <= 127 ? 0 : INTEGER_BOX;
+    }
+
+    public static long string(String value) {
+        if (value == null) {
+            return 0;
+        }
+        // компактные строки: Latin-1 по байту на символ, иначе UTF-16
+        boolean latin1 = value.chars().allMatch(c -> c <= 0xFF);
+        return STRING + array(value.length(), latin1 ? 1 : 2);
+    }
+
+    public static long localDate(Object value) {
+        return value == null ? 0 : LOCAL_DATE;
+    }
+
+    /**
+     * Ёмкость таблицы, до которой дорастает HashMap или ConcurrentHashMap с {@code size} элементами.
+     */
+    public static int tableCapacity(int size) {
+        int capacity = 16;
+        while (size > capacity - (capacity >>> 2)) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * HashMap без ключей и значений: сам объект, таблица и узлы.
+     */
+    public static long hashMap(int size) {
+        return HASH_MAP + (size == 0 ? 0 : array(tableCapacity(size), REFERENCE)) + size * HASH_NODE;
+    }
+
+    public static long hashSet(int size) {
+        return HASH_SET + hashMap(size);
+    }
+
+    public static long concurrentHashMap(int size) {
+        return CONCURRENT_HASH_MAP + (size == 0 ? 0 : array(tableCapacity(size), REFERENCE)) + size * HASH_NODE;
+    }
+
+    public static long concurrentKeySet(int size) {
+        return KEY_SET_VIEW + concurrentHashMap(size);
+    }
+
+    /**
+     * ConcurrentSkipListSet без элементов: узел на элемент и индексные узлы, которых с вероятностью
+     * 1/4 на уровень в среднем треть от числа элементов.
+     */
+    public static long concurrentSkipList(int size) {
+        return SKIP_LIST + size * (SKIP_LIST_NODE + SKIP_LIST_INDEX / 3);
+    }
+
+    /**
+     * TreeMap с ключами и значениями {@code Integer}.
+     */
+    public static long integerTreeMap(Map<Integer, Integer> map) {
+        long bytes = TREE_MAP + map.size() * TREE_ENTRY;
+        for (Map.Entry<Integer, Integer> entry : map.entrySet()) {
+            bytes += boxedInteger(entry.getKey()) + boxedInteger(entry.getValue());
+        }
+        return bytes;
+    }
+
+    /**
+     * Неизменяемое множество из {@code Set.copyOf}: пустое — общий синглтон, до двух элементов — поля
+     * объекта, дальше — массив с открытой адресацией вдвое больше числа элементов.
+     */
+    public static long immutableSet(int size) {
+        if (size == 0) {
+            return 0;
+        }
+        return IMMUTABLE_SET + (size <= 2 ? 0 : array(2 * size, REFERENCE));
+    }
+
+    /**
+     * Обратный индекс на HashMap с HashSet в значениях, вместе с ключами и элементами.
+     */
+    public static long hashIndex(Map<Long, Set<Long>> index) {
+        long bytes = hashMap(index.size());
+        for (Map.Entry<Long, Set<Long>> entry : index.entrySet()) {
+            bytes += boxedLong(entry.getKey()) + mutableIds(entry.getValue());
+        }
+        return bytes;
+    }
+
+    /**
+     * Обратный индекс на ConcurrentHashMap с {@code ConcurrentHashMap.newKeySet()} в значениях.
+     */
+    public static long concurrentIndex(Map<Long, Set<Long>> index) {
+        long bytes = concurrentHashMap(index.size());
+        for (Map.Entry<Long, Set<Long>> entry : index.entrySet()) {
+            bytes += boxedLong(entry.getKey()) + concurrentKeySet(entry.getValue().size())
+                    + boxedLongs(entry.getValue());
+        }
+        return bytes;
+    }
+
+    public static long valueCount(Map<Long, ? extends Collection<Long>> index) {
+        long count = 0;
+        for (Collection<Long> values : index.values()) {
+            count += values.size();
+        }
+        return count;
+    }
+
+    public static long boxedLongs(Collection<Long> values) {
+        long bytes = 0;
+        for (Long value : values) {
+            bytes += boxedLong(value);
+        }
+        return bytes;
+    }
+
+    /**
+     * Фильм без множества лайков.
+     */
+    public static long film(Film film) {
+        return FILM + boxedLong(film.getId()) + string(film.getName()) + string(film.getDescription())
+                + localDate(film.getReleaseDate()) + boxedInteger(film.getDuration());
+    }
+
+    /**
+     * Изменяемое множество лайков {@link Film} вместе с упакованными id.
+     */
+    public static long mutableIds(Set<Long> ids) {
+        return hashSet(ids.size()) + boxedLongs(ids);
+    }
+
+    public static long snapshot(FilmSnapshot film) {
+        return FILM_SNAPSHOT + string(film.name()) + string(film.description()) + localDate(film.releaseDate())
+                + boxedInteger(film.duration());
+    }
+
+    /**
+     * Неизменяемое множество лайков или друзей снимка вместе с упакованными id.
+     */
+    public static long immutableIds(Set<Long> ids) {
+        return immutableSet(ids.size()) + boxedLongs(ids);
+    }
+
+    public static long user(User user) {
+        return USER + boxedLong(user.getId()) + string(user.getEmail()) + string(user.getLogin())
+                + string(user.getName()) + localDate(user.getBirthday());
+    }
+
+    public static long snapshot(UserSnapshot user) {
+        return USER_SNAPSHOT + string(user.email()) + string(user.login()) + string(user.name())
+                + localDate(user.birthday());
+    }
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * {@code users} — все юзеры этого возраста, {@code likers} — те из них, у кого есть хотя бы один лайк.
+ */
+public record AgeBracketLikers(String bracket, int users, int likers, long likes) {
+}
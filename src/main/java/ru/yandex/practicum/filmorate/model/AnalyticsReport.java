@@ -0,0 +1,11 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Отчёт аналитики на момент {@code computedAt}: посчитан в фоне по снимку каталога из {@code films}
+ * фильмов и {@code users} юзеров и до следующего пересчёта отдаётся как есть.
+ */
+public record AnalyticsReport<T>(Instant computedAt, int films, int users, List<T> items) {
+}
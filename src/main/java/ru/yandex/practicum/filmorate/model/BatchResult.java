@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.List;
+
+/**
+ * Ответ на мульти-запрос по списку id: найденные сущности в порядке запроса и id, которых нет в базе.
+ */
+public record BatchResult<T>(List<T> items, List<Long> missing) {
+    public static final int MAX_IDS = 100;
+}
@@ -0,0 +1,9 @@
+package ru.yandex.practicum.filmorate.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ChangeEntry(long seq, ChangeType type, long id, Long relatedId, Map<String, Object> data) {
+}
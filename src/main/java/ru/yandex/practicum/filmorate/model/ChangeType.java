@@ -0,0 +1,14 @@
+package ru.yandex.practicum.filmorate.model;
+
+public enum ChangeType {
+    FILM_CREATED,
+    FILM_UPDATED,
+    FILM_DELETED,
+    LIKE_ADDED,
+    LIKE_REMOVED,
+    USER_CREATED,
+    USER_UPDATED,
+    USER_DELETED,
+    FRIEND_ADDED,
+    FRIEND_REMOVED
+}
@@ -0,0 +1,7 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * {@code decade} — первый год десятилетия, например 1990.
+ */
+public record DecadeDuration(int decade, int films, double averageDuration) {
+}
@@ -4,21 +4,21 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-
-import lombok.NoArgsConstructor;
 import ru.yandex.practicum.filmorate.annotation.ReleaseDate;
 import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.serializer.IdSetSerializer;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 @EqualsAndHashCode(of = {"name"})
 public class Film {
     @NotNull(groups = Marker.OnUpdate.class)
@@ -31,5 +31,18 @@ public class Film {
     private LocalDate releaseDate;
     @Positive(groups = Marker.OnCreate.class)
     private Integer duration;
-    private final Set<Long> likes = new HashSet<>();
+    /**
+     * Изменяемый набор, кроме фильмов из {@link FilmSnapshot#toFilm()}: там это неизменяемый вид на лайки
+     * версии, чтобы чтение не копировало их целиком.
+     */
+    @JsonSerialize(using = IdSetSerializer.class)
+    private final Set<Long> likes;
+
+    public Film() {
+        this(null, null, null, null, null);
+    }
+
+    public Film(Long id, String name, String description, LocalDate releaseDate, Integer duration) {
+        this(id, name, description, releaseDate, duration, new HashSet<>());
+    }
 }
@@ -0,0 +1,54 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Неизменяемая версия фильма. Любое изменение порождает новую версию, поэтому опубликованный
+ * экземпляр можно читать из любого потока без блокировок.
+ * <p>
+ * Лайки хранятся в наборе из {@link Set#of}: {@link Set#copyOf} возвращает такой набор как есть, поэтому
+ * {@link #withLike} и {@link #withoutLike} строят новый набор один раз, а конструктор его не копирует.
+ */
+public record FilmSnapshot(long id, String name, String description, LocalDate releaseDate, Integer duration,
+                           Set<Long> likes) {
+    public FilmSnapshot {
+        likes = Set.copyOf(likes);
+    }
+
+    public static FilmSnapshot of(long id, Film film) {
+        return new FilmSnapshot(id, film.getName(), film.getDescription(), film.getReleaseDate(),
+                film.getDuration(), film.getLikes());
+    }
+
+    public FilmSnapshot withFields(Film film) {
+        return new FilmSnapshot(id, film.getName(), film.getDescription(), film.getReleaseDate(),
+                film.getDuration(), likes);
+    }
+
+    public FilmSnapshot withLike(long userId) {
+        if (likes.contains(userId)) {
+            return this;
+        }
+        return new FilmSnapshot(id, name, description, releaseDate, duration, IdSets.with(likes, userId));
+    }
+
+    public FilmSnapshot withoutLike(long userId) {
+        if (!likes.contains(userId)) {
+            return this;
+        }
+        return new FilmSnapshot(id, name, description, releaseDate, duration, IdSets.without(likes, userId));
+    }
+
+    public FilmSnapshot withLikes(Set<Long> likes) {
+        return new FilmSnapshot(id, name, description, releaseDate, duration, likes);
+    }
+
+    /**
+     * Фильм с неизменяемым видом на лайки этой версии: правка полей копии версию не затрагивает.
+     */
+    public Film toFilm() {
+        return new Film(id, name, description, releaseDate, duration, Collections.unmodifiableSet(likes));
+    }
+}
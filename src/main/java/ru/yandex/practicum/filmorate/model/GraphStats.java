@@ -0,0 +1,10 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.Map;
+
+/**
+ * Сводка по графу дружбы. {@code degreeDistribution}: число друзей → сколько юзеров с таким числом друзей.
+ */
+public record GraphStats(int users, long friendships, int components, int largestComponent,
+                         Map<Integer, Integer> degreeDistribution) {
+}
@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Страница id по возрастанию. Следующая страница запрашивается с {@code after=next}; {@code next == null} —
+ * страница последняя. Курсор по id, а не смещение, поэтому параллельные изменения не сдвигают страницы.
+ */
+public record IdPage(List<Long> ids, int total, Long next) {
+    public static final int MAX_LIMIT = 1_000;
+
+    /**
+     * Собирает страницу за один проход: куча на максимум держит {@code limit + 1} наименьших id после
+     * курсора, лишний элемент только показывает, что страница не последняя. Память и сортировка —
+     * по размеру страницы, а не всего набора.
+     */
+    public static IdPage of(Collection<Long> ids, long after, int limit) {
+        long[] heap = new long[limit + 1];
+        int count = 0;
+        for (Long id : ids) {
+            if (id <= after) {
+                continue;
+            }
+            if (count < heap.length) {
+                heap[count] = id;
+                siftUp(heap, count++);
+            } else if (id < heap[0]) {
+                heap[0] = id;
+                siftDown(heap, count);
+            }
+        }
+        Arrays.sort(heap, 0, count);
+        int pageSize = Math.min(count, limit);
+        Long[] page = new Long[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            page[i] = heap[i];
+        }
+        return new IdPage(List.of(page), ids.size(), count > limit ? page[pageSize - 1] : null);
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= value) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        int child;
+        while ((child = 2 * index + 1) < size) {
+            if (child + 1 < size && heap[child + 1] > heap[child]) {
+                child++;
+            }
+            if (heap[child] <= value) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.Set;
+
+/**
+ * Неизменяемые наборы id для версий {@link FilmSnapshot} и {@link UserSnapshot}. Новый набор собирается
+ * сразу через {@link Set#of}, без промежуточного {@code HashSet}.
+ */
+final class IdSets {
+    private static final Long[] EMPTY = new Long[0];
+
+    private IdSets() {
+    }
+
+    /**
+     * Набор {@code ids} с {@code id}; вызывающий проверяет, что {@code id} в наборе ещё нет.
+     */
+    static Set<Long> with(Set<Long> ids, long id) {
+        Long[] updated = ids.toArray(new Long[ids.size() + 1]);
+        updated[ids.size()] = id;
+        return Set.of(updated);
+    }
+
+    /**
+     * Набор {@code ids} без {@code id}; вызывающий проверяет, что {@code id} в наборе есть.
+     */
+    static Set<Long> without(Set<Long> ids, long id) {
+        Long[] updated = new Long[ids.size() - 1];
+        int count = 0;
+        for (Long other : ids) {
+            if (other != id) {
+                updated[count++] = other;
+            }
+        }
+        return updated.length == 0 ? Set.of() : Set.of(updated);
+    }
+}
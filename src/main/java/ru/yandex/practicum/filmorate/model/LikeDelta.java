@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.model;
+
+public record LikeDelta(long filmId, int delta, int likes) {
+}
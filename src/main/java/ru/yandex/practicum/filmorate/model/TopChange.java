@@ -0,0 +1,6 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.util.List;
+
+public record TopChange(List<Long> top, List<Long> entered, List<Long> left) {
+}
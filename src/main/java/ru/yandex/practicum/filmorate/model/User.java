@@ -5,17 +5,21 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Past;
 import jakarta.validation.constraints.Pattern;
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.serializer.IdSetSerializer;
 
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.Set;
 
 @Data
-@AllArgsConstructor
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
 @EqualsAndHashCode(of = {"email", "login"})
 public class User {
     @NotNull(groups = Marker.OnUpdate.class)
@@ -29,5 +33,14 @@ public class User {
     private String name;
     @Past(groups = Marker.OnCreate.class)
     private LocalDate birthday;
-    private final Set<Long> friends = new HashSet<>();
+    /**
+     * Изменяемый набор, кроме юзеров из {@link UserSnapshot#toUser()}, см. {@link Film}.
+     */
+    @JsonSerialize(using = IdSetSerializer.class)
+    private final Set<Long> friends;
+
+    @JsonCreator
+    public User(Long id, String email, String login, String name, LocalDate birthday) {
+        this(id, email, login, name, birthday, new HashSet<>());
+    }
 }
@@ -0,0 +1,8 @@
+package ru.yandex.practicum.filmorate.model;
+
+/**
+ * Компонента связности юзера. {@code componentId} — наименьший id в компоненте, он не меняется,
+ * пока компонента не распадётся.
+ */
+public record UserComponent(long userId, long componentId, int size) {
+}
@@ -0,0 +1,46 @@
+package ru.yandex.practicum.filmorate.model;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Неизменяемая версия юзера, см. {@link FilmSnapshot}.
+ */
+public record UserSnapshot(long id, String email, String login, String name, LocalDate birthday,
+                           Set<Long> friends) {
+    public UserSnapshot {
+        friends = Set.copyOf(friends);
+    }
+
+    public static UserSnapshot of(long id, User user) {
+        return new UserSnapshot(id, user.getEmail(), user.getLogin(), user.getName(), user.getBirthday(),
+                user.getFriends());
+    }
+
+    public UserSnapshot withFields(User user) {
+        return new UserSnapshot(id, user.getEmail(), user.getLogin(), user.getName(), user.getBirthday(), friends);
+    }
+
+    public UserSnapshot withFriend(long friendId) {
+        if (friends.contains(friendId)) {
+            return this;
+        }
+        return new UserSnapshot(id, email, login, name, birthday, IdSets.with(friends, friendId));
+    }
+
+    public UserSnapshot withoutFriend(long friendId) {
+        if (!friends.contains(friendId)) {
+            return this;
+        }
+        return new UserSnapshot(id, email, login, name, birthday, IdSets.without(friends, friendId));
+    }
+
+    public UserSnapshot withFriends(Set<Long> friends) {
+        return new UserSnapshot(id, email, login, name, birthday, friends);
+    }
+
+    public User toUser() {
+        return new User(id, email, login, name, birthday, Collections.unmodifiableSet(friends));
+    }
+}
@@ -0,0 +1,4 @@
+package ru.yandex.practicum.filmorate.model;
+
+public record YearLikes(int year, int films, long likes) {
+}
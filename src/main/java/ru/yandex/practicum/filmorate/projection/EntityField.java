@@ -0,0 +1,18 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import java.util.function.Function;
+
+/**
+ * Поле сущности, которое можно запросить в {@code ?fields=}. Для множеств id {@code idSet = true}:
+ * они пишутся тем же {@link ru.yandex.practicum.filmorate.serializer.IdSetSerializer}, что и в полном ответе.
+ */
+record EntityField<T>(String name, Function<T, Object> getter, boolean idSet) {
+
+    static <T> EntityField<T> of(String name, Function<T, Object> getter) {
+        return new EntityField<>(name, getter, false);
+    }
+
+    static <T> EntityField<T> ids(String name, Function<T, Object> getter) {
+        return new EntityField<>(name, getter, true);
+    }
+}
@@ -0,0 +1,66 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import jakarta.validation.ConstraintViolationException;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Поля, доступные для проекции, в порядке полного ответа. Счётчики {@code likeCount}/{@code friendCount}
+ * есть только в проекциях; сводка ({@code ?view=summary}) — все поля, кроме множеств id.
+ */
+final class EntityFields<T> {
+    static final EntityFields<Film> FILM = new EntityFields<>(List.of(
+            EntityField.of("id", Film::getId),
+            EntityField.of("name", Film::getName),
+            EntityField.of("description", Film::getDescription),
+            EntityField.of("releaseDate", Film::getReleaseDate),
+            EntityField.of("duration", Film::getDuration),
+            EntityField.ids("likes", Film::getLikes),
+            EntityField.of("likeCount", film -> film.getLikes().size())));
+    static final EntityFields<User> USER = new EntityFields<>(List.of(
+            EntityField.of("id", User::getId),
+            EntityField.of("email", User::getEmail),
+            EntityField.of("login", User::getLogin),
+            EntityField.of("name", User::getName),
+            EntityField.of("birthday", User::getBirthday),
+            EntityField.ids("friends", User::getFriends),
+            EntityField.of("friendCount", user -> user.getFriends().size())));
+
+    private final List<EntityField<T>> all;
+    private final List<EntityField<T>> summary;
+
+    private EntityFields(List<EntityField<T>> all) {
+        this.all = all;
+        this.summary = all.stream()
+                .filter(field -> !field.idSet())
+                .toList();
+    }
+
+    List<EntityField<T>> summary() {
+        return summary;
+    }
+
+    /**
+     * Поля из {@code ?fields=} в порядке полного ответа; неизвестное имя — ошибка валидации.
+     */
+    List<EntityField<T>> select(Set<String> names) {
+        List<EntityField<T>> selected = new ArrayList<>(names.size());
+        for (EntityField<T> field : all) {
+            if (names.contains(field.name())) {
+                selected.add(field);
+            }
+        }
+        if (selected.size() != names.size()) {
+            List<String> known = all.stream()
+                    .map(EntityField::name)
+                    .toList();
+            throw new ConstraintViolationException(String.format("fields: неизвестные поля %s, доступны %s",
+                    names.stream().filter(name -> !known.contains(name)).sorted().toList(), known), Set.of());
+        }
+        return selected;
+    }
+}
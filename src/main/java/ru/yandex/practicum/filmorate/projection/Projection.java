@@ -0,0 +1,12 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.List;
+
+/**
+ * Тело ответа, из фильмов или юзеров которого пишутся только выбранные поля.
+ */
+@JsonSerialize(using = ProjectionSerializer.class)
+record Projection(Object body, List<? extends EntityField<?>> fields) {
+}
@@ -0,0 +1,84 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Проекция ответов с фильмами и юзерами: {@code ?fields=id,name,likeCount} оставляет только перечисленные
+ * поля, {@code ?view=summary} заменяет множества id счётчиками. Без этих параметров тело не трогается.
+ */
+@RestControllerAdvice
+public class ProjectionAdvice implements ResponseBodyAdvice<Object> {
+    static final String FIELDS_PARAM = "fields";
+    static final String VIEW_PARAM = "view";
+    static final String SUMMARY_VIEW = "summary";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return AbstractJackson2HttpMessageConverter.class.isAssignableFrom(converterType);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        String fields = httpRequest.getParameter(FIELDS_PARAM);
+        boolean summary = SUMMARY_VIEW.equals(httpRequest.getParameter(VIEW_PARAM));
+        if (fields == null && !summary) {
+            return body;
+        }
+        EntityFields<?> entityFields = entityFields(body);
+        if (entityFields == null) {
+            return body;
+        }
+        return new Projection(body, fields == null ? entityFields.summary() : entityFields.select(parse(fields)));
+    }
+
+    private static EntityFields<?> entityFields(Object body) {
+        Object sample = body;
+        if (sample instanceof BatchResult<?> batch) {
+            sample = batch.items();
+        }
+        if (sample instanceof Collection<?> collection) {
+            sample = collection.isEmpty() ? null : collection.iterator().next();
+        }
+        if (sample instanceof Film) {
+            return EntityFields.FILM;
+        }
+        if (sample instanceof User) {
+            return EntityFields.USER;
+        }
+        return null;
+    }
+
+    private static Set<String> parse(String fields) {
+        Set<String> names = new LinkedHashSet<>();
+        for (String name : List.of(fields.split(","))) {
+            String trimmed = name.trim();
+            if (!trimmed.isEmpty()) {
+                names.add(trimmed);
+            }
+        }
+        return names;
+    }
+}
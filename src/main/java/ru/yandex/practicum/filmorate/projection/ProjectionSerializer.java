@@ -0,0 +1,65 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.serializer.IdSetSerializer;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Пишет проекцию потоком, без промежуточных map: каждый фильм или юзер — объект только из выбранных полей.
+ */
+class ProjectionSerializer extends StdSerializer<Projection> {
+    private static final IdSetSerializer ID_SET_SERIALIZER = new IdSetSerializer();
+
+    ProjectionSerializer() {
+        super(Projection.class);
+    }
+
+    @Override
+    public void serialize(Projection projection, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        write(projection.body(), projection, gen, provider);
+    }
+
+    private void write(Object value, Projection projection, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        if (value instanceof Film || value instanceof User) {
+            writeEntity(value, projection, gen, provider);
+        } else if (value instanceof Collection<?> collection) {
+            gen.writeStartArray();
+            for (Object element : collection) {
+                write(element, projection, gen, provider);
+            }
+            gen.writeEndArray();
+        } else if (value instanceof BatchResult<?> batch) {
+            gen.writeStartObject();
+            gen.writeFieldName("items");
+            write(batch.items(), projection, gen, provider);
+            provider.defaultSerializeField("missing", batch.missing(), gen);
+            gen.writeEndObject();
+        } else {
+            provider.defaultSerializeValue(value, gen);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeEntity(Object entity, Projection projection, JsonGenerator gen, SerializerProvider provider)
+            throws IOException {
+        gen.writeStartObject();
+        for (EntityField<?> field : projection.fields()) {
+            Object value = ((EntityField<Object>) field).getter().apply(entity);
+            if (field.idSet()) {
+                gen.writeFieldName(field.name());
+                ID_SET_SERIALIZER.serialize((Collection<Long>) value, gen, provider);
+            } else {
+                provider.defaultSerializeField(field.name(), value, gen);
+            }
+        }
+        gen.writeEndObject();
+    }
+}
@@ -0,0 +1,32 @@
+package ru.yandex.practicum.filmorate.serializer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+public class IdSetSerializer extends StdSerializer<Collection<Long>> {
+
+    public IdSetSerializer() {
+        super(Collection.class, false);
+    }
+
+    @Override
+    public void serialize(Collection<Long> ids, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        long[] array = new long[ids.size()];
+        int length = 0;
+        for (Long id : ids) {
+            if (length == array.length) {
+                // коллекцию могли дополнить параллельно, пишем то, что успели прочитать
+                break;
+            }
+            array[length++] = id;
+        }
+        Arrays.sort(array, 0, length);
+        // CBOR и Smile пишут long[] как массив целых фиксированной длины без лишних заголовков
+        gen.writeArray(array, 0, length);
+    }
+}
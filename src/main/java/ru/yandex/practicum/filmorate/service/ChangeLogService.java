@@ -0,0 +1,167 @@
+package ru.yandex.practicum.filmorate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.config.ChangeLogProperties;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.FilmUpdatedEvent;
+import ru.yandex.practicum.filmorate.event.FriendshipEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.event.UserCreatedEvent;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
+import ru.yandex.practicum.filmorate.event.UserUpdatedEvent;
+import ru.yandex.practicum.filmorate.exception.ResyncRequiredException;
+import ru.yandex.practicum.filmorate.model.ChangeEntry;
+import ru.yandex.practicum.filmorate.model.ChangeType;
+import ru.yandex.practicum.filmorate.model.ChangesResponse;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Журнал изменений с монотонным seq. Хранилища нумеруют изменения в момент фиксации, а
+ * {@link ChangePublisher} доставляет события строго по этим номерам, поэтому seq журнала идёт в порядке
+ * изменений хранилища. Данные фильма или юзера берутся из события — из версии, которую записала
+ * сама операция, а не из текущего состояния хранилища.
+ */
+@Slf4j
+@Service
+public class ChangeLogService {
+    private final ChangeEntry[] entries;
+    private final int maxLimit;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long lastSeq;
+
+    public ChangeLogService(ChangeLogProperties properties) {
+        this.entries = new ChangeEntry[properties.getRetention()];
+        this.maxLimit = properties.getMaxLimit();
+    }
+
+    public ChangesResponse getChanges(long since, int limit) {
+        int size = Math.min(limit, maxLimit);
+        lock.readLock().lock();
+        try {
+            long firstSeq = Math.max(1, lastSeq - entries.length + 1);
+            if (since < firstSeq - 1) {
+                var message = String.format("Изменения после seq %d уже удалены из журнала, "
+                        + "самый ранний доступный seq %d", since, firstSeq);
+                log.warn(message);
+                throw new ResyncRequiredException(message);
+            }
+            long from = Math.max(since + 1, firstSeq);
+            long to = Math.min(lastSeq, from + size - 1);
+            List<ChangeEntry> changes = new ArrayList<>((int) Math.max(0, to - from + 1));
+            for (long seq = from; seq <= to; seq++) {
+                changes.add(entries[slot(seq)]);
+            }
+            return new ChangesResponse(lastSeq, to < lastSeq, changes);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getLastSeq() {
+        lock.readLock().lock();
+        try {
+            return lastSeq;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Лайки, пришедшие в теле создания, отдельных LIKE_ADDED не порождают, поэтому идут в данные записи.
+     */
+    @EventListener
+    public void onFilmCreated(FilmCreatedEvent event) {
+        Film film = event.film();
+        Map<String, Object> data = filmData(film);
+        data.put("likes", film.getLikes().stream().sorted().toList());
+        append(ChangeType.FILM_CREATED, film.getId(), null, data);
+    }
+
+    @EventListener
+    public void onFilmUpdated(FilmUpdatedEvent event) {
+        Film film = event.film();
+        append(ChangeType.FILM_UPDATED, film.getId(), null, filmData(film));
+    }
+
+    @EventListener
+    public void onFilmDeleted(FilmDeletedEvent event) {
+        append(ChangeType.FILM_DELETED, event.film().getId(), null, null);
+    }
+
+    @EventListener
+    public void onLike(LikeEvent event) {
+        append(event.added() ? ChangeType.LIKE_ADDED : ChangeType.LIKE_REMOVED,
+                event.filmId(), event.userId(), null);
+    }
+
+    @EventListener
+    public void onUserCreated(UserCreatedEvent event) {
+        User user = event.user();
+        append(ChangeType.USER_CREATED, user.getId(), null, userData(user));
+    }
+
+    @EventListener
+    public void onUserUpdated(UserUpdatedEvent event) {
+        User user = event.user();
+        append(ChangeType.USER_UPDATED, user.getId(), null, userData(user));
+    }
+
+    /**
+     * Дружбы удалённого юзера отдельными событиями не приходят: USER_DELETED подразумевает их разрыв.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        append(ChangeType.USER_DELETED, event.user().getId(), null, null);
+    }
+
+    @EventListener
+    public void onFriendship(FriendshipEvent event) {
+        append(event.added() ? ChangeType.FRIEND_ADDED : ChangeType.FRIEND_REMOVED,
+                event.userId(), event.friendId(), null);
+    }
+
+    private void append(ChangeType type, long id, Long relatedId, Map<String, Object> data) {
+        lock.writeLock().lock();
+        try {
+            long seq = ++lastSeq;
+            entries[slot(seq)] = new ChangeEntry(seq, type, id, relatedId, data);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int slot(long seq) {
+        return (int) ((seq - 1) % entries.length);
+    }
+
+    private static Map<String, Object> filmData(Film film) {
+        // после создания лайки меняются только отдельными событиями LIKE_ADDED/LIKE_REMOVED
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("name", film.getName());
+        data.put("description", film.getDescription());
+        data.put("releaseDate", film.getReleaseDate());
+        data.put("duration", film.getDuration());
+        return data;
+    }
+
+    private static Map<String, Object> userData(User user) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("email", user.getEmail());
+        data.put("login", user.getLogin());
+        data.put("name", user.getName());
+        data.put("birthday", user.getBirthday());
+        return data;
+    }
+}
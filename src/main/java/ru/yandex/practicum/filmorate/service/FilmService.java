@@ -2,16 +2,31 @@ package ru.yandex.practicum.filmorate.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.FilmUpdatedEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.jfr.AddLikeEvent;
+import ru.yandex.practicum.filmorate.jfr.PopularFilmsEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageScanEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
 import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.IdPage;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -19,95 +34,187 @@ import java.util.Set;
 @Service
 @RequiredArgsConstructor
 public class FilmService {
-    private static final Comparator<Film> FILM_LIKES_COMPARATOR;
     private static final LocalDate CINEMA_BIRTH_DATE;
     private static final int FILM_DESCRIPTION_LIMIT;
 
     static {
-        FILM_LIKES_COMPARATOR = Comparator.comparing(film -> film.getLikes().size());
         CINEMA_BIRTH_DATE = LocalDate.of(1895, 12, 28);
         FILM_DESCRIPTION_LIMIT = 200;
     }
 
     private final FilmStorage filmStorage;
     private final UserStorage userStorage;
+    private final ChangePublisher changePublisher;
 
     public Collection<Film> getAll() {
-        return filmStorage.getAll();
+        return StorageScanEvent.scan(filmStorage, filmStorage::getAll);
     }
 
     public Film create(Film film) {
-        return filmStorage.create(film);
+        return changePublisher.write(() -> filmStorage.create(film), FilmCreatedEvent::new);
+    }
+
+    /**
+     * Найденные фильмы в порядке запроса (повторы схлопываются) и id, которых нет в базе.
+     */
+    public BatchResult<Film> getByIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, Film> found = filmStorage.findAllById(distinct);
+        List<Film> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>(distinct.size() - found.size());
+        for (Long id : distinct) {
+            Film film = found.get(id);
+            if (film == null) {
+                missing.add(id);
+            } else {
+                items.add(film);
+            }
+        }
+        log.info("Найдено фильмов: {}, не найдено: {}", items.size(), missing.size());
+        return new BatchResult<>(items, missing);
     }
 
     public Film getById(long id) {
         Film filmById = filmStorage.findById(id);
         if (Objects.isNull(filmById)) {
-            var message = String.format("Фильма с id %d нет в базе данных", id);
-            log.warn(message);
-            throw new NotFoundException(message);
+            throw NotFoundException.film(id);
         }
         log.info("Фильм с id {} успешно найден", id);
         return filmById;
     }
 
+    public IdPage getLikes(long id, long after, int limit) {
+        return IdPage.of(getById(id).getLikes(), after, limit);
+    }
+
     public Film update(Film newFilm) {
         Film oldFilm = getById(newFilm.getId());
         log.info("Фильм с id {} был найден в базе данных", newFilm.getId());
         updateFields(oldFilm, newFilm);
+        Film updatedFilm = changePublisher.write(() -> filmStorage.update(oldFilm), FilmUpdatedEvent::new);
+        if (Objects.isNull(updatedFilm)) {
+            throw NotFoundException.film(newFilm.getId());
+        }
         log.info("Успешно выполнен http-запрос на обновление фильма с id {}", newFilm.getId());
-        return oldFilm;
+        return updatedFilm;
     }
 
     public Collection<Film> getPopularFilms(int count) {
         log.info("Выводим юзеру список из {} самых популярных фильмов", count);
-        return filmStorage.getAll()
-                .stream()
-                .sorted(FILM_LIKES_COMPARATOR.reversed())
-                .limit(count)
-                .toList();
+        PopularFilmsEvent event = new PopularFilmsEvent();
+        event.begin();
+        Collection<Film> popular = filmStorage.getPopular(count);
+        event.end();
+        if (event.shouldCommit()) {
+            event.count = count;
+            event.datasetSize = filmStorage.size();
+            event.resultSize = popular.size();
+            event.commit();
+        }
+        return popular;
+    }
+
+    public void delete(long id) {
+        Film deletedFilm = changePublisher.write(() -> filmStorage.delete(id), FilmDeletedEvent::new);
+        if (Objects.isNull(deletedFilm)) {
+            throw NotFoundException.film(id);
+        }
+        log.info("Фильм с id {} удалён вместе с {} лайками", id, deletedFilm.getLikes().size());
+    }
+
+    public IdPage getLikedFilmIds(long userId, long after, int limit) {
+        if (Objects.isNull(userStorage.findById(userId))) {
+            throw NotFoundException.user(userId);
+        }
+        return IdPage.of(filmStorage.findLikedFilmIds(userId), after, limit);
+    }
+
+    /**
+     * Снимает лайки удалённого юзера по обратному индексу — O(число его лайков), а не обход каталога.
+     * Каждый снятый лайк публикуется как обычный {@link LikeEvent}, чтобы обновились рейтинг, кэш и журнал.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeletedEvent event) {
+        long userId = event.user().getId();
+        Collection<Long> likedFilmIds = filmStorage.findLikedFilmIds(userId);
+        for (Long filmId : likedFilmIds) {
+            changeLike(filmId, userId, false);
+        }
+        log.info("Сняты лайки удалённого юзера с id {}: {}", userId, likedFilmIds.size());
     }
 
+    /**
+     * Общей блокировки с удалением юзера нет, поэтому после записи юзер проверяется ещё раз. Если его
+     * удалили, пока ставился лайк, каскад {@link #onUserDeleted} мог этот лайк не застать — тогда лайк
+     * снимается здесь. Если юзер ещё есть, его удаление наступит позже записи и каскад лайк увидит.
+     */
     public Film addLike(long id, long userId) {
-        Film film = getById(id);
+        AddLikeEvent event = new AddLikeEvent();
+        event.begin();
+        getById(id);
         User user = userStorage.findById(userId);
         if (Objects.isNull(user)) {
-            var message = String.format("Юзера с id %d нет в базе данных", userId);
-            log.warn(message);
-            throw new NotFoundException(message);
+            throw NotFoundException.user(userId);
+        }
+        boolean added = changeLike(id, userId, true);
+        if (added && Objects.isNull(userStorage.findById(userId))) {
+            changeLike(id, userId, false);
+            throw NotFoundException.user(userId);
+        }
+        Film film = filmStorage.findById(id);
+        if (Objects.isNull(film)) {
+            throw NotFoundException.film(id);
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.filmId = id;
+            event.userId = userId;
+            event.datasetSize = filmStorage.size();
+            event.resultSize = film.getLikes().size();
+            event.added = added;
+            event.commit();
         }
-        Set<Long> likes = film.getLikes();
-        likes.add(userId);
         log.info("Юзер с id {} поставил лайк фильму с id {}", userId, id);
         return film;
     }
 
     public Film removeLike(long id, long userId) {
-        Film film = getById(id);
+        getById(id);
         User user = userStorage.findById(userId);
         if (Objects.isNull(user)) {
-            var message = String.format("Юзера с id %d нет в базе данных", userId);
-            log.warn(message);
-            throw new NotFoundException(message);
+            throw NotFoundException.user(userId);
+        }
+        changeLike(id, userId, false);
+        Film film = filmStorage.findById(id);
+        if (Objects.isNull(film)) {
+            throw NotFoundException.film(id);
         }
-        Set<Long> likes = film.getLikes();
-        likes.remove(userId);
         log.info("Юзер с id {} удалил лайк фильму с id {}", userId, id);
         return film;
     }
 
+    /**
+     * Ставит или снимает лайк и публикует {@link LikeEvent}, если лайк действительно изменился.
+     * Число лайков в событии — на момент публикации, порядок событий задаёт номер из хранилища.
+     */
+    private boolean changeLike(long filmId, long userId, boolean add) {
+        return changePublisher.write(
+                () -> add ? filmStorage.addLike(filmId, userId) : filmStorage.removeLike(filmId, userId),
+                changed -> {
+                    Film film = filmStorage.findById(filmId);
+                    return new LikeEvent(filmId, userId, add, Objects.isNull(film) ? 0 : film.getLikes().size());
+                });
+    }
+
     private boolean isDateValid(LocalDate releaseDate) {
-        log.info("Проверяем, что дата выхода фильма не раньше {}", CINEMA_BIRTH_DATE);
         return releaseDate.isAfter(CINEMA_BIRTH_DATE) || releaseDate.isEqual(CINEMA_BIRTH_DATE);
     }
 
     private boolean isDescriptionValid(String description) {
-        log.info("Проверяем, что описание фильма не больше {} символов", FILM_DESCRIPTION_LIMIT);
         return description.length() <= FILM_DESCRIPTION_LIMIT;
     }
 
     private boolean isDurationValid(Integer duration) {
-        log.info("Проверяем, что хронометраж фильма больше 0");
         return duration > 0;
     }
 
@@ -0,0 +1,108 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+@Component
+public class PopularityIndex implements FootprintSource {
+    private static final long RANK_BYTES = ObjectSizes.align(ObjectSizes.OBJECT_HEADER + Long.BYTES + Integer.BYTES);
+    private static final Comparator<Rank> RANK_COMPARATOR = Comparator.comparingInt(Rank::likes)
+            .reversed()
+            .thenComparingLong(Rank::filmId);
+
+    private final Map<Long, Integer> likeCounts = new ConcurrentHashMap<>();
+    private final NavigableSet<Rank> ranking = new ConcurrentSkipListSet<>(RANK_COMPARATOR);
+
+    /**
+     * Фильм может прийти уже с лайками, а {@link LikeEvent} публикуются только для новых лайков.
+     */
+    @Order(0)
+    @EventListener
+    public void onFilmCreated(FilmCreatedEvent event) {
+        apply(event.film().getId(), event.film().getLikes().size());
+    }
+
+    @Order(0)
+    @EventListener
+    public void onLike(LikeEvent event) {
+        apply(event.filmId(), event.delta());
+    }
+
+    @Order(0)
+    @EventListener
+    public void onFilmDeleted(FilmDeletedEvent event) {
+        likeCounts.computeIfPresent(event.film().getId(), (id, count) -> {
+            ranking.remove(new Rank(id, count));
+            return null;
+        });
+    }
+
+    /**
+     * События приходят в порядке изменений хранилища (их так доставляет {@code ChangePublisher}), поэтому
+     * счётчик не уходит в минус, а лайк удалённого фильма не приходит после его удаления. В рейтинге ровно
+     * фильмы с лайками.
+     */
+    public void apply(long filmId, int delta) {
+        likeCounts.compute(filmId, (id, oldCount) -> {
+            int current = oldCount == null ? 0 : oldCount;
+            int updated = current + delta;
+            if (current > 0) {
+                ranking.remove(new Rank(id, current));
+            }
+            if (updated > 0) {
+                ranking.add(new Rank(id, updated));
+            }
+            return updated == 0 ? null : updated;
+        });
+    }
+
+    public int getLikeCount(long filmId) {
+        return likeCounts.getOrDefault(filmId, 0);
+    }
+
+    public List<Long> getTop(int count) {
+        List<Long> top = new ArrayList<>(count);
+        Set<Long> seen = new HashSet<>();
+        for (Rank rank : ranking) {
+            if (top.size() == count) {
+                break;
+            }
+            // во время переупорядочивания фильм может на мгновение встретиться дважды
+            if (seen.add(rank.filmId())) {
+                top.add(rank.filmId());
+            }
+        }
+        return top;
+    }
+
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        long bytes = ObjectSizes.concurrentHashMap(likeCounts.size());
+        for (Map.Entry<Long, Integer> entry : likeCounts.entrySet()) {
+            bytes += ObjectSizes.boxedLong(entry.getKey()) + ObjectSizes.boxedInteger(entry.getValue());
+        }
+        // в рейтинге ровно те фильмы, у которых есть лайки
+        bytes += ObjectSizes.concurrentSkipList(likeCounts.size()) + likeCounts.size() * RANK_BYTES;
+        return List.of(new FootprintEntry("popularity", likeCounts.size(), bytes));
+    }
+
+    private record Rank(long filmId, int likes) {
+    }
+}
@@ -0,0 +1,314 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.FriendshipEvent;
+import ru.yandex.practicum.filmorate.event.UserCreatedEvent;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+import ru.yandex.practicum.filmorate.model.GraphStats;
+import ru.yandex.practicum.filmorate.model.UserComponent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Аналитика графа дружбы, поддерживаемая по событиям, без обхода графа на каждый запрос.
+ * Добавление дружбы объединяет компоненты в union-find за почти O(1). Удаление может разбить
+ * компоненту, чего union-find не умеет, поэтому оно лишь помечает разбиение устаревшим:
+ * компоненты пересобираются по списку смежности один раз, при первом чтении после удалений.
+ * Степени вершин от удалений не зависят и всегда актуальны.
+ * <p>
+ * События приходят в порядке изменений хранилища (их так доставляет {@code ChangePublisher}), поэтому
+ * индекс применяет их как есть. Пересборка идёт без блокировки индекса: список смежности читается
+ * конкурентно, а добавления, пришедшие за это время, записываются в журнал и доигрываются перед подменой
+ * разбиения. Если за время пересборки что-то удалили, разбиение всё равно подменяется, но остаётся
+ * устаревшим и пересоберётся при следующем чтении. Читатели, пришедшие во время пересборки, ждут её же,
+ * а не запускают свою.
+ */
+@Component
+public class SocialGraphIndex implements FootprintSource {
+    private final Map<Long, Set<Long>> adjacency = new ConcurrentHashMap<>();
+    private final TreeMap<Integer, Integer> degreeCounts = new TreeMap<>();
+    private long friendships;
+
+    private Components components = new Components();
+    private boolean stale;
+    private long removals;
+    /**
+     * Добавления, пришедшие во время пересборки: пары {@code {userId, friendId}}, новый юзер — {@code {id, id}}.
+     * {@code null}, пока пересборки нет.
+     */
+    private List<long[]> journal;
+    private CompletableFuture<Void> rebuild;
+
+    @EventListener
+    public synchronized void onUserCreated(UserCreatedEvent event) {
+        addUser(event.user().getId());
+    }
+
+    @EventListener
+    public synchronized void onFriendship(FriendshipEvent event) {
+        if (event.added()) {
+            addFriendship(event.userId(), event.friendId());
+        } else {
+            removeFriendship(event.userId(), event.friendId());
+        }
+    }
+
+    /**
+     * Удаление юзера — это удаление всех его дружб и самой вершины, компоненты пересобираются лениво.
+     */
+    @EventListener
+    public synchronized void onUserDeleted(UserDeletedEvent event) {
+        long userId = event.user().getId();
+        Set<Long> friends = adjacency.get(userId);
+        if (friends == null) {
+            return;
+        }
+        for (Long friendId : List.copyOf(friends)) {
+            removeFriendship(userId, friendId);
+        }
+        adjacency.remove(userId);
+        decrement(degreeCounts, 0);
+        markStale();
+    }
+
+    public GraphStats getStats() {
+        refresh();
+        synchronized (this) {
+            return new GraphStats(adjacency.size(), friendships, components.count(), components.largest(),
+                    new LinkedHashMap<>(degreeCounts));
+        }
+    }
+
+    /**
+     * Компонента юзера; юзер, о котором индекс ещё не знает, считается одиночкой.
+     */
+    public UserComponent getComponent(long userId) {
+        if (!adjacency.containsKey(userId)) {
+            return new UserComponent(userId, userId, 1);
+        }
+        refresh();
+        synchronized (this) {
+            return components.component(userId);
+        }
+    }
+
+    @Override
+    public synchronized List<FootprintEntry> estimateFootprint() {
+        long bytes = ObjectSizes.concurrentIndex(adjacency) + ObjectSizes.integerTreeMap(degreeCounts)
+                + components.estimateBytes();
+        return List.of(new FootprintEntry("users.graph", adjacency.size(), bytes));
+    }
+
+    private void addUser(long userId) {
+        if (adjacency.putIfAbsent(userId, ConcurrentHashMap.newKeySet()) == null) {
+            increment(degreeCounts, 0);
+            link(userId, userId);
+        }
+    }
+
+    private void addFriendship(long userId, long friendId) {
+        addUser(userId);
+        addUser(friendId);
+        if (!adjacency.get(userId).add(friendId)) {
+            return;
+        }
+        adjacency.get(friendId).add(userId);
+        changeDegree(userId, 1);
+        changeDegree(friendId, 1);
+        friendships++;
+        link(userId, friendId);
+    }
+
+    private void removeFriendship(long userId, long friendId) {
+        Set<Long> friends = adjacency.get(userId);
+        if (friends == null || !friends.remove(friendId)) {
+            return;
+        }
+        adjacency.get(friendId).remove(userId);
+        changeDegree(userId, -1);
+        changeDegree(friendId, -1);
+        friendships--;
+        markStale();
+    }
+
+    /**
+     * Добавление применяется к текущему разбиению, а во время пересборки — ещё и в журнал для нового.
+     */
+    private void link(long userId, long friendId) {
+        components.link(userId, friendId);
+        if (journal != null) {
+            journal.add(new long[]{userId, friendId});
+        }
+    }
+
+    private void markStale() {
+        stale = true;
+        removals++;
+    }
+
+    private void changeDegree(long userId, int delta) {
+        int degree = adjacency.get(userId).size();
+        decrement(degreeCounts, degree - delta);
+        increment(degreeCounts, degree);
+    }
+
+    /**
+     * Пересобирает разбиение, если оно устарело. Список смежности обходится без блокировки индекса,
+     * под ней только доигрывается журнал и подменяется разбиение.
+     */
+    private void refresh() {
+        CompletableFuture<Void> pending;
+        long removalsAtStart;
+        synchronized (this) {
+            if (!stale) {
+                return;
+            }
+            if (rebuild != null) {
+                pending = rebuild;
+                removalsAtStart = -1;
+            } else {
+                rebuild = new CompletableFuture<>();
+                pending = rebuild;
+                journal = new ArrayList<>();
+                removalsAtStart = removals;
+            }
+        }
+        if (removalsAtStart < 0) {
+            pending.join();
+            return;
+        }
+        Components rebuilt = null;
+        try {
+            rebuilt = Components.of(adjacency);
+        } finally {
+            synchronized (this) {
+                if (rebuilt != null) {
+                    for (long[] edge : journal) {
+                        rebuilt.link(edge[0], edge[1]);
+                    }
+                    components = rebuilt;
+                    stale = removals != removalsAtStart;
+                }
+                journal = null;
+                rebuild = null;
+            }
+            pending.complete(null);
+        }
+    }
+
+    private static void increment(Map<Integer, Integer> counts, int key) {
+        counts.merge(key, 1, Integer::sum);
+    }
+
+    private static void decrement(Map<Integer, Integer> counts, int key) {
+        counts.computeIfPresent(key, (k, count) -> count == 1 ? null : count - 1);
+    }
+
+    /**
+     * Union-find по юзерам с размером и наименьшим id каждой компоненты.
+     */
+    private static final class Components {
+        private final Map<Long, Long> parent = new HashMap<>();
+        private final Map<Long, Integer> sizes = new HashMap<>();
+        private final Map<Long, Long> minIds = new HashMap<>();
+        private final TreeMap<Integer, Integer> sizeCounts = new TreeMap<>();
+
+        static Components of(Map<Long, Set<Long>> adjacency) {
+            Components components = new Components();
+            for (Map.Entry<Long, Set<Long>> entry : adjacency.entrySet()) {
+                long userId = entry.getKey();
+                components.link(userId, userId);
+                for (Long friendId : entry.getValue()) {
+                    if (userId < friendId) {
+                        components.link(userId, friendId);
+                    }
+                }
+            }
+            return components;
+        }
+
+        /**
+         * Объединяет компоненты юзеров, заводя вершины, которых ещё нет; {@code link(id, id)} только заводит.
+         */
+        void link(long userId, long friendId) {
+            long root = find(userId);
+            long other = find(friendId);
+            if (root == other) {
+                return;
+            }
+            int rootSize = sizes.get(root);
+            int otherSize = sizes.get(other);
+            if (rootSize < otherSize) {
+                long swap = root;
+                root = other;
+                other = swap;
+            }
+            parent.put(other, root);
+            decrement(sizeCounts, rootSize);
+            decrement(sizeCounts, otherSize);
+            increment(sizeCounts, rootSize + otherSize);
+            sizes.put(root, rootSize + otherSize);
+            sizes.remove(other);
+            minIds.put(root, Math.min(minIds.get(root), minIds.remove(other)));
+        }
+
+        int count() {
+            return sizes.size();
+        }
+
+        int largest() {
+            return sizeCounts.isEmpty() ? 0 : sizeCounts.lastKey();
+        }
+
+        UserComponent component(long userId) {
+            long root = find(userId);
+            return new UserComponent(userId, minIds.get(root), sizes.get(root));
+        }
+
+        long estimateBytes() {
+            long bytes = ObjectSizes.integerTreeMap(sizeCounts) + ObjectSizes.hashMap(parent.size())
+                    + ObjectSizes.hashMap(sizes.size()) + ObjectSizes.hashMap(minIds.size());
+            for (Map.Entry<Long, Long> entry : parent.entrySet()) {
+                bytes += ObjectSizes.boxedLong(entry.getKey()) + ObjectSizes.boxedLong(entry.getValue());
+            }
+            for (Map.Entry<Long, Integer> entry : sizes.entrySet()) {
+                bytes += ObjectSizes.boxedLong(entry.getKey()) + ObjectSizes.boxedInteger(entry.getValue());
+            }
+            for (Map.Entry<Long, Long> entry : minIds.entrySet()) {
+                bytes += ObjectSizes.boxedLong(entry.getKey()) + ObjectSizes.boxedLong(entry.getValue());
+            }
+            return bytes;
+        }
+
+        private long find(long userId) {
+            Long next = parent.get(userId);
+            if (next == null) {
+                parent.put(userId, userId);
+                sizes.put(userId, 1);
+                minIds.put(userId, userId);
+                increment(sizeCounts, 1);
+                return userId;
+            }
+            long node = userId;
+            while (next != node) {
+                long grandparent = parent.get(next);
+                parent.put(node, grandparent);
+                node = grandparent;
+                next = parent.get(node);
+            }
+            return node;
+        }
+    }
+}
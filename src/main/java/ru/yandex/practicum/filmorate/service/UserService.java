@@ -3,33 +3,75 @@ package ru.yandex.practicum.filmorate.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.event.FriendshipEvent;
+import ru.yandex.practicum.filmorate.event.UserCreatedEvent;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
+import ru.yandex.practicum.filmorate.event.UserUpdatedEvent;
 import ru.yandex.practicum.filmorate.exception.DuplicateEmailException;
 import ru.yandex.practicum.filmorate.exception.DuplicateLoginException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.jfr.CommonFriendsEvent;
+import ru.yandex.practicum.filmorate.jfr.DuplicateCheckEvent;
+import ru.yandex.practicum.filmorate.jfr.StorageScanEvent;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.IdPage;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    /**
+     * Сколько юзеров можно сравнить за один запрос общих друзей: каждый — это поиск по id и проверки
+     * по его множеству друзей.
+     */
+    public static final int MAX_COMMON_FRIENDS_USERS = 100;
+
     private final UserStorage userStorage;
+    private final ChangePublisher changePublisher;
 
     public Collection<User> getAll() {
-        return userStorage.getAll();
+        return StorageScanEvent.scan(userStorage, userStorage::getAll);
+    }
+
+    /**
+     * Найденные юзеры в порядке запроса (повторы схлопываются) и id, которых нет в базе.
+     */
+    public BatchResult<User> getByIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        Map<Long, User> found = userStorage.findAllById(distinct);
+        List<User> items = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>(distinct.size() - found.size());
+        for (Long id : distinct) {
+            User user = found.get(id);
+            if (user == null) {
+                missing.add(id);
+            } else {
+                items.add(user);
+            }
+        }
+        log.info("Найдено юзеров: {}, не найдено: {}", items.size(), missing.size());
+        return new BatchResult<>(items, missing);
     }
 
     public User getById(long id) {
         User userById = userStorage.findById(id);
         if (Objects.isNull(userById)) {
-            var message = String.format("Юзера с id %d нет в базе данных", id);
-            log.warn(message);
-            throw new NotFoundException(message);
+            throw NotFoundException.user(id);
         }
         log.info("Юзер с id {} успешно найден", id);
         return userById;
@@ -39,72 +81,146 @@ public class UserService {
         User user = getById(id);
         Set<Long> userFriends = user.getFriends();
         log.info("Выводим список друзей юзера с id {}", id);
-        return userStorage.getAll()
-                .stream()
-                .filter(u -> userFriends.contains(u.getId()))
+        return userFriends.stream()
+                .sorted()
+                .map(userStorage::findById)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
+    public IdPage getFriendIds(long id, long after, int limit) {
+        return IdPage.of(getById(id).getFriends(), after, limit);
+    }
+
     public Collection<User> getCommonFriends(long id, long otherId) {
-        Collection<User> userFriends = getUserFriends(id);
-        Collection<User> otherUserFriends = getUserFriends(otherId);
-        log.info("Выводим список общих друзей юзеров с id {} и {}", id, otherId);
-        return userFriends.stream()
-                .filter(otherUserFriends::contains)
-                .toList();
+        return getCommonFriends(id, List.of(otherId));
+    }
+
+    /**
+     * Друзья, общие для юзера и всех {@code otherIds}. Перебирается только самое маленькое множество
+     * друзей, остальные проверяются от меньшего к большему, так что цена — O(min × k), а не полный
+     * проход по каждому списку.
+     */
+    public Collection<User> getCommonFriends(long id, Collection<Long> otherIds) {
+        CommonFriendsEvent event = new CommonFriendsEvent();
+        event.begin();
+        List<Set<Long>> friendSets = new ArrayList<>(otherIds.size() + 1);
+        friendSets.add(getById(id).getFriends());
+        for (long otherId : otherIds) {
+            friendSets.add(getById(otherId).getFriends());
+        }
+        friendSets.sort(Comparator.comparingInt(Set::size));
+        log.info("Выводим список друзей, общих для юзера с id {} и юзеров с id {}", id, otherIds);
+        Set<Long> smallest = friendSets.get(0);
+        long[] common = new long[smallest.size()];
+        int count = 0;
+        candidates:
+        for (Long friendId : smallest) {
+            for (int i = 1; i < friendSets.size(); i++) {
+                if (!friendSets.get(i).contains(friendId)) {
+                    continue candidates;
+                }
+            }
+            common[count++] = friendId;
+        }
+        Arrays.sort(common, 0, count);
+        List<User> commonFriends = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User friend = userStorage.findById(common[i]);
+            if (friend != null) {
+                commonFriends.add(friend);
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.userId = id;
+            event.users = friendSets.size();
+            event.datasetSize = friendSets.stream().mapToInt(Set::size).sum();
+            event.candidates = smallest.size();
+            event.resultSize = commonFriends.size();
+            event.commit();
+        }
+        return commonFriends;
     }
 
     public User create(User user) {
         checkEmail(user);
         checkLogin(user);
         checkName(user);
-        return userStorage.create(user);
+        return changePublisher.write(() -> userStorage.create(user), UserCreatedEvent::new);
     }
 
     public User update(User newUser) {
         User oldUser = getById(newUser.getId());
         log.info("Юзер с id {} был найден в базе данных", newUser.getId());
         updateFields(oldUser, newUser);
+        User updatedUser = changePublisher.write(() -> userStorage.update(oldUser), UserUpdatedEvent::new);
+        if (Objects.isNull(updatedUser)) {
+            throw NotFoundException.user(newUser.getId());
+        }
         log.info("Успешно выполнен http-запрос на обновление юзера с id {}", newUser.getId());
-        return oldUser;
+        return updatedUser;
+    }
+
+    /**
+     * Удаляет юзера; хранилище убирает его из друзей за O(число друзей), лайки снимаются
+     * слушателями {@link UserDeletedEvent}.
+     */
+    public void delete(long id) {
+        User deletedUser = changePublisher.write(() -> userStorage.delete(id), UserDeletedEvent::new);
+        if (Objects.isNull(deletedUser)) {
+            throw NotFoundException.user(id);
+        }
+        log.info("Юзер с id {} удалён, связей дружбы разорвано: {}", id, deletedUser.getFriends().size());
     }
 
     public User addFriend(long id, long friendId) {
-        User user = getById(id);
-        User friend = getById(friendId);
-        user.getFriends().add(friendId);
-        friend.getFriends().add(id);
+        getById(id);
+        getById(friendId);
+        changePublisher.write(() -> userStorage.addFriendship(id, friendId),
+                added -> added ? new FriendshipEvent(id, friendId, true) : null);
         log.info("Юзеры с id {} и id {} стали друзьями", id, friendId);
-        return user;
+        return userStorage.findById(id);
     }
 
     public User removeFriend(long id, long friendId) {
-        User user = getById(id);
-        User friend = getById(friendId);
-        boolean result = user.getFriends().remove(friendId);
-        friend.getFriends().remove(id);
+        getById(id);
+        getById(friendId);
+        boolean result = changePublisher.write(() -> userStorage.removeFriendship(id, friendId),
+                removed -> removed ? new FriendshipEvent(id, friendId, false) : null);
         if (result) {
             log.info("Юзеры с id {} и id {} перестали быть друзьями", id, friendId);
         } else {
             log.info("Юзеры с id {} и id {} изначально не были друзьями", id, friendId);
         }
-        return user;
+        return userStorage.findById(id);
     }
 
     private boolean hasDuplicateEmail(User user) {
         log.info("Проверяем имейл из http-запроса на дубликат");
-        return userStorage.getAll()
-                .stream()
-                .map(User::getEmail)
-                .anyMatch(user.getEmail()::equals);
+        return hasDuplicate("email", User::getEmail, user.getEmail());
     }
 
     private boolean hasDuplicateLogin(User user) {
         log.info("Проверяем логин из http-запроса на дубликат");
-        return userStorage.getAll()
-                .stream()
-                .map(User::getLogin)
-                .anyMatch(user.getLogin()::equals);
+        return hasDuplicate("login", User::getLogin, user.getLogin());
+    }
+
+    private boolean hasDuplicate(String field, Function<User, String> getter, String value) {
+        DuplicateCheckEvent event = new DuplicateCheckEvent();
+        event.begin();
+        Collection<User> users = StorageScanEvent.scan(userStorage, userStorage::getAll);
+        boolean duplicate = users.stream()
+                .map(getter)
+                .anyMatch(value::equals);
+        event.end();
+        if (event.shouldCommit()) {
+            event.field = field;
+            event.datasetSize = users.size();
+            event.duplicate = duplicate;
+            event.commit();
+        }
+        return duplicate;
     }
 
     private void checkEmail(User user) {
@@ -131,7 +247,6 @@ public class UserService {
     }
 
     private boolean hasLoginSpaces(String login) {
-        log.info("Проверяем, что логин юзера не содержит пробельных символов");
         boolean isSpace = false;
         for (int i = 0; i < login.length(); i++) {
             if (Character.isSpaceChar(login.charAt(i))) {
@@ -142,9 +257,21 @@ public class UserService {
         return isSpace;
     }
 
+    /**
+     * Эквивалент {@code email.matches(".*")}: точка не совпадает с разделителями строк,
+     * поэтому имейл валиден, только если их в нём нет.
+     */
     private boolean isEmailValid(String email) {
-        log.info("Проверяем, что имейл юзера соответствует нужному формату");
-        return email.matches(".*");
+        for (int i = 0; i < email.length(); i++) {
+            switch (email.charAt(i)) {
+                case '\n', '\r', '\u0085', '\u2028', '\u2029' -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+        }
+        return true;
     }
 
     private void updateFields(User oldUser, User newUser) {
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.filmorate.service.stream;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.config.StreamProperties;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.LikeDelta;
+import ru.yandex.practicum.filmorate.service.PopularityIndex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+@Service
+public class PopularityStreamService {
+    private final PopularityIndex popularityIndex;
+    private final StreamProperties properties;
+    private final Set<StreamSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Integer> pendingDeltas = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService dispatcher;
+    private final ExecutorService senders;
+    private volatile List<Long> currentTop = List.of();
+
+    public PopularityStreamService(PopularityIndex popularityIndex, StreamProperties properties) {
+        this.popularityIndex = popularityIndex;
+        this.properties = properties;
+        this.dispatcher = Executors.newSingleThreadScheduledExecutor(threadFactory("popularity-stream-dispatcher"));
+        this.senders = Executors.newFixedThreadPool(properties.getSenderThreads(),
+                threadFactory("popularity-stream-sender"));
+        dispatcher.scheduleWithFixedDelay(this::dispatch, properties.getFlushIntervalMs(),
+                properties.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(properties.getTimeoutMs());
+        StreamSubscriber subscriber = new StreamSubscriber(emitter, properties.getBufferSize());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscriber.offer(List.of(), currentTop);
+        subscribers.add(subscriber);
+        log.info("Новый подписчик на поток популярности, всего подписчиков: {}", subscribers.size());
+        flush(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Order(1)
+    @EventListener
+    public void onLike(LikeEvent event) {
+        // в потоке запроса только копим дельту, рассылка идёт пачками из диспетчера
+        pendingDeltas.merge(event.filmId(), event.delta(), Integer::sum);
+    }
+
+    @Order(1)
+    @EventListener
+    public void onFilmDeleted(FilmDeletedEvent event) {
+        pendingDeltas.merge(event.film().getId(), -event.film().getLikes().size(), Integer::sum);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdownNow();
+        senders.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.getEmitter().complete());
+        subscribers.clear();
+    }
+
+    void dispatch() {
+        try {
+            List<LikeDelta> deltas = drainDeltas();
+            List<Long> top = deltas.isEmpty() ? null : refreshTop();
+            long heartbeatThreshold = System.currentTimeMillis() - properties.getHeartbeatIntervalMs();
+            for (StreamSubscriber subscriber : subscribers) {
+                if (!deltas.isEmpty() || top != null) {
+                    subscriber.offer(deltas, top);
+                }
+                if (subscriber.hasPending() || subscriber.isIdleSince(heartbeatThreshold)) {
+                    flush(subscriber);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ошибка при рассылке обновлений популярности: {}", e.getMessage());
+        }
+    }
+
+    private List<LikeDelta> drainDeltas() {
+        if (pendingDeltas.isEmpty()) {
+            return List.of();
+        }
+        List<LikeDelta> deltas = new ArrayList<>();
+        for (Long filmId : pendingDeltas.keySet()) {
+            Integer delta = pendingDeltas.remove(filmId);
+            if (delta != null && delta != 0) {
+                deltas.add(new LikeDelta(filmId, delta, popularityIndex.getLikeCount(filmId)));
+            }
+        }
+        return deltas;
+    }
+
+    private List<Long> refreshTop() {
+        List<Long> top = popularityIndex.getTop(properties.getTopSize());
+        if (top.equals(currentTop)) {
+            return null;
+        }
+        currentTop = top;
+        return top;
+    }
+
+    private void flush(StreamSubscriber subscriber) {
+        if (!subscriber.tryStartFlush()) {
+            // предыдущая отправка ещё идёт, обновления схлопнутся в буфере подписчика
+            return;
+        }
+        try {
+            senders.execute(() -> send(subscriber));
+        } catch (RuntimeException e) {
+            subscriber.endFlush(System.currentTimeMillis());
+        }
+    }
+
+    private void send(StreamSubscriber subscriber) {
+        SseEmitter emitter = subscriber.getEmitter();
+        try {
+            StreamSubscriber.Batch batch = subscriber.drain();
+            if (batch.isEmpty()) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+                return;
+            }
+            if (batch.dropped() > 0) {
+                emitter.send(SseEmitter.event().name("resync").data(batch.dropped()));
+            }
+            if (!batch.likes().isEmpty()) {
+                emitter.send(SseEmitter.event().name("likes").data(batch.likes(), MediaType.APPLICATION_JSON));
+            }
+            if (batch.topChange() != null) {
+                emitter.send(SseEmitter.event().name("top").data(batch.topChange(), MediaType.APPLICATION_JSON));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.info("Подписчик на поток популярности отключился: {}", e.getMessage());
+            subscribers.remove(subscriber);
+            emitter.completeWithError(e);
+        } finally {
+            subscriber.endFlush(System.currentTimeMillis());
+        }
+    }
+
+    private static ThreadFactory threadFactory(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
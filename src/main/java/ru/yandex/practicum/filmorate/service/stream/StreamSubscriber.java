@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.service.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.model.LikeDelta;
+import ru.yandex.practicum.filmorate.model.TopChange;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+class StreamSubscriber {
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final Map<Long, LikeDelta> pendingLikes = new LinkedHashMap<>();
+    private final AtomicBoolean flushing = new AtomicBoolean();
+    private List<Long> pendingTop;
+    private List<Long> sentTop = List.of();
+    private int dropped;
+    private volatile long lastSentAt = System.currentTimeMillis();
+
+    StreamSubscriber(SseEmitter emitter, int capacity) {
+        this.emitter = emitter;
+        this.capacity = capacity;
+    }
+
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+
+    synchronized void offer(List<LikeDelta> deltas, List<Long> top) {
+        for (LikeDelta delta : deltas) {
+            LikeDelta pending = pendingLikes.remove(delta.filmId());
+            if (pending != null) {
+                delta = new LikeDelta(delta.filmId(), pending.delta() + delta.delta(), delta.likes());
+            } else if (pendingLikes.size() >= capacity) {
+                // медленный клиент: вытесняем самое старое обновление и просим его перечитать топ
+                Iterator<Long> eldest = pendingLikes.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                dropped++;
+            }
+            pendingLikes.put(delta.filmId(), delta);
+        }
+        if (top != null) {
+            pendingTop = top;
+        }
+    }
+
+    synchronized boolean hasPending() {
+        return !pendingLikes.isEmpty() || pendingTop != null || dropped > 0;
+    }
+
+    synchronized Batch drain() {
+        List<LikeDelta> likes = new ArrayList<>(pendingLikes.values());
+        pendingLikes.clear();
+        TopChange topChange = null;
+        if (pendingTop != null && !Objects.equals(pendingTop, sentTop)) {
+            List<Long> entered = pendingTop.stream()
+                    .filter(id -> !sentTop.contains(id))
+                    .toList();
+            List<Long> left = sentTop.stream()
+                    .filter(id -> !pendingTop.contains(id))
+                    .toList();
+            topChange = new TopChange(pendingTop, entered, left);
+            sentTop = pendingTop;
+        }
+        pendingTop = null;
+        int droppedCount = dropped;
+        dropped = 0;
+        return new Batch(likes, topChange, droppedCount);
+    }
+
+    boolean tryStartFlush() {
+        return flushing.compareAndSet(false, true);
+    }
+
+    void endFlush(long now) {
+        lastSentAt = now;
+        flushing.set(false);
+    }
+
+    boolean isIdleSince(long moment) {
+        return lastSentAt < moment;
+    }
+
+    record Batch(List<LikeDelta> likes, TopChange topChange, int dropped) {
+
+        boolean isEmpty() {
+            return likes.isEmpty() && topChange == null && dropped == 0;
+        }
+    }
+}
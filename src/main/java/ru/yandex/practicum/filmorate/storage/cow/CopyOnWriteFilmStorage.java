@@ -0,0 +1,196 @@
+package ru.yandex.practicum.filmorate.storage.cow;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.Footprints;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранит фильмы как неизменяемые {@link FilmSnapshot}. Каждое изменение публикует новую версию
+ * внутри {@code compute} по фильму, читатели работают без блокировок и получают собственную копию
+ * {@link Film}. Номер изменения из {@link ChangeSequence} выдаётся там же, поэтому изменения одного фильма
+ * нумеруются в том порядке, в каком их видят читатели; простой CAS так не умеет — номер пришлось бы брать
+ * до замены, которая может не пройти.
+ * Лайк меняется внутри {@code compute} по юзеру в обратном индексе, поэтому изменения одного юзера
+ * упорядочены и индекс не расходится с фильмами.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "cow", matchIfMissing = true)
+public class CopyOnWriteFilmStorage implements FilmStorage, FootprintSource {
+    private static final Comparator<FilmSnapshot> POPULARITY_COMPARATOR =
+            Comparator.comparingInt((FilmSnapshot film) -> film.likes().size())
+                    .reversed()
+                    .thenComparingLong(FilmSnapshot::id);
+
+    private final Map<Long, FilmSnapshot> films = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> likedFilms = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * Id выдаются подряд, поэтому проход по диапазону id отдаёт фильмы по возрастанию без сортировки.
+     * Если после удалений пропусков в диапазоне больше, чем записей, сортируются только сами id.
+     */
+    @Override
+    public Collection<Film> getAll() {
+        long last = lastId.get();
+        List<Film> result = new ArrayList<>(films.size());
+        if (last <= 2L * films.size()) {
+            for (long id = 1; id <= last; id++) {
+                addIfPresent(result, id);
+            }
+        } else {
+            for (long id : films.keySet().stream().mapToLong(Long::longValue).sorted().toArray()) {
+                addIfPresent(result, id);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return films.size();
+    }
+
+    @Override
+    public Film findById(long id) {
+        FilmSnapshot film = films.get(id);
+        return film == null ? null : film.toFilm();
+    }
+
+    @Override
+    public Film create(Film film) {
+        FilmSnapshot created = FilmSnapshot.of(lastId.incrementAndGet(), film);
+        // до put фильм никому не виден, так что номер можно выдать заранее
+        ChangeSequence.stamp();
+        films.put(created.id(), created);
+        for (Long userId : created.likes()) {
+            likedFilms.compute(userId, (key, filmIds) -> with(filmIds, created.id()));
+        }
+        film.setId(created.id());
+        return created.toFilm();
+    }
+
+    @Override
+    public Film update(Film film) {
+        FilmSnapshot updated = films.computeIfPresent(film.getId(), (id, current) -> {
+            ChangeSequence.stamp();
+            return current.withFields(film);
+        });
+        return updated == null ? null : updated.toFilm();
+    }
+
+    @Override
+    public Film delete(long id) {
+        FilmSnapshot deleted = films.remove(id);
+        if (deleted == null) {
+            return null;
+        }
+        // после remove фильм уже никто не изменит и не получит номер раньше удаления
+        ChangeSequence.stamp();
+        for (Long userId : deleted.likes()) {
+            likedFilms.computeIfPresent(userId, (key, filmIds) -> without(filmIds, id));
+        }
+        return deleted.toFilm();
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        boolean[] added = new boolean[1];
+        likedFilms.compute(userId, (key, filmIds) -> {
+            added[0] = change(filmId, current -> current.withLike(userId));
+            return added[0] ? with(filmIds, filmId) : filmIds;
+        });
+        return added[0];
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        boolean[] removed = new boolean[1];
+        likedFilms.compute(userId, (key, filmIds) -> {
+            removed[0] = change(filmId, current -> current.withoutLike(userId));
+            return removed[0] ? without(filmIds, filmId) : filmIds;
+        });
+        return removed[0];
+    }
+
+    @Override
+    public Collection<Long> findLikedFilmIds(long userId) {
+        return List.copyOf(likedFilms.getOrDefault(userId, Set.of()));
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        if (count <= 0) {
+            return List.of();
+        }
+        // куча держит count лучших, в голове — худший из них
+        PriorityQueue<FilmSnapshot> top = new PriorityQueue<>(count + 1, POPULARITY_COMPARATOR.reversed());
+        for (FilmSnapshot film : films.values()) {
+            top.add(film);
+            if (top.size() > count) {
+                top.poll();
+            }
+        }
+        Film[] popular = new Film[top.size()];
+        for (int i = popular.length - 1; i >= 0; i--) {
+            popular[i] = top.poll().toFilm();
+        }
+        return Arrays.asList(popular);
+    }
+
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        return Footprints.ofFilms(films, likedFilms);
+    }
+
+    private static Set<Long> with(Set<Long> filmIds, long filmId) {
+        Set<Long> updated = filmIds == null ? ConcurrentHashMap.newKeySet() : filmIds;
+        updated.add(filmId);
+        return updated;
+    }
+
+    private static Set<Long> without(Set<Long> filmIds, long filmId) {
+        if (filmIds == null) {
+            return null;
+        }
+        filmIds.remove(filmId);
+        return filmIds.isEmpty() ? null : filmIds;
+    }
+
+    private boolean change(long id, UnaryOperator<FilmSnapshot> change) {
+        boolean[] changed = new boolean[1];
+        films.computeIfPresent(id, (key, current) -> {
+            FilmSnapshot next = change.apply(current);
+            if (next != current) {
+                changed[0] = true;
+                ChangeSequence.stamp();
+            }
+            return next;
+        });
+        return changed[0];
+    }
+
+    private void addIfPresent(List<Film> result, long id) {
+        FilmSnapshot snapshot = films.get(id);
+        if (snapshot != null) {
+            result.add(snapshot.toFilm());
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package ru.yandex.practicum.filmorate.storage.cow;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.Footprints;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserSnapshot;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Хранит юзеров как неизменяемые {@link UserSnapshot}, см. {@link CopyOnWriteFilmStorage}.
+ * В режиме tiered на диск уходят только фильмы, юзеры остаются здесь.
+ * <p>
+ * Дружба меняет две записи, а {@code compute} меняет только одну, поэтому обе стороны дружбы и удаление
+ * юзера меняются под общей блокировкой {@code friendships}. Чтение по-прежнему идёт без блокировок.
+ */
+@Component
+@ConditionalOnExpression("'${filmorate.storage.mode:cow}' == 'cow' or '${filmorate.storage.mode:cow}' == 'tiered'")
+public class CopyOnWriteUserStorage implements UserStorage, FootprintSource {
+    private final Map<Long, UserSnapshot> users = new ConcurrentHashMap<>();
+    private final AtomicLong lastId = new AtomicLong();
+    private final Object friendships = new Object();
+
+    /**
+     * Id выдаются подряд, поэтому проход по диапазону id отдаёт юзеров по возрастанию без сортировки.
+     * Если после удалений пропусков в диапазоне больше, чем записей, сортируются только сами id.
+     */
+    @Override
+    public Collection<User> getAll() {
+        long last = lastId.get();
+        List<User> result = new ArrayList<>(users.size());
+        if (last <= 2L * users.size()) {
+            for (long id = 1; id <= last; id++) {
+                addIfPresent(result, id);
+            }
+        } else {
+            for (long id : users.keySet().stream().mapToLong(Long::longValue).sorted().toArray()) {
+                addIfPresent(result, id);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public User create(User user) {
+        UserSnapshot created = UserSnapshot.of(lastId.incrementAndGet(), user);
+        ChangeSequence.stamp();
+        users.put(created.id(), created);
+        user.setId(created.id());
+        return created.toUser();
+    }
+
+    @Override
+    public User findById(long id) {
+        UserSnapshot user = users.get(id);
+        return user == null ? null : user.toUser();
+    }
+
+    @Override
+    public User update(User user) {
+        UserSnapshot updated = users.computeIfPresent(user.getId(), (id, current) -> {
+            ChangeSequence.stamp();
+            return current.withFields(user);
+        });
+        return updated == null ? null : updated.toUser();
+    }
+
+    @Override
+    public User delete(long id) {
+        synchronized (friendships) {
+            UserSnapshot deleted = users.remove(id);
+            if (deleted == null) {
+                return null;
+            }
+            ChangeSequence.stamp();
+            for (Long friendId : deleted.friends()) {
+                removeFriend(friendId, id);
+            }
+            return deleted.toUser();
+        }
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        return change(userId, current -> current.withFriend(friendId));
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        return change(userId, current -> current.withoutFriend(friendId));
+    }
+
+    @Override
+    public boolean addFriendship(long userId, long friendId) {
+        synchronized (friendships) {
+            if (!users.containsKey(userId) || !users.containsKey(friendId)) {
+                return false;
+            }
+            boolean added = addFriend(userId, friendId);
+            addFriend(friendId, userId);
+            return added;
+        }
+    }
+
+    @Override
+    public boolean removeFriendship(long userId, long friendId) {
+        synchronized (friendships) {
+            boolean removed = removeFriend(userId, friendId);
+            removeFriend(friendId, userId);
+            return removed;
+        }
+    }
+
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        return Footprints.ofUsers(users);
+    }
+
+    /**
+     * Номер изменения выдаётся внутри {@code compute}, см. {@link CopyOnWriteFilmStorage}.
+     */
+    private boolean change(long id, UnaryOperator<UserSnapshot> change) {
+        boolean[] changed = new boolean[1];
+        users.computeIfPresent(id, (key, current) -> {
+            UserSnapshot next = change.apply(current);
+            if (next != current) {
+                changed[0] = true;
+                ChangeSequence.stamp();
+            }
+            return next;
+        });
+        return changed[0];
+    }
+
+    private void addIfPresent(List<User> result, long id) {
+        UserSnapshot snapshot = users.get(id);
+        if (snapshot != null) {
+            result.add(snapshot.toUser());
+        }
+    }
+}
@@ -3,11 +3,68 @@ package ru.yandex.practicum.filmorate.storage.film;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
 
 public interface FilmStorage {
     Collection<Film> getAll();
 
+    /**
+     * Число фильмов в каталоге. Реализация по умолчанию собирает весь каталог, хранилища считают без этого.
+     */
+    default int size() {
+        return getAll().size();
+    }
+
     Film findById(long id);
 
     Film create(Film film);
+
+    Film update(Film film);
+
+    /**
+     * Найденные фильмы по id; отсутствующих id в результате нет.
+     */
+    default Map<Long, Film> findAllById(Collection<Long> ids) {
+        Map<Long, Film> found = new HashMap<>();
+        for (Long id : ids) {
+            Film film = findById(id);
+            if (film != null) {
+                found.put(id, film);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Удаляет фильм вместе с его лайками в обратном индексе.
+     *
+     * @return удалённый фильм или {@code null}, если его не было
+     */
+    Film delete(long id);
+
+    boolean addLike(long filmId, long userId);
+
+    boolean removeLike(long filmId, long userId);
+
+    /**
+     * Id фильмов, которые лайкнул юзер. Реализация по умолчанию просматривает весь каталог,
+     * хранилища переопределяют её обратным индексом.
+     */
+    default Collection<Long> findLikedFilmIds(long userId) {
+        return getAll()
+                .stream()
+                .filter(film -> film.getLikes().contains(userId))
+                .map(Film::getId)
+                .toList();
+    }
+
+    default Collection<Film> getPopular(int count) {
+        return getAll()
+                .stream()
+                .sorted(Comparator.comparing((Film film) -> film.getLikes().size()).reversed())
+                .limit(count)
+                .toList();
+    }
 }
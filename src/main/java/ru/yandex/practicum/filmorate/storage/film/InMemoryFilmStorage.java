@@ -1,21 +1,37 @@
 package ru.yandex.practicum.filmorate.storage.film;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
 import ru.yandex.practicum.filmorate.model.Film;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Component
-public class InMemoryFilmStorage implements FilmStorage {
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "heap")
+public class InMemoryFilmStorage implements FilmStorage, FootprintSource {
     private final Map<Long, Film> films = new HashMap<>();
+    private final Map<Long, Set<Long>> likedFilms = new HashMap<>();
+    private long lastId;
 
     @Override
     public Collection<Film> getAll() {
         return films.values();
     }
 
+    @Override
+    public int size() {
+        return films.size();
+    }
+
     @Override
     public Film findById(long id) {
         return films.get(id);
@@ -25,15 +41,85 @@ public class InMemoryFilmStorage implements FilmStorage {
     public Film create(Film film) {
         film.setId(getNextId());
         films.put(film.getId(), film);
+        for (Long userId : film.getLikes()) {
+            likedFilms.computeIfAbsent(userId, id -> new HashSet<>()).add(film.getId());
+        }
+        ChangeSequence.stamp();
         return film;
     }
 
+    @Override
+    public Film update(Film film) {
+        films.put(film.getId(), film);
+        ChangeSequence.stamp();
+        return film;
+    }
+
+    @Override
+    public Film delete(long id) {
+        Film film = films.remove(id);
+        if (film != null) {
+            for (Long userId : film.getLikes()) {
+                unindex(userId, id);
+            }
+            ChangeSequence.stamp();
+        }
+        return film;
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        Film film = films.get(filmId);
+        if (film == null || !film.getLikes().add(userId)) {
+            return false;
+        }
+        likedFilms.computeIfAbsent(userId, id -> new HashSet<>()).add(filmId);
+        ChangeSequence.stamp();
+        return true;
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        Film film = films.get(filmId);
+        if (film == null || !film.getLikes().remove(userId)) {
+            return false;
+        }
+        unindex(userId, filmId);
+        ChangeSequence.stamp();
+        return true;
+    }
+
+    @Override
+    public Collection<Long> findLikedFilmIds(long userId) {
+        return List.copyOf(likedFilms.getOrDefault(userId, Set.of()));
+    }
+
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        long filmBytes = 0;
+        long likes = 0;
+        long likeBytes = 0;
+        for (Film film : films.values()) {
+            filmBytes += ObjectSizes.film(film);
+            likes += film.getLikes().size();
+            likeBytes += ObjectSizes.mutableIds(film.getLikes());
+        }
+        return List.of(
+                new FootprintEntry("films", films.size(), filmBytes),
+                new FootprintEntry("films.likes", likes, likeBytes),
+                // ключи — те же Long, что и id фильмов
+                new FootprintEntry("films.index", films.size(), ObjectSizes.hashMap(films.size())),
+                new FootprintEntry("films.likedIndex", ObjectSizes.valueCount(likedFilms),
+                        ObjectSizes.hashIndex(likedFilms)));
+    }
+
+    private void unindex(long userId, long filmId) {
+        likedFilms.computeIfPresent(userId,
+                (id, filmIds) -> filmIds.remove(filmId) && filmIds.isEmpty() ? null : filmIds);
+    }
+
+    // id не переиспользуются после удаления, поэтому счётчик, а не максимум по ключам
     private long getNextId() {
-        long currentMaxId = films.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+        return ++lastId;
     }
 }
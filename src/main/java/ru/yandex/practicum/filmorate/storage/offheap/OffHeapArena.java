@@ -0,0 +1,206 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Область памяти вне кучи, нарезанная на чанки из direct-буферов.
+ * Адрес кодирует номер чанка в старших 32 битах и смещение в младших; одна аллокация
+ * никогда не пересекает границу чанка. Участок больше чанка получает собственный буфер своего размера,
+ * так что растущий массив id упирается только в предел {@value #MAX_BLOCK} байт.
+ * <p>
+ * Размеры округляются до классов: кратно 8 байтам до {@value #SMALL_LIMIT}, дальше — до степени двойки.
+ * Освобождённый участок уходит в список свободных своего класса, и аллокация того же
+ * класса сначала берёт участок оттуда. Ссылка на следующий свободный участок лежит в первых 8 байтах
+ * самого участка, так что списки не стоят куче ничего. Арена не уплотняется, поэтому число чанков
+ * определяется пиком живых данных, а не числом перезаписей и удалений.
+ */
+public class OffHeapArena {
+    public static final long NULL = -1L;
+    private static final int ALIGNMENT = 8;
+    private static final int SMALL_LIMIT = 512;
+    private static final int SMALL_CLASSES = SMALL_LIMIT / ALIGNMENT;
+    /**
+     * Самый крупный участок — наибольшая степень двойки, которую вмещает direct-буфер с индексами {@code int}.
+     */
+    static final int MAX_BLOCK = 1 << 30;
+
+    private final int chunkSize;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private final long[] freeHeads;
+    private int current = -1;
+    private int position;
+    private long usedBytes;
+    private long freeBytes;
+    private long reservedBytes;
+
+    public OffHeapArena(int chunkSize) {
+        if (chunkSize < ALIGNMENT || Integer.bitCount(chunkSize) != 1) {
+            throw new IllegalArgumentException("Размер чанка должен быть степенью двойки не меньше " + ALIGNMENT);
+        }
+        this.chunkSize = chunkSize;
+        this.position = chunkSize;
+        this.freeHeads = new long[sizeClass(MAX_BLOCK) + 1];
+        Arrays.fill(freeHeads, NULL);
+    }
+
+    public long allocate(int size) {
+        if (size > MAX_BLOCK) {
+            throw new IllegalArgumentException(
+                    String.format("Аллокация %d байт больше предела %d", size, MAX_BLOCK));
+        }
+        int blockSize = blockSize(size);
+        int sizeClass = sizeClass(blockSize);
+        long address = freeHeads[sizeClass];
+        if (address != NULL) {
+            freeHeads[sizeClass] = getLong(address);
+            freeBytes -= blockSize;
+        } else if (blockSize > chunkSize) {
+            address = (long) addChunk(blockSize) << 32;
+        } else {
+            if (chunkSize - position < blockSize) {
+                retireTail();
+                current = addChunk(chunkSize);
+                position = 0;
+            }
+            address = ((long) current << 32) | position;
+            position += blockSize;
+        }
+        usedBytes += blockSize;
+        return address;
+    }
+
+    /**
+     * Возвращает участок в список свободных; {@code size} — тот же размер, что был передан в
+     * {@link #allocate}.
+     */
+    public void free(long address, int size) {
+        int blockSize = blockSize(size);
+        push(address, blockSize);
+        usedBytes -= blockSize;
+    }
+
+    public long getLong(long address) {
+        return chunk(address).getLong(offset(address));
+    }
+
+    public void putLong(long address, long value) {
+        chunk(address).putLong(offset(address), value);
+    }
+
+    public int getInt(long address) {
+        return chunk(address).getInt(offset(address));
+    }
+
+    public void putInt(long address, int value) {
+        chunk(address).putInt(offset(address), value);
+    }
+
+    /**
+     * Копирует байты одной операцией; участки могут перекрываться, как у {@code memmove}.
+     */
+    public void copy(long from, long to, int length) {
+        chunk(to).put(offset(to), chunk(from), offset(from), length);
+    }
+
+    public long putString(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long address = allocate(Integer.BYTES + bytes.length);
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        chunk.putInt(offset, bytes.length);
+        chunk.put(offset + Integer.BYTES, bytes);
+        return address;
+    }
+
+    public String getString(long address) {
+        if (address == NULL) {
+            return null;
+        }
+        ByteBuffer chunk = chunk(address);
+        int offset = offset(address);
+        byte[] bytes = new byte[chunk.getInt(offset)];
+        chunk.get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public void freeString(long address) {
+        if (address != NULL) {
+            free(address, Integer.BYTES + getInt(address));
+        }
+    }
+
+    /**
+     * Байты в занятых участках с учётом округления до класса.
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Байты в списках свободных участков, которые ждут переиспользования.
+     */
+    public long getFreeBytes() {
+        return freeBytes;
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * Хвост чанка, в который не влезла очередная аллокация, не пропадает, если он мелкий: его размер
+     * кратен 8 и сам является классом.
+     */
+    private void retireTail() {
+        int tail = chunkSize - position;
+        if (current >= 0 && tail >= ALIGNMENT && tail <= SMALL_LIMIT) {
+            push(((long) current << 32) | position, tail);
+        }
+    }
+
+    private int addChunk(int size) {
+        chunks.add(ByteBuffer.allocateDirect(size));
+        reservedBytes += size;
+        return chunks.size() - 1;
+    }
+
+    private void push(long address, int blockSize) {
+        int sizeClass = sizeClass(blockSize);
+        putLong(address, freeHeads[sizeClass]);
+        freeHeads[sizeClass] = address;
+        freeBytes += blockSize;
+    }
+
+    private int blockSize(int size) {
+        if (size <= SMALL_LIMIT) {
+            return Math.max(ALIGNMENT, (size + ALIGNMENT - 1) & -ALIGNMENT);
+        }
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+
+    /**
+     * Мелкие классы идут через 8 байт, крупные — по степеням двойки начиная с 1024.
+     */
+    private static int sizeClass(int blockSize) {
+        if (blockSize <= SMALL_LIMIT) {
+            return blockSize / ALIGNMENT - 1;
+        }
+        int ceilLog2 = Integer.SIZE - Integer.numberOfLeadingZeros(blockSize - 1);
+        return SMALL_CLASSES + ceilLog2 - 10;
+    }
+
+    private ByteBuffer chunk(long address) {
+        return chunks.get((int) (address >>> 32));
+    }
+
+    private static int offset(long address) {
+        return (int) address;
+    }
+}
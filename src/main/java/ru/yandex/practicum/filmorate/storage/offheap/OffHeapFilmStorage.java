@@ -0,0 +1,364 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранит фильмы вне кучи: запись фиксированного размера на фильм, строки и лайки — в арене.
+ * Объекты {@link Film} собираются только при чтении, в куче остаётся лишь массив адресов записей
+ * и адреса записей обратного индекса лайков по юзерам. Слот удалённого фильма остаётся пустым.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "offheap")
+public class OffHeapFilmStorage implements FilmStorage, FootprintSource {
+    private static final int RECORD_SIZE = 64;
+    private static final int ID = 0;
+    private static final int RELEASE_DATE = 8;
+    private static final int DURATION = 16;
+    private static final int LIKES_COUNT = 20;
+    private static final int LIKES_CAPACITY = 24;
+    private static final int NAME = 32;
+    private static final int DESCRIPTION = 40;
+    private static final int LIKES = 48;
+    private static final int LIKED_RECORD_SIZE = 16;
+    private static final int LIKED_FILMS = 0;
+    private static final int LIKED_FILMS_COUNT = 8;
+    private static final int LIKED_FILMS_CAPACITY = 12;
+    private static final int READ_SLICE = 256;
+
+    private final OffHeapArena arena;
+    private final OffHeapIdSet likes;
+    private final OffHeapIdSet likedFilms;
+    private final Map<Long, Long> likedRecords = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] records = new long[1024];
+    private int size;
+
+    public OffHeapFilmStorage(StorageProperties properties) {
+        this.arena = new OffHeapArena(properties.getOffHeapChunkSize());
+        this.likes = new OffHeapIdSet(arena, LIKES, LIKES_COUNT, LIKES_CAPACITY);
+        this.likedFilms = new OffHeapIdSet(arena, LIKED_FILMS, LIKED_FILMS_COUNT, LIKED_FILMS_CAPACITY);
+    }
+
+    /**
+     * Под блокировкой чтения копируются только адреса записей, а фильмы собираются срезами по
+     * {@value #READ_SLICE} со своей короткой блокировкой: запись не ждёт, пока декодируется весь каталог.
+     * Фильм, удалённый между срезами, пропускается; созданный после копирования адресов не попадает.
+     */
+    @Override
+    public Collection<Film> getAll() {
+        long[] snapshot;
+        lock.readLock().lock();
+        try {
+            snapshot = Arrays.copyOf(records, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Film> films = new ArrayList<>(snapshot.length);
+        for (int from = 0; from < snapshot.length; from += READ_SLICE) {
+            int to = Math.min(from + READ_SLICE, snapshot.length);
+            lock.readLock().lock();
+            try {
+                for (int slot = from; slot < to; slot++) {
+                    // память удалённой записи арена могла уже отдать другой
+                    if (snapshot[slot] != OffHeapArena.NULL && records[slot] == snapshot[slot]) {
+                        films.add(read(snapshot[slot]));
+                    }
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+        return films;
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] != OffHeapArena.NULL) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film findById(long id) {
+        lock.readLock().lock();
+        try {
+            long record = record(id);
+            return record == OffHeapArena.NULL ? null : read(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Film create(Film film) {
+        lock.writeLock().lock();
+        try {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            long record = arena.allocate(RECORD_SIZE);
+            film.setId((long) size + 1);
+            arena.putLong(record + ID, film.getId());
+            writeFields(record, film);
+            likes.init(record, film.getLikes());
+            records[size++] = record;
+            for (Long userId : film.getLikes()) {
+                likedFilms.add(likedRecord(userId), film.getId());
+            }
+            ChangeSequence.stamp();
+            return film;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Вся пачка читается под одной блокировкой чтения.
+     */
+    @Override
+    public Map<Long, Film> findAllById(Collection<Long> ids) {
+        Map<Long, Film> found = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                long record = record(id);
+                if (record != OffHeapArena.NULL) {
+                    found.put(id, read(record));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public Film update(Film film) {
+        lock.writeLock().lock();
+        try {
+            long record = record(film.getId());
+            if (record == OffHeapArena.NULL) {
+                return null;
+            }
+            arena.freeString(arena.getLong(record + NAME));
+            arena.freeString(arena.getLong(record + DESCRIPTION));
+            writeFields(record, film);
+            ChangeSequence.stamp();
+            return film;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Film delete(long id) {
+        lock.writeLock().lock();
+        try {
+            long record = record(id);
+            if (record == OffHeapArena.NULL) {
+                return null;
+            }
+            Film film = read(record);
+            for (Long userId : film.getLikes()) {
+                unindex(userId, id);
+            }
+            likes.release(record);
+            arena.freeString(arena.getLong(record + NAME));
+            arena.freeString(arena.getLong(record + DESCRIPTION));
+            arena.free(record, RECORD_SIZE);
+            records[(int) (id - 1)] = OffHeapArena.NULL;
+            ChangeSequence.stamp();
+            return film;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            if (!likes.add(record(filmId), userId)) {
+                return false;
+            }
+            likedFilms.add(likedRecord(userId), filmId);
+            ChangeSequence.stamp();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        lock.writeLock().lock();
+        try {
+            if (!likes.remove(record(filmId), userId)) {
+                return false;
+            }
+            unindex(userId, filmId);
+            ChangeSequence.stamp();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Collection<Long> findLikedFilmIds(long userId) {
+        lock.readLock().lock();
+        try {
+            long record = likedRecords.getOrDefault(userId, OffHeapArena.NULL);
+            if (record == OffHeapArena.NULL) {
+                return List.of();
+            }
+            List<Long> filmIds = new ArrayList<>(likedFilms.size(record));
+            likedFilms.readInto(record, filmIds);
+            return filmIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ранжирует по счётчику лайков прямо в записях и собирает объекты только для первых {@code count}
+     * фильмов. При равенстве лайков выше фильм с меньшим id, как и в реализации по умолчанию.
+     */
+    @Override
+    public Collection<Film> getPopular(int count) {
+        lock.readLock().lock();
+        try {
+            PriorityQueue<Long> top = new PriorityQueue<>();
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] == OffHeapArena.NULL) {
+                    continue;
+                }
+                long rank = ((long) likes.size(records[slot]) << 32) | (Integer.MAX_VALUE - slot);
+                if (top.size() < count) {
+                    top.add(rank);
+                } else if (count > 0 && rank > top.peek()) {
+                    top.poll();
+                    top.add(rank);
+                }
+            }
+            Film[] films = new Film[top.size()];
+            for (int i = films.length - 1; i >= 0; i--) {
+                int slot = Integer.MAX_VALUE - (int) (top.poll() & 0xFFFFFFFFL);
+                films[i] = read(records[slot]);
+            }
+            return Arrays.asList(films);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * В куче только массив адресов записей и адреса обратного индекса; фильмы и лайки лежат в арене
+     * и здесь показаны нулём байт, место в арене видно через {@link #getArena()}.
+     */
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        lock.readLock().lock();
+        try {
+            long films = 0;
+            long likeCount = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] != OffHeapArena.NULL) {
+                    films++;
+                    likeCount += likes.size(records[slot]);
+                }
+            }
+            long likedCount = 0;
+            long likedIndexBytes = ObjectSizes.hashMap(likedRecords.size());
+            for (Map.Entry<Long, Long> entry : likedRecords.entrySet()) {
+                likedCount += likedFilms.size(entry.getValue());
+                likedIndexBytes += ObjectSizes.boxedLong(entry.getKey()) + ObjectSizes.boxedLong(entry.getValue());
+            }
+            return List.of(
+                    new FootprintEntry("films", films, 0),
+                    new FootprintEntry("films.likes", likeCount, 0),
+                    new FootprintEntry("films.index", films, ObjectSizes.array(records.length, Long.BYTES)),
+                    new FootprintEntry("films.likedIndex", likedCount, likedIndexBytes));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OffHeapArena getArena() {
+        return arena;
+    }
+
+    private long record(long id) {
+        return id < 1 || id > size ? OffHeapArena.NULL : records[(int) (id - 1)];
+    }
+
+    /**
+     * Запись обратного индекса юзера; создаётся при первом лайке и освобождается в {@link #unindex},
+     * когда лайков не осталось, — в том числе при удалении юзера, лайки которого снимаются по одному.
+     */
+    private long likedRecord(long userId) {
+        return likedRecords.computeIfAbsent(userId, id -> {
+            long record = arena.allocate(LIKED_RECORD_SIZE);
+            likedFilms.init(record, List.of());
+            return record;
+        });
+    }
+
+    private void unindex(long userId, long filmId) {
+        long record = likedRecords.getOrDefault(userId, OffHeapArena.NULL);
+        if (likedFilms.remove(record, filmId) && likedFilms.size(record) == 0) {
+            likedFilms.release(record);
+            arena.free(record, LIKED_RECORD_SIZE);
+            likedRecords.remove(userId);
+        }
+    }
+
+    private void writeFields(long record, Film film) {
+        LocalDate releaseDate = film.getReleaseDate();
+        arena.putLong(record + RELEASE_DATE, releaseDate == null ? Long.MIN_VALUE : releaseDate.toEpochDay());
+        arena.putInt(record + DURATION, film.getDuration() == null ? Integer.MIN_VALUE : film.getDuration());
+        arena.putLong(record + NAME, arena.putString(film.getName()));
+        arena.putLong(record + DESCRIPTION, arena.putString(film.getDescription()));
+    }
+
+    private Film read(long record) {
+        long releaseDate = arena.getLong(record + RELEASE_DATE);
+        int duration = arena.getInt(record + DURATION);
+        Film film = new Film(
+                arena.getLong(record + ID),
+                arena.getString(arena.getLong(record + NAME)),
+                arena.getString(arena.getLong(record + DESCRIPTION)),
+                releaseDate == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(releaseDate),
+                duration == Integer.MIN_VALUE ? null : duration);
+        likes.readInto(record, film.getLikes());
+        return film;
+    }
+}
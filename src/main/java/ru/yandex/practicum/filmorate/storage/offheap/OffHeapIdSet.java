@@ -0,0 +1,127 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import java.util.Collection;
+
+/**
+ * Отсортированный массив id в {@link OffHeapArena}. Адрес массива, число элементов и ёмкость
+ * хранятся в полях записи-владельца по переданным смещениям; при заполнении массив
+ * переносится в новый участок вдвое большего размера, а старый возвращается арене. Массив больше чанка
+ * арена держит в отдельном буфере, поэтому ёмкость ограничена только {@link #MAX_CAPACITY}.
+ */
+final class OffHeapIdSet {
+    private static final int MIN_CAPACITY = 4;
+    static final int MAX_CAPACITY = OffHeapArena.MAX_BLOCK / Long.BYTES;
+
+    private final OffHeapArena arena;
+    private final int addressField;
+    private final int countField;
+    private final int capacityField;
+
+    OffHeapIdSet(OffHeapArena arena, int addressField, int countField, int capacityField) {
+        this.arena = arena;
+        this.addressField = addressField;
+        this.countField = countField;
+        this.capacityField = capacityField;
+    }
+
+    void init(long record, Collection<Long> ids) {
+        arena.putLong(record + addressField, OffHeapArena.NULL);
+        arena.putInt(record + countField, 0);
+        arena.putInt(record + capacityField, 0);
+        for (Long id : ids) {
+            add(record, id);
+        }
+    }
+
+    int size(long record) {
+        return arena.getInt(record + countField);
+    }
+
+    boolean add(long record, long id) {
+        if (record == OffHeapArena.NULL) {
+            return false;
+        }
+        int count = size(record);
+        long array = arena.getLong(record + addressField);
+        int index = search(array, count, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        int capacity = arena.getInt(record + capacityField);
+        if (count == capacity) {
+            if (capacity == MAX_CAPACITY) {
+                throw new IllegalStateException(String.format("В множестве уже %d id, больше не поместится", count));
+            }
+            int newCapacity = Math.max(MIN_CAPACITY, capacity * 2);
+            long newArray = arena.allocate(newCapacity * Long.BYTES);
+            if (count > 0) {
+                arena.copy(array, newArray, count * Long.BYTES);
+                arena.free(array, capacity * Long.BYTES);
+            }
+            array = newArray;
+            arena.putLong(record + addressField, array);
+            arena.putInt(record + capacityField, newCapacity);
+        }
+        long at = array + (long) insertAt * Long.BYTES;
+        if (insertAt < count) {
+            arena.copy(at, at + Long.BYTES, (count - insertAt) * Long.BYTES);
+        }
+        arena.putLong(at, id);
+        arena.putInt(record + countField, count + 1);
+        return true;
+    }
+
+    boolean remove(long record, long id) {
+        if (record == OffHeapArena.NULL) {
+            return false;
+        }
+        int count = size(record);
+        long array = arena.getLong(record + addressField);
+        int index = search(array, count, id);
+        if (index < 0) {
+            return false;
+        }
+        long at = array + (long) index * Long.BYTES;
+        if (index < count - 1) {
+            arena.copy(at + Long.BYTES, at, (count - 1 - index) * Long.BYTES);
+        }
+        arena.putInt(record + countField, count - 1);
+        return true;
+    }
+
+    /**
+     * Освобождает массив id перед удалением записи-владельца.
+     */
+    void release(long record) {
+        int capacity = arena.getInt(record + capacityField);
+        if (capacity > 0) {
+            arena.free(arena.getLong(record + addressField), capacity * Long.BYTES);
+        }
+    }
+
+    void readInto(long record, Collection<Long> target) {
+        int count = size(record);
+        long array = arena.getLong(record + addressField);
+        for (int i = 0; i < count; i++) {
+            target.add(arena.getLong(array + (long) i * Long.BYTES));
+        }
+    }
+
+    private int search(long array, int count, long id) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = arena.getLong(array + (long) mid * Long.BYTES);
+            if (value < id) {
+                low = mid + 1;
+            } else if (value > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+}
@@ -0,0 +1,288 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Хранит юзеров вне кучи: запись фиксированного размера на юзера, строки и друзья — в арене.
+ * Объекты {@link User} собираются только при чтении. Слот удалённого юзера остаётся пустым.
+ */
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "offheap")
+public class OffHeapUserStorage implements UserStorage, FootprintSource {
+    private static final int RECORD_SIZE = 64;
+    private static final int ID = 0;
+    private static final int BIRTHDAY = 8;
+    private static final int FRIENDS_COUNT = 16;
+    private static final int FRIENDS_CAPACITY = 20;
+    private static final int EMAIL = 24;
+    private static final int LOGIN = 32;
+    private static final int NAME = 40;
+    private static final int FRIENDS = 48;
+
+    private final OffHeapArena arena;
+    private final OffHeapIdSet friends;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long[] records = new long[1024];
+    private int size;
+
+    public OffHeapUserStorage(StorageProperties properties) {
+        this.arena = new OffHeapArena(properties.getOffHeapChunkSize());
+        this.friends = new OffHeapIdSet(arena, FRIENDS, FRIENDS_COUNT, FRIENDS_CAPACITY);
+    }
+
+    @Override
+    public Collection<User> getAll() {
+        lock.readLock().lock();
+        try {
+            List<User> users = new ArrayList<>(size);
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] != OffHeapArena.NULL) {
+                    users.add(read(records[slot]));
+                }
+            }
+            return users;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            int count = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] != OffHeapArena.NULL) {
+                    count++;
+                }
+            }
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public User create(User user) {
+        lock.writeLock().lock();
+        try {
+            if (size == records.length) {
+                records = Arrays.copyOf(records, size * 2);
+            }
+            long record = arena.allocate(RECORD_SIZE);
+            user.setId((long) size + 1);
+            arena.putLong(record + ID, user.getId());
+            writeFields(record, user);
+            friends.init(record, user.getFriends());
+            records[size++] = record;
+            ChangeSequence.stamp();
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User findById(long id) {
+        lock.readLock().lock();
+        try {
+            long record = record(id);
+            return record == OffHeapArena.NULL ? null : read(record);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Вся пачка читается под одной блокировкой чтения.
+     */
+    @Override
+    public Map<Long, User> findAllById(Collection<Long> ids) {
+        Map<Long, User> found = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Long id : ids) {
+                long record = record(id);
+                if (record != OffHeapArena.NULL) {
+                    found.put(id, read(record));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return found;
+    }
+
+    @Override
+    public User update(User user) {
+        lock.writeLock().lock();
+        try {
+            long record = record(user.getId());
+            if (record == OffHeapArena.NULL) {
+                return null;
+            }
+            arena.freeString(arena.getLong(record + EMAIL));
+            arena.freeString(arena.getLong(record + LOGIN));
+            arena.freeString(arena.getLong(record + NAME));
+            writeFields(record, user);
+            ChangeSequence.stamp();
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public User delete(long id) {
+        lock.writeLock().lock();
+        try {
+            long record = record(id);
+            if (record == OffHeapArena.NULL) {
+                return null;
+            }
+            User user = read(record);
+            for (Long friendId : user.getFriends()) {
+                friends.remove(record(friendId), id);
+            }
+            friends.release(record);
+            arena.freeString(arena.getLong(record + EMAIL));
+            arena.freeString(arena.getLong(record + LOGIN));
+            arena.freeString(arena.getLong(record + NAME));
+            arena.free(record, RECORD_SIZE);
+            records[(int) (id - 1)] = OffHeapArena.NULL;
+            ChangeSequence.stamp();
+            return user;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            return stampIf(friends.add(record(userId), friendId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            return stampIf(friends.remove(record(userId), friendId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean addFriendship(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            long user = record(userId);
+            long friend = record(friendId);
+            if (user == OffHeapArena.NULL || friend == OffHeapArena.NULL) {
+                return false;
+            }
+            boolean added = friends.add(user, friendId);
+            friends.add(friend, userId);
+            return stampIf(added);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean removeFriendship(long userId, long friendId) {
+        lock.writeLock().lock();
+        try {
+            boolean removed = friends.remove(record(userId), friendId);
+            friends.remove(record(friendId), userId);
+            return stampIf(removed);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * В куче только массив адресов записей, см. {@link OffHeapFilmStorage#estimateFootprint()}.
+     */
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        lock.readLock().lock();
+        try {
+            long users = 0;
+            long friendCount = 0;
+            for (int slot = 0; slot < size; slot++) {
+                if (records[slot] != OffHeapArena.NULL) {
+                    users++;
+                    friendCount += friends.size(records[slot]);
+                }
+            }
+            return List.of(
+                    new FootprintEntry("users", users, 0),
+                    new FootprintEntry("users.friends", friendCount, 0),
+                    new FootprintEntry("users.index", users, ObjectSizes.array(records.length, Long.BYTES)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public OffHeapArena getArena() {
+        return arena;
+    }
+
+    /**
+     * Выдаёт номер изменения, если оно было; вызывается под блокировкой записи.
+     */
+    private static boolean stampIf(boolean changed) {
+        if (changed) {
+            ChangeSequence.stamp();
+        }
+        return changed;
+    }
+
+    private long record(long id) {
+        return id < 1 || id > size ? OffHeapArena.NULL : records[(int) (id - 1)];
+    }
+
+    private void writeFields(long record, User user) {
+        LocalDate birthday = user.getBirthday();
+        arena.putLong(record + BIRTHDAY, birthday == null ? Long.MIN_VALUE : birthday.toEpochDay());
+        arena.putLong(record + EMAIL, arena.putString(user.getEmail()));
+        arena.putLong(record + LOGIN, arena.putString(user.getLogin()));
+        arena.putLong(record + NAME, arena.putString(user.getName()));
+    }
+
+    private User read(long record) {
+        long birthday = arena.getLong(record + BIRTHDAY);
+        User user = new User(
+                arena.getLong(record + ID),
+                arena.getString(arena.getLong(record + EMAIL)),
+                arena.getString(arena.getLong(record + LOGIN)),
+                arena.getString(arena.getLong(record + NAME)),
+                birthday == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(birthday));
+        friends.readInto(record, user.getFriends());
+        return user;
+    }
+}
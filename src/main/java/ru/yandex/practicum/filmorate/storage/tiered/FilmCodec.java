@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Двоичный формат фильма в сегментах: id, дата релиза в днях эпохи, хронометраж, строки в UTF-8
+ * с длиной впереди и лайки. Отсутствующие значения кодируются длиной или числом {@code -1}.
+ */
+final class FilmCodec {
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final int NO_DURATION = Integer.MIN_VALUE;
+    private static final int NO_STRING = -1;
+
+    private FilmCodec() {
+    }
+
+    static byte[] encode(FilmSnapshot film) {
+        byte[] name = bytes(film.name());
+        byte[] description = bytes(film.description());
+        int size = Long.BYTES * 2 + Integer.BYTES * 4 + length(name) + length(description)
+                + film.likes().size() * Long.BYTES;
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putLong(film.id());
+        buffer.putLong(film.releaseDate() == null ? NO_DATE : film.releaseDate().toEpochDay());
+        buffer.putInt(film.duration() == null ? NO_DURATION : film.duration());
+        putBytes(buffer, name);
+        putBytes(buffer, description);
+        buffer.putInt(film.likes().size());
+        for (Long userId : film.likes()) {
+            buffer.putLong(userId);
+        }
+        return buffer.array();
+    }
+
+    static FilmSnapshot decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long id = buffer.getLong();
+        long releaseDate = buffer.getLong();
+        int duration = buffer.getInt();
+        String name = getString(buffer);
+        String description = getString(buffer);
+        int likesCount = buffer.getInt();
+        Long[] likes = new Long[likesCount];
+        for (int i = 0; i < likesCount; i++) {
+            likes[i] = buffer.getLong();
+        }
+        return new FilmSnapshot(id, name, description,
+                releaseDate == NO_DATE ? null : LocalDate.ofEpochDay(releaseDate),
+                duration == NO_DURATION ? null : duration, Set.of(likes));
+    }
+
+    static long id(byte[] bytes) {
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * Примерный размер фильма в куче: заголовки объектов, строки и упакованные {@code Long} лайков.
+     */
+    static int weight(FilmSnapshot film) {
+        return 96 + 2 * (chars(film.name()) + chars(film.description())) + 32 * film.likes().size();
+    }
+
+    private static int chars(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private static byte[] bytes(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int length(byte[] bytes) {
+        return bytes == null ? 0 : bytes.length;
+    }
+
+    private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+        if (bytes == null) {
+            buffer.putInt(NO_STRING);
+            return;
+        }
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NO_STRING) {
+            return null;
+        }
+        String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+}
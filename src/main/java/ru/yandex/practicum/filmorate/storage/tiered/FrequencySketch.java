@@ -0,0 +1,68 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+
+/**
+ * Count-min sketch частот обращений для фильтра допуска TinyLFU: четыре строки счётчиков до 15.
+ * После {@code 10 * width} обращений все счётчики делятся пополам, чтобы старая популярность забывалась.
+ */
+final class FrequencySketch {
+    private static final int ROWS = 4;
+    private static final int MAX_COUNT = 15;
+    private static final long[] SEEDS = {
+        0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+    };
+
+    private final byte[][] table;
+    private final int mask;
+    private final int sampleSize;
+    private int additions;
+
+    FrequencySketch(int expectedEntries) {
+        int width = Integer.highestOneBit(Math.max(64, expectedEntries - 1) << 1);
+        this.table = new byte[ROWS][width];
+        this.mask = width - 1;
+        this.sampleSize = 10 * width;
+    }
+
+    void increment(long key) {
+        for (int row = 0; row < ROWS; row++) {
+            int index = index(key, row);
+            if (table[row][index] < MAX_COUNT) {
+                table[row][index]++;
+            }
+        }
+        if (++additions == sampleSize) {
+            reset();
+        }
+    }
+
+    int frequency(long key) {
+        int frequency = MAX_COUNT;
+        for (int row = 0; row < ROWS; row++) {
+            frequency = Math.min(frequency, table[row][index(key, row)]);
+        }
+        return frequency;
+    }
+
+    long bytes() {
+        return ObjectSizes.array(ROWS, ObjectSizes.REFERENCE) + ROWS * ObjectSizes.array(mask + 1, 1);
+    }
+
+    private int index(long key, int row) {
+        // финальное перемешивание murmur3: у каждой строки свой seed и независимые коллизии
+        long hash = key ^ SEEDS[row];
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (hash ^ (hash >>> 33)) & mask;
+    }
+
+    private void reset() {
+        for (byte[] counters : table) {
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] >>= 1;
+            }
+        }
+        additions /= 2;
+    }
+}
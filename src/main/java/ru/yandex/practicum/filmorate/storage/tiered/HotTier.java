@@ -0,0 +1,162 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Горячий уровень: LRU-список фильмов в куче, ограниченный суммарным весом {@link FilmCodec#weight}.
+ * Новые записи допускаются всегда, а прочитанные с диска — только если по {@link FrequencySketch}
+ * они популярнее самого старого элемента (фильтр TinyLFU), поэтому однократные обходы не вытесняют
+ * горячие фильмы. Изменённые записи помечаются грязными и при вытеснении отдаются на запись.
+ * Не потокобезопасен, вызывается под блокировкой хранилища.
+ */
+final class HotTier {
+    private static final long NODE_BYTES = ObjectSizes.align(ObjectSizes.OBJECT_HEADER + Long.BYTES
+            + 3 * ObjectSizes.REFERENCE + Integer.BYTES + 1);
+
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private final Node sentinel = new Node(0, null, 0);
+    private final FrequencySketch sketch;
+    private final long maxBytes;
+    private volatile long bytes;
+    private volatile int entries;
+    private volatile long evictions;
+
+    @FunctionalInterface
+    interface EvictionListener {
+        void evicted(long id, FilmSnapshot film, boolean dirty);
+    }
+
+    HotTier(long maxBytes, int expectedEntries) {
+        this.maxBytes = maxBytes;
+        this.sketch = new FrequencySketch(expectedEntries);
+        sentinel.prev = sentinel;
+        sentinel.next = sentinel;
+    }
+
+    /**
+     * Учитывает обращение и поднимает фильм в начало очереди, если он есть в горячем уровне.
+     */
+    FilmSnapshot get(long id) {
+        sketch.increment(id);
+        Node node = nodes.get(id);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        linkLast(node);
+        return node.film;
+    }
+
+    /**
+     * Чтение без учёта обращения и без изменения порядка вытеснения, для полных обходов.
+     */
+    FilmSnapshot peek(long id) {
+        Node node = nodes.get(id);
+        return node == null ? null : node.film;
+    }
+
+    boolean contains(long id) {
+        return nodes.containsKey(id);
+    }
+
+    boolean admits(long id, int weight) {
+        Node eldest = sentinel.next;
+        if (bytes + weight <= maxBytes || eldest == sentinel) {
+            return true;
+        }
+        return sketch.frequency(id) > sketch.frequency(eldest.id);
+    }
+
+    void put(long id, FilmSnapshot film, boolean dirty, EvictionListener listener) {
+        int weight = FilmCodec.weight(film);
+        Node node = nodes.get(id);
+        if (node == null) {
+            node = new Node(id, film, weight);
+            nodes.put(id, node);
+            entries++;
+        } else {
+            unlink(node);
+            bytes -= node.weight;
+            node.film = film;
+            node.weight = weight;
+        }
+        node.dirty |= dirty;
+        linkLast(node);
+        bytes += weight;
+        while (bytes > maxBytes && sentinel.next != sentinel) {
+            Node eldest = sentinel.next;
+            remove(eldest.id);
+            evictions++;
+            listener.evicted(eldest.id, eldest.film, eldest.dirty);
+        }
+    }
+
+    /**
+     * Убирает фильм без записи на диск.
+     */
+    void remove(long id) {
+        Node node = nodes.remove(id);
+        if (node != null) {
+            unlink(node);
+            bytes -= node.weight;
+            entries--;
+        }
+    }
+
+    void forEach(Consumer<FilmSnapshot> action) {
+        for (Node node = sentinel.next; node != sentinel; node = node.next) {
+            action.accept(node.film);
+        }
+    }
+
+    /**
+     * Память служебных структур без самих фильмов: map с ключами, узлы списка и sketch частот.
+     */
+    long overheadBytes() {
+        return ObjectSizes.hashMap(entries) + entries * (NODE_BYTES + ObjectSizes.LONG_BOX) + sketch.bytes();
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    int getEntries() {
+        return entries;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+
+    private void linkLast(Node node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+    }
+
+    private static final class Node {
+        private final long id;
+        private FilmSnapshot film;
+        private int weight;
+        private boolean dirty;
+        private Node prev;
+        private Node next;
+
+        private Node(long id, FilmSnapshot film, int weight) {
+            this.id = id;
+            this.film = film;
+            this.weight = weight;
+        }
+    }
+}
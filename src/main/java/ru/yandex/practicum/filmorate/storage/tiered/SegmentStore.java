@@ -0,0 +1,238 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Холодный уровень: append-only сегменты в каталоге, запись — длина и байты. Адрес записи упакован
+ * в {@code long}: номер сегмента в старших битах, смещение в младших 40. Заполненный сегмент
+ * закрывается для записи, устаревшие записи в нём копятся как мусор до сжатия.
+ * Чтение идёт позиционно и без блокировок; если сегмент успели сжать и удалить, {@link #read}
+ * возвращает {@code null}, и вызывающий перечитывает адрес.
+ */
+final class SegmentStore implements Closeable {
+    static final long NULL = -1;
+
+    private static final int OFFSET_BITS = 40;
+    private static final long OFFSET_MASK = (1L << OFFSET_BITS) - 1;
+    private static final int HEADER = Integer.BYTES;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private volatile Segment[] segments = new Segment[0];
+    private Segment active;
+
+    SegmentStore(Path directory, long segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.active = openSegment();
+    }
+
+    synchronized long append(byte[] record) {
+        int size = HEADER + record.length;
+        if (active.size > 0 && active.size + size > segmentBytes) {
+            active = openSegment();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(record.length).put(record).flip();
+        long offset = active.size;
+        try {
+            while (buffer.hasRemaining()) {
+                active.channel.write(buffer, offset + buffer.position());
+            }
+        } catch (IOException e) {
+            reopen(active);
+            throw new UncheckedIOException(e);
+        }
+        active.size += size;
+        return ((long) active.number << OFFSET_BITS) | offset;
+    }
+
+    byte[] read(long location) {
+        while (true) {
+            Segment segment = segment(location);
+            if (segment == null) {
+                return null;
+            }
+            try {
+                long offset = location & OFFSET_MASK;
+                ByteBuffer header = readFully(segment.channel, ByteBuffer.allocate(HEADER), offset);
+                return readFully(segment.channel, ByteBuffer.allocate(header.getInt(0)), offset + HEADER).array();
+            } catch (ClosedByInterruptException e) {
+                reopen(segment);
+                throw new UncheckedIOException(e);
+            } catch (ClosedChannelException e) {
+                // сегмент удалён сжатием — на следующем круге вернётся null; иначе канал закрыло
+                // прерывание чужого потока, и его нужно открыть заново
+                reopen(segment);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Помечает запись по адресу устаревшей.
+     */
+    synchronized void release(long location, int length) {
+        Segment segment = segment(location);
+        if (segment != null) {
+            segment.garbage += HEADER + length;
+        }
+    }
+
+    /**
+     * Закрытые для записи сегменты, в которых доля мусора не меньше {@code ratio}.
+     */
+    synchronized List<Integer> compactionCandidates(double ratio) {
+        List<Integer> candidates = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (segment != null && segment != active && segment.garbage >= segment.size * ratio) {
+                candidates.add(segment.number);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Последовательно отдаёт все записи сегмента с их адресами, включая устаревшие.
+     */
+    void forEachRecord(int number, BiConsumer<Long, byte[]> consumer) {
+        Segment segment = segments[number];
+        long offset = 0;
+        while (offset < segment.size) {
+            long location = ((long) number << OFFSET_BITS) | offset;
+            byte[] record = read(location);
+            consumer.accept(location, record);
+            offset += HEADER + record.length;
+        }
+    }
+
+    synchronized void drop(int number) {
+        Segment segment = segments[number];
+        Segment[] updated = Arrays.copyOf(segments, segments.length);
+        updated[number] = null;
+        segments = updated;
+        closeQuietly(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    long getDiskBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            if (segment != null) {
+                bytes += segment.size;
+            }
+        }
+        return bytes;
+    }
+
+    long getGarbageBytes() {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            if (segment != null) {
+                bytes += segment.garbage;
+            }
+        }
+        return bytes;
+    }
+
+    int getSegmentCount() {
+        int count = 0;
+        for (Segment segment : segments) {
+            if (segment != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public synchronized void close() {
+        for (int number = 0; number < segments.length; number++) {
+            if (segments[number] != null) {
+                drop(number);
+            }
+        }
+    }
+
+    private Segment segment(long location) {
+        Segment[] current = segments;
+        int number = (int) (location >>> OFFSET_BITS);
+        return number < current.length ? current[number] : null;
+    }
+
+    private Segment openSegment() {
+        int number = segments.length;
+        Path path = directory.resolve(String.format("films-%06d.seg", number));
+        Segment segment = new Segment(number, path, open(path, true));
+        Segment[] updated = Arrays.copyOf(segments, number + 1);
+        updated[number] = segment;
+        segments = updated;
+        return segment;
+    }
+
+    private synchronized void reopen(Segment segment) {
+        if (segments[segment.number] == segment && !segment.channel.isOpen()) {
+            segment.channel = open(segment.path, false);
+        }
+    }
+
+    private static FileChannel open(Path path, boolean create) {
+        try {
+            return create
+                    ? FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                            StandardOpenOption.WRITE)
+                    : FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Запись обрывается на смещении " + position);
+            }
+        }
+        return buffer;
+    }
+
+    private static void closeQuietly(Segment segment) {
+        try {
+            segment.channel.close();
+        } catch (IOException ignore) {
+            // файл всё равно удаляется
+        }
+    }
+
+    private static final class Segment {
+        private final int number;
+        private final Path path;
+        private volatile FileChannel channel;
+        private long size;
+        private long garbage;
+
+        private Segment(int number, Path path, FileChannel channel) {
+            this.number = number;
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.FilmSnapshot;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Двухуровневое хранилище фильмов: горячие фильмы в куче ({@link HotTier}), остальные — в сегментах
+ * на локальном диске ({@link SegmentStore}). В куче на каждый фильм остаются только адрес записи,
+ * её длина и число лайков, поэтому рейтинг считается без чтения с диска. Изменения пишутся в горячий
+ * уровень и попадают на диск при вытеснении. Файлы временные: каталог создаётся при старте и удаляется
+ * при остановке, это способ держать каталог больше кучи, а не долговременное хранение.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "tiered")
+public class TieredFilmStorage implements FilmStorage, FootprintSource {
+    private static final int ESTIMATED_FILM_WEIGHT = 512;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Path directory;
+    private final SegmentStore segments;
+    private final HotTier hot;
+    private final double compactionRatio;
+    private final BitSet live = new BitSet();
+    private final Map<Long, long[]> likedFilms = new HashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private long[] locations = new long[1024];
+    private int[] lengths = new int[1024];
+    private int[] likeCounts = new int[1024];
+    private int size;
+
+    public TieredFilmStorage(StorageProperties properties, MeterRegistry meterRegistry) {
+        StorageProperties.Tiered config = properties.getTiered();
+        this.directory = createDirectory(config.getDirectory());
+        this.segments = new SegmentStore(directory, config.getSegmentBytes());
+        this.hot = new HotTier(config.getHotBytes(),
+                (int) Math.min(1 << 24, config.getHotBytes() / ESTIMATED_FILM_WEIGHT));
+        this.compactionRatio = config.getCompactionRatio();
+        Arrays.fill(locations, SegmentStore.NULL);
+        registerMetrics(meterRegistry);
+        log.info("Холодный уровень фильмов в каталоге {}", directory);
+    }
+
+    @Override
+    public Collection<Film> getAll() {
+        int[] ids;
+        lock.lock();
+        try {
+            ids = live.stream().toArray();
+        } finally {
+            lock.unlock();
+        }
+        // полный обход читает мимо горячего уровня, чтобы не вытеснить из него популярные фильмы
+        List<Film> films = new ArrayList<>(ids.length);
+        for (int slot : ids) {
+            FilmSnapshot film = read(slot + 1L, false);
+            if (film != null) {
+                films.add(film.toFilm());
+            }
+        }
+        return films;
+    }
+
+    @Override
+    public int size() {
+        lock.lock();
+        try {
+            return live.cardinality();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Film findById(long id) {
+        FilmSnapshot film = read(id, true);
+        return film == null ? null : film.toFilm();
+    }
+
+    @Override
+    public Film create(Film film) {
+        lock.lock();
+        try {
+            long id = size + 1L;
+            FilmSnapshot created = FilmSnapshot.of(id, film);
+            ensureCapacity(size + 1);
+            size++;
+            live.set(slot(id));
+            likeCounts[slot(id)] = created.likes().size();
+            for (Long userId : created.likes()) {
+                likedFilms.merge(userId, new long[]{id}, (current, added) -> with(current, id));
+            }
+            store(created);
+            ChangeSequence.stamp();
+            film.setId(id);
+            return created.toFilm();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Film update(Film film) {
+        lock.lock();
+        try {
+            FilmSnapshot current = load(film.getId());
+            if (current == null) {
+                return null;
+            }
+            FilmSnapshot updated = current.withFields(film);
+            store(updated);
+            ChangeSequence.stamp();
+            return updated.toFilm();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Film delete(long id) {
+        lock.lock();
+        try {
+            FilmSnapshot deleted = load(id);
+            if (deleted == null) {
+                return null;
+            }
+            hot.remove(id);
+            release(id);
+            live.clear(slot(id));
+            likeCounts[slot(id)] = 0;
+            for (Long userId : deleted.likes()) {
+                likedFilms.computeIfPresent(userId, (key, filmIds) -> without(filmIds, id));
+            }
+            compactIfNeeded();
+            ChangeSequence.stamp();
+            return deleted.toFilm();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean addLike(long filmId, long userId) {
+        lock.lock();
+        try {
+            FilmSnapshot current = load(filmId);
+            if (current == null || current.likes().contains(userId)) {
+                return false;
+            }
+            store(current.withLike(userId));
+            likeCounts[slot(filmId)]++;
+            likedFilms.merge(userId, new long[]{filmId}, (filmIds, added) -> with(filmIds, filmId));
+            ChangeSequence.stamp();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean removeLike(long filmId, long userId) {
+        lock.lock();
+        try {
+            FilmSnapshot current = load(filmId);
+            if (current == null || !current.likes().contains(userId)) {
+                return false;
+            }
+            store(current.withoutLike(userId));
+            likeCounts[slot(filmId)]--;
+            likedFilms.computeIfPresent(userId, (key, filmIds) -> without(filmIds, filmId));
+            ChangeSequence.stamp();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<Long> findLikedFilmIds(long userId) {
+        lock.lock();
+        try {
+            long[] filmIds = likedFilms.get(userId);
+            return filmIds == null ? List.of() : Arrays.stream(filmIds).boxed().toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Collection<Film> getPopular(int count) {
+        PriorityQueue<Long> top = new PriorityQueue<>();
+        lock.lock();
+        try {
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                long rank = ((long) likeCounts[slot] << 32) | (Integer.MAX_VALUE - slot);
+                if (top.size() < count) {
+                    top.add(rank);
+                } else if (count > 0 && rank > top.peek()) {
+                    top.poll();
+                    top.add(rank);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        Film[] films = new Film[top.size()];
+        int found = films.length;
+        for (int i = films.length - 1; i >= 0; i--) {
+            int slot = Integer.MAX_VALUE - (int) (top.poll() & 0xFFFFFFFFL);
+            FilmSnapshot film = read(slot + 1L, true);
+            if (film == null) {
+                // фильм удалили между подсчётом и чтением
+                found--;
+                continue;
+            }
+            films[i] = film.toFilm();
+        }
+        return found == films.length
+                ? Arrays.asList(films)
+                : Arrays.stream(films).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Фильмы и лайки — только те, что сейчас в горячем уровне; остальные лежат на диске.
+     */
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        lock.lock();
+        try {
+            long[] hotFilms = new long[4];
+            hot.forEach(film -> {
+                hotFilms[0]++;
+                hotFilms[1] += ObjectSizes.snapshot(film);
+                hotFilms[2] += film.likes().size();
+                hotFilms[3] += ObjectSizes.immutableIds(film.likes());
+            });
+            long indexBytes = ObjectSizes.array(locations.length, Long.BYTES)
+                    + 2 * ObjectSizes.array(lengths.length, Integer.BYTES)
+                    + ObjectSizes.array(live.size() / Long.SIZE, Long.BYTES)
+                    + hot.overheadBytes();
+            long likedCount = 0;
+            long likedIndexBytes = ObjectSizes.hashMap(likedFilms.size());
+            for (Map.Entry<Long, long[]> entry : likedFilms.entrySet()) {
+                likedCount += entry.getValue().length;
+                likedIndexBytes += ObjectSizes.boxedLong(entry.getKey())
+                        + ObjectSizes.array(entry.getValue().length, Long.BYTES);
+            }
+            return List.of(
+                    new FootprintEntry("films", hotFilms[0], hotFilms[1]),
+                    new FootprintEntry("films.likes", hotFilms[2], hotFilms[3]),
+                    new FootprintEntry("films.index", live.cardinality(), indexBytes),
+                    new FootprintEntry("films.likedIndex", likedCount, likedIndexBytes));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.lock();
+        try {
+            segments.close();
+            Files.deleteIfExists(directory);
+        } catch (IOException e) {
+            log.warn("Не удалось удалить каталог холодного уровня {}: {}", directory, e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    long getEvictions() {
+        return hot.getEvictions();
+    }
+
+    int getSegmentCount() {
+        return segments.getSegmentCount();
+    }
+
+    /**
+     * Чтение фильма: из горячего уровня под блокировкой, с диска — без неё. Прочитанный с диска фильм
+     * допускается в горячий уровень, если адрес записи за это время не сменился и фильтр частот
+     * считает его популярнее кандидата на вытеснение.
+     */
+    private FilmSnapshot read(long id, boolean admit) {
+        while (true) {
+            long location;
+            lock.lock();
+            try {
+                if (!exists(id)) {
+                    return null;
+                }
+                FilmSnapshot film = admit ? hot.get(id) : hot.peek(id);
+                if (film != null) {
+                    hits.increment();
+                    return film;
+                }
+                location = locations[slot(id)];
+            } finally {
+                lock.unlock();
+            }
+            byte[] record = segments.read(location);
+            if (record == null) {
+                // сегмент успели сжать, запись переехала
+                continue;
+            }
+            misses.increment();
+            FilmSnapshot film = FilmCodec.decode(record);
+            if (admit) {
+                admit(id, location, film);
+            }
+            return film;
+        }
+    }
+
+    private void admit(long id, long location, FilmSnapshot film) {
+        lock.lock();
+        try {
+            if (exists(id) && locations[slot(id)] == location && !hot.contains(id)
+                    && hot.admits(id, FilmCodec.weight(film))) {
+                hot.put(id, film, false, this::evicted);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Текущая версия фильма для изменения; вызывается под блокировкой, поэтому сегмент не может
+     * исчезнуть во время чтения.
+     */
+    private FilmSnapshot load(long id) {
+        if (!exists(id)) {
+            return null;
+        }
+        FilmSnapshot film = hot.get(id);
+        if (film != null) {
+            hits.increment();
+            return film;
+        }
+        misses.increment();
+        return FilmCodec.decode(segments.read(locations[slot(id)]));
+    }
+
+    private void store(FilmSnapshot film) {
+        hot.put(film.id(), film, true, this::evicted);
+        compactIfNeeded();
+    }
+
+    private void evicted(long id, FilmSnapshot film, boolean dirty) {
+        if (!dirty) {
+            return;
+        }
+        byte[] record = FilmCodec.encode(film);
+        release(id);
+        locations[slot(id)] = segments.append(record);
+        lengths[slot(id)] = record.length;
+    }
+
+    private void release(long id) {
+        int slot = slot(id);
+        if (locations[slot] != SegmentStore.NULL) {
+            segments.release(locations[slot], lengths[slot]);
+            locations[slot] = SegmentStore.NULL;
+        }
+    }
+
+    /**
+     * Переписывает живые записи из сегментов, где накопилось много мусора, в конец журнала.
+     */
+    private void compactIfNeeded() {
+        for (int number : segments.compactionCandidates(compactionRatio)) {
+            segments.forEachRecord(number, (location, record) -> {
+                long id = FilmCodec.id(record);
+                if (exists(id) && locations[slot(id)] == location) {
+                    locations[slot(id)] = segments.append(record);
+                }
+            });
+            segments.drop(number);
+            log.debug("Сегмент холодного уровня {} сжат", number);
+        }
+    }
+
+    private boolean exists(long id) {
+        return id >= 1 && id <= size && live.get(slot(id));
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > locations.length) {
+            int length = Math.max(capacity, locations.length * 2);
+            int previous = locations.length;
+            locations = Arrays.copyOf(locations, length);
+            Arrays.fill(locations, previous, length, SegmentStore.NULL);
+            lengths = Arrays.copyOf(lengths, length);
+            likeCounts = Arrays.copyOf(likeCounts, length);
+        }
+    }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("filmorate.storage.tiered.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Чтения фильмов, обслуженные горячим уровнем или диском")
+                .register(meterRegistry);
+        FunctionCounter.builder("filmorate.storage.tiered.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Чтения фильмов, обслуженные горячим уровнем или диском")
+                .register(meterRegistry);
+        FunctionCounter.builder("filmorate.storage.tiered.evictions", hot, HotTier::getEvictions)
+                .description("Фильмы, вытесненные из горячего уровня")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.storage.tiered.hot.bytes", hot, HotTier::getBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.storage.tiered.hot.entries", hot, HotTier::getEntries)
+                .register(meterRegistry);
+        Gauge.builder("filmorate.storage.tiered.disk.bytes", segments, SegmentStore::getDiskBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.storage.tiered.disk.garbage", segments, SegmentStore::getGarbageBytes)
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("filmorate.storage.tiered.disk.segments", segments, SegmentStore::getSegmentCount)
+                .register(meterRegistry);
+    }
+
+    private static Path createDirectory(String directory) {
+        try {
+            Path parent = Path.of(directory.isBlank() ? System.getProperty("java.io.tmpdir") : directory);
+            Files.createDirectories(parent);
+            return Files.createTempDirectory(parent, "filmorate-films-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int slot(long id) {
+        return (int) (id - 1);
+    }
+
+    private static long[] with(long[] filmIds, long filmId) {
+        int index = Arrays.binarySearch(filmIds, filmId);
+        if (index >= 0) {
+            return filmIds;
+        }
+        int insertion = -index - 1;
+        long[] updated = new long[filmIds.length + 1];
+        System.arraycopy(filmIds, 0, updated, 0, insertion);
+        updated[insertion] = filmId;
+        System.arraycopy(filmIds, insertion, updated, insertion + 1, filmIds.length - insertion);
+        return updated;
+    }
+
+    private static long[] without(long[] filmIds, long filmId) {
+        int index = Arrays.binarySearch(filmIds, filmId);
+        if (index < 0) {
+            return filmIds;
+        }
+        if (filmIds.length == 1) {
+            return null;
+        }
+        long[] updated = new long[filmIds.length - 1];
+        System.arraycopy(filmIds, 0, updated, 0, index);
+        System.arraycopy(filmIds, index + 1, updated, index, updated.length - index);
+        return updated;
+    }
+}
@@ -1,21 +1,34 @@
 package ru.yandex.practicum.filmorate.storage.user;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.event.ChangeSequence;
+import ru.yandex.practicum.filmorate.memory.FootprintEntry;
+import ru.yandex.practicum.filmorate.memory.FootprintSource;
+import ru.yandex.practicum.filmorate.memory.ObjectSizes;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Component
-public class InMemoryUserStorage implements UserStorage {
+@ConditionalOnProperty(name = "filmorate.storage.mode", havingValue = "heap")
+public class InMemoryUserStorage implements UserStorage, FootprintSource {
     private final Map<Long, User> users = new HashMap<>();
+    private long lastId;
 
     @Override
     public Collection<User> getAll() {
         return users.values();
     }
 
+    @Override
+    public int size() {
+        return users.size();
+    }
+
     @Override
     public User findById(long id) {
         return users.get(id);
@@ -25,15 +38,67 @@ public class InMemoryUserStorage implements UserStorage {
     public User create(User user) {
         user.setId(getNextId());
         users.put(user.getId(), user);
+        ChangeSequence.stamp();
         return user;
     }
 
+    @Override
+    public User update(User user) {
+        users.put(user.getId(), user);
+        ChangeSequence.stamp();
+        return user;
+    }
+
+    @Override
+    public User delete(long id) {
+        User user = users.remove(id);
+        if (user != null) {
+            for (Long friendId : user.getFriends()) {
+                removeFriend(friendId, id);
+            }
+            ChangeSequence.stamp();
+        }
+        return user;
+    }
+
+    @Override
+    public boolean addFriend(long userId, long friendId) {
+        User user = users.get(userId);
+        if (user == null || !user.getFriends().add(friendId)) {
+            return false;
+        }
+        ChangeSequence.stamp();
+        return true;
+    }
+
+    @Override
+    public boolean removeFriend(long userId, long friendId) {
+        User user = users.get(userId);
+        if (user == null || !user.getFriends().remove(friendId)) {
+            return false;
+        }
+        ChangeSequence.stamp();
+        return true;
+    }
+
+    @Override
+    public List<FootprintEntry> estimateFootprint() {
+        long userBytes = 0;
+        long friends = 0;
+        long friendBytes = 0;
+        for (User user : users.values()) {
+            userBytes += ObjectSizes.user(user);
+            friends += user.getFriends().size();
+            friendBytes += ObjectSizes.mutableIds(user.getFriends());
+        }
+        return List.of(
+                new FootprintEntry("users", users.size(), userBytes),
+                new FootprintEntry("users.friends", friends, friendBytes),
+                new FootprintEntry("users.index", users.size(), ObjectSizes.hashMap(users.size())));
+    }
+
+    // id не переиспользуются после удаления, поэтому счётчик, а не максимум по ключам
     private long getNextId() {
-        long currentMaxId = users.keySet()
-                .stream()
-                .mapToLong(id -> id)
-                .max()
-                .orElse(0);
-        return ++currentMaxId;
+        return ++lastId;
     }
 }
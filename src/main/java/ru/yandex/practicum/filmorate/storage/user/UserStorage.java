@@ -3,11 +3,69 @@ package ru.yandex.practicum.filmorate.storage.user;
 import ru.yandex.practicum.filmorate.model.User;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 
 public interface UserStorage {
     Collection<User> getAll();
 
+    /**
+     * Число юзеров. Реализация по умолчанию собирает всех юзеров, хранилища считают без этого.
+     */
+    default int size() {
+        return getAll().size();
+    }
+
     User create(User user);
 
     User findById(long id);
+
+    User update(User user);
+
+    /**
+     * Найденные юзеры по id; отсутствующих id в результате нет.
+     */
+    default Map<Long, User> findAllById(Collection<Long> ids) {
+        Map<Long, User> found = new HashMap<>();
+        for (Long id : ids) {
+            User user = findById(id);
+            if (user != null) {
+                found.put(id, user);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Удаляет юзера и убирает его из друзей у всех его друзей.
+     *
+     * @return удалённый юзер или {@code null}, если его не было
+     */
+    User delete(long id);
+
+    boolean addFriend(long userId, long friendId);
+
+    boolean removeFriend(long userId, long friendId);
+
+    /**
+     * Добавляет дружбу в обе стороны.
+     *
+     * @return {@code true}, если у {@code userId} не было друга {@code friendId}
+     */
+    default boolean addFriendship(long userId, long friendId) {
+        boolean added = addFriend(userId, friendId);
+        addFriend(friendId, userId);
+        return added;
+    }
+
+    /**
+     * Удаляет дружбу в обе стороны.
+     *
+     * @return {@code true}, если у {@code userId} был друг {@code friendId}
+     */
+    default boolean removeFriendship(long userId, long friendId) {
+        boolean removed = removeFriend(userId, friendId);
+        removeFriend(friendId, userId);
+        return removed;
+    }
 }
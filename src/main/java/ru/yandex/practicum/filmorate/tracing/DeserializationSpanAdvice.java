@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+
+/**
+ * Участок чтения тела запроса. Совет стоит первым, поэтому его afterBodyRead вызывается раньше
+ * {@code FastValidationAdvice}, и валидация тела в участок десериализации не попадает.
+ */
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class DeserializationSpanAdvice extends RequestBodyAdviceAdapter {
+    static final String DESERIALIZE = "deserialize";
+
+    private final Tracer tracer;
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracer.isRecording();
+    }
+
+    @Override
+    public HttpInputMessage beforeBodyRead(HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                           Class<? extends HttpMessageConverter<?>> converterType) {
+        tracer.start(DESERIALIZE).setAttribute("code.function", converterType.getSimpleName());
+        return inputMessage;
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        endDeserialization();
+        return body;
+    }
+
+    @Override
+    public Object handleEmptyBody(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
+                                  Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        endDeserialization();
+        return body;
+    }
+
+    private void endDeserialization() {
+        Span current = tracer.current();
+        if (DESERIALIZE.equals(current.getName())) {
+            current.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Участок обработки запроса в Spring MVC: разбор аргументов, вызов контроллера и запись ответа.
+ * Запись ответа идёт внутри вызова обработчика, но без колбэка по окончании, поэтому её участок
+ * закрывается здесь вместе с родителем.
+ */
+@RequiredArgsConstructor
+class HandlerSpanInterceptor implements HandlerInterceptor {
+    private static final String SPAN_ATTRIBUTE = HandlerSpanInterceptor.class.getName() + ".span";
+
+    private final Tracer tracer;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (tracer.isRecording()) {
+            request.setAttribute(SPAN_ATTRIBUTE, tracer.start("handler"));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(SPAN_ATTRIBUTE) instanceof Span span) {
+            if (ex != null) {
+                span.recordError(ex);
+            }
+            span.close();
+        }
+    }
+}
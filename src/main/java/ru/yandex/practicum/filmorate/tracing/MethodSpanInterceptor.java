@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.util.function.Supplier;
+
+/**
+ * Участок на вызов метода бина с именем {@code Класс.метод}. У контроллеров внутри него открывается
+ * участок {@link #METHOD_VALIDATION}, который закрывает {@link ValidationBoundary}, стоящий в цепочке
+ * прокси после проверки параметров, поэтому время валидации видно отдельно от тела метода.
+ */
+final class MethodSpanInterceptor implements MethodInterceptor {
+    static final String METHOD_VALIDATION = "validation.method";
+
+    private final String className;
+    private final String namespace;
+    private final Supplier<Tracer> tracer;
+    private final boolean validated;
+
+    MethodSpanInterceptor(Class<?> type, Supplier<Tracer> tracer, boolean validated) {
+        this.className = type.getSimpleName();
+        this.namespace = type.getName();
+        this.tracer = tracer;
+        this.validated = validated;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Tracer tracer = this.tracer.get();
+        if (!tracer.isRecording()) {
+            return invocation.proceed();
+        }
+        String method = invocation.getMethod().getName();
+        Span span = tracer.start(className + "." + method)
+                .setAttribute("code.namespace", namespace)
+                .setAttribute("code.function", method);
+        Span validation = validated ? tracer.start(METHOD_VALIDATION) : Span.NOOP;
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            // исключение до закрытия участка валидации — это отказ валидации, а не метода
+            (validation == Span.NOOP || validation.isEnded() ? span : validation).recordError(e);
+            throw e;
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Закрывает участок валидации перед вызовом самого метода.
+     */
+    static final class ValidationBoundary implements MethodInterceptor {
+        private final Supplier<Tracer> tracer;
+
+        ValidationBoundary(Supplier<Tracer> tracer) {
+            this.tracer = tracer;
+        }
+
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            Span current = tracer.get().current();
+            if (METHOD_VALIDATION.equals(current.getName())) {
+                current.close();
+            }
+            return invocation.proceed();
+        }
+    }
+}
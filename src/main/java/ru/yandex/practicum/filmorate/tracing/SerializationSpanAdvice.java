@@ -0,0 +1,38 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Открывает участок записи ответа последним из советов, сразу перед конвертером. Закрывает его
+ * {@link HandlerSpanInterceptor} после того, как обработка запроса завершилась.
+ */
+@RestControllerAdvice
+@Order(Ordered.LOWEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class SerializationSpanAdvice implements ResponseBodyAdvice<Object> {
+    private final Tracer tracer;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return tracer.isRecording();
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        tracer.start("serialize")
+                .setAttribute("code.function", selectedConverterType.getSimpleName())
+                .setAttribute("http.response.header.content-type", String.valueOf(selectedContentType));
+        return body;
+    }
+}
@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Участок трассы. Открывается через {@link Tracer} и закрывается в try-with-resources; вне записываемого
+ * запроса возвращается {@link #NOOP}, у которого все методы ничего не делают.
+ */
+public final class Span implements AutoCloseable {
+    public static final Span NOOP = new Span(null, 0, null, "", SpanKind.INTERNAL, 0);
+
+    private final Trace trace;
+    private final long spanId;
+    private final Span parent;
+    private final SpanKind kind;
+    private final long startNanos;
+    private String name;
+    private long endNanos;
+    private boolean ended;
+    private Map<String, Object> attributes;
+    private boolean error;
+
+    Span(Trace trace, long spanId, Span parent, String name, SpanKind kind, long startNanos) {
+        this.trace = trace;
+        this.spanId = spanId;
+        this.parent = parent;
+        this.name = name;
+        this.kind = kind;
+        this.startNanos = startNanos;
+    }
+
+    public Span setAttribute(String key, Object value) {
+        if (trace != null && value != null) {
+            if (attributes == null) {
+                attributes = new LinkedHashMap<>(4);
+            }
+            attributes.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Имя корневого участка уточняется после маршрутизации, когда известен шаблон пути.
+     */
+    public void updateName(String name) {
+        if (trace != null) {
+            this.name = name;
+        }
+    }
+
+    public void recordError(Throwable e) {
+        if (trace != null) {
+            error = true;
+            setAttribute("exception.type", e.getClass().getName());
+            setAttribute("exception.message", e.getMessage());
+        }
+    }
+
+    public void markError() {
+        if (trace != null) {
+            error = true;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void close() {
+        if (trace != null) {
+            trace.end(this, System.nanoTime());
+        }
+    }
+
+    long getSpanId() {
+        return spanId;
+    }
+
+    Span getParent() {
+        return parent;
+    }
+
+    SpanKind getKind() {
+        return kind;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    long getEndNanos() {
+        return endNanos;
+    }
+
+    boolean isEnded() {
+        return ended;
+    }
+
+    boolean isError() {
+        return error;
+    }
+
+    Map<String, Object> getAttributes() {
+        return attributes == null ? Collections.emptyMap() : attributes;
+    }
+
+    void endAt(long nanos) {
+        endNanos = nanos;
+        ended = true;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.FilterConfig;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+/**
+ * Обёртка чужого фильтра в участок трассы: его собственное время — это участок без вложенных.
+ */
+final class SpanFilter implements Filter {
+    private final String name;
+    private final Filter delegate;
+    private final Supplier<Tracer> tracer;
+
+    SpanFilter(String name, Filter delegate, Supplier<Tracer> tracer) {
+        this.name = name;
+        this.delegate = delegate;
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void init(FilterConfig filterConfig) throws ServletException {
+        delegate.init(filterConfig);
+    }
+
+    @Override
+    public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+            throws IOException, ServletException {
+        Tracer tracer = this.tracer.get();
+        if (!tracer.isRecording()) {
+            delegate.doFilter(request, response, chain);
+            return;
+        }
+        try (Span ignored = tracer.start(name)) {
+            delegate.doFilter(request, response, chain);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        delegate.destroy();
+    }
+}
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+/**
+ * Виды участков с номерами из перечисления SpanKind протокола OTLP.
+ */
+public enum SpanKind {
+    INTERNAL(1),
+    SERVER(2);
+
+    private final int otlpValue;
+
+    SpanKind(int otlpValue) {
+        this.otlpValue = otlpValue;
+    }
+
+    int getOtlpValue() {
+        return otlpValue;
+    }
+}
@@ -0,0 +1,96 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Трасса одного запроса. Открытые участки образуют цепочку от текущего до корня, поэтому закрытие
+ * участка закрывает и все вложенные, которые остались открытыми. Не потокобезопасна: трасса
+ * живёт в потоке запроса, а после закрытия корня передаётся экспортёру и больше не меняется.
+ */
+final class Trace {
+    private final long traceIdHigh;
+    private final long traceIdLow;
+    private final long remoteParentId;
+    private final long epochNanos;
+    private final long startNanos;
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private Span current;
+    private int droppedSpans;
+
+    Trace(long traceIdHigh, long traceIdLow, long remoteParentId, int maxSpans) {
+        Instant now = Instant.now();
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.remoteParentId = remoteParentId;
+        this.epochNanos = now.getEpochSecond() * 1_000_000_000L + now.getNano();
+        this.startNanos = System.nanoTime();
+        this.maxSpans = maxSpans;
+    }
+
+    static Trace random(int maxSpans) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return new Trace(random.nextLong(), nonZero(random.nextLong()), 0, maxSpans);
+    }
+
+    Span start(String name, SpanKind kind) {
+        if (spans.size() >= maxSpans) {
+            droppedSpans++;
+            return Span.NOOP;
+        }
+        Span span = new Span(this, nonZero(ThreadLocalRandom.current().nextLong()), current, name, kind,
+                System.nanoTime());
+        spans.add(span);
+        current = span;
+        return span;
+    }
+
+    void end(Span span, long nanos) {
+        if (span.isEnded()) {
+            return;
+        }
+        for (Span open = current; open != null && open != span; open = open.getParent()) {
+            open.endAt(nanos);
+        }
+        span.endAt(nanos);
+        current = span.getParent();
+    }
+
+    Span current() {
+        return current;
+    }
+
+    List<Span> getSpans() {
+        return spans;
+    }
+
+    int getDroppedSpans() {
+        return droppedSpans;
+    }
+
+    long getTraceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long getTraceIdLow() {
+        return traceIdLow;
+    }
+
+    long getRemoteParentId() {
+        return remoteParentId;
+    }
+
+    /**
+     * Время по часам системы: начало трассы плюс прошедшее по монотонным часам.
+     */
+    long toEpochNanos(long nanoTime) {
+        return epochNanos + (nanoTime - startNanos);
+    }
+
+    private static long nonZero(long id) {
+        return id == 0 ? 1 : id;
+    }
+}
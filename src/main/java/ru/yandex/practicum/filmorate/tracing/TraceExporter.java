@@ -0,0 +1,283 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.TracingProperties;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Пишет трассы в файлы OTLP/JSON: одна строка — один ExportTraceServiceRequest с одной трассой, как у
+ * файлового экспортёра OpenTelemetry Collector. Запись идёт в отдельном потоке; текущий файл
+ * {@code traces.jsonl} по достижении {@code maxFileBytes} сдвигается в {@code traces.1.jsonl} и далее,
+ * самый старый удаляется.
+ */
+@Slf4j
+@Component
+public class TraceExporter {
+    static final String CURRENT_FILE = "traces.jsonl";
+    private static final String SERVICE_NAME = "filmorate";
+    private static final String SCOPE_NAME = "ru.yandex.practicum.filmorate.tracing";
+    private static final int STATUS_ERROR = 2;
+    private static final int BATCH_SIZE = 64;
+    private static final long POLL_INTERVAL_MS = 200;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final BlockingQueue<Trace> queue;
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int maxFiles;
+    private final LongAdder exported = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private OutputStream out;
+    private long fileBytes;
+
+    public TraceExporter(TracingProperties properties, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueSize());
+        this.directory = properties.getDirectory().isEmpty()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "filmorate-traces")
+                : Path.of(properties.getDirectory());
+        this.maxFileBytes = properties.getMaxFileBytes();
+        this.maxFiles = Math.max(1, properties.getMaxFiles());
+        FunctionCounter.builder("filmorate.tracing.traces", exported, LongAdder::sum)
+                .tag("result", "exported")
+                .description("Трассы, записанные в файлы или отброшенные при переполнении очереди и ошибках записи")
+                .register(meterRegistry);
+        FunctionCounter.builder("filmorate.tracing.traces", dropped, LongAdder::sum)
+                .tag("result", "dropped")
+                .description("Трассы, записанные в файлы или отброшенные при переполнении очереди и ошибках записи")
+                .register(meterRegistry);
+        this.writer = new Thread(this::writeLoop, "trace-exporter");
+        writer.setDaemon(true);
+        if (properties.isEnabled()) {
+            writer.start();
+            log.info("Трассы {}% запросов пишутся в каталог {}", properties.getSampleRate() * 100, directory);
+        }
+    }
+
+    /**
+     * Не блокирует поток запроса: если запись не успевает, трасса отбрасывается.
+     */
+    void export(Trace trace) {
+        if (!queue.offer(trace)) {
+            dropped.increment();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        running = false;
+        try {
+            writer.join(1_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    long getExported() {
+        return exported.sum();
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Поток не прерывается при остановке: прерывание закрыло бы FileChannel посреди записи. Вместо этого
+     * он опрашивает очередь с таймаутом и после остановки дописывает то, что в ней осталось.
+     */
+    private void writeLoop() {
+        List<Trace> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            while (running || !queue.isEmpty()) {
+                Trace trace = queue.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                if (trace == null) {
+                    continue;
+                }
+                batch.add(trace);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeFile();
+        }
+    }
+
+    private void write(List<Trace> traces) {
+        if (traces.isEmpty()) {
+            return;
+        }
+        int written = 0;
+        try {
+            for (Trace trace : traces) {
+                byte[] line = encode(trace);
+                if (out == null) {
+                    open();
+                } else if (fileBytes > 0 && fileBytes + line.length > maxFileBytes) {
+                    rotate();
+                }
+                out.write(line);
+                fileBytes += line.length;
+                written++;
+            }
+            out.flush();
+            exported.add(written);
+        } catch (IOException e) {
+            dropped.add(traces.size() - written);
+            exported.add(written);
+            log.warn("Не удалось записать трассы в {}: {}", directory, e.getMessage());
+            closeFile();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(CURRENT_FILE);
+        out = Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        fileBytes = Files.size(file);
+    }
+
+    private void rotate() throws IOException {
+        closeFile();
+        Files.deleteIfExists(rotatedFile(maxFiles - 1));
+        for (int i = maxFiles - 2; i >= 1; i--) {
+            Path file = rotatedFile(i);
+            if (Files.exists(file)) {
+                Files.move(file, rotatedFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Path current = directory.resolve(CURRENT_FILE);
+        if (maxFiles > 1) {
+            Files.move(current, rotatedFile(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(current);
+        }
+        open();
+    }
+
+    private Path rotatedFile(int index) {
+        return directory.resolve("traces." + index + ".jsonl");
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Не удалось закрыть файл трасс: {}", e.getMessage());
+        }
+        out = null;
+    }
+
+    private byte[] encode(Trace trace) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 * trace.getSpans().size());
+        try (JsonGenerator json = jsonFactory.createGenerator(bytes, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeArrayFieldStart("resourceSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("resource");
+            json.writeArrayFieldStart("attributes");
+            writeAttribute(json, "service.name", SERVICE_NAME);
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeArrayFieldStart("scopeSpans");
+            json.writeStartObject();
+            json.writeObjectFieldStart("scope");
+            json.writeStringField("name", SCOPE_NAME);
+            json.writeEndObject();
+            json.writeArrayFieldStart("spans");
+            String traceId = hex(trace.getTraceIdHigh()) + hex(trace.getTraceIdLow());
+            for (Span span : trace.getSpans()) {
+                writeSpan(json, trace, traceId, span);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+            json.writeEndArray();
+            json.writeEndObject();
+        }
+        bytes.write('\n');
+        return bytes.toByteArray();
+    }
+
+    private static void writeSpan(JsonGenerator json, Trace trace, String traceId, Span span) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("traceId", traceId);
+        json.writeStringField("spanId", hex(span.getSpanId()));
+        long parentId = span.getParent() != null ? span.getParent().getSpanId() : trace.getRemoteParentId();
+        if (parentId != 0) {
+            json.writeStringField("parentSpanId", hex(parentId));
+        }
+        json.writeStringField("name", span.getName());
+        json.writeNumberField("kind", span.getKind().getOtlpValue());
+        // 64-битные числа в OTLP/JSON передаются строками
+        json.writeStringField("startTimeUnixNano", Long.toString(trace.toEpochNanos(span.getStartNanos())));
+        json.writeStringField("endTimeUnixNano", Long.toString(trace.toEpochNanos(span.getEndNanos())));
+        if (!span.getAttributes().isEmpty()) {
+            json.writeArrayFieldStart("attributes");
+            for (Map.Entry<String, Object> attribute : span.getAttributes().entrySet()) {
+                writeAttribute(json, attribute.getKey(), attribute.getValue());
+            }
+            json.writeEndArray();
+        }
+        if (span.isError()) {
+            json.writeObjectFieldStart("status");
+            json.writeNumberField("code", STATUS_ERROR);
+            json.writeEndObject();
+        }
+        json.writeEndObject();
+    }
+
+    private static void writeAttribute(JsonGenerator json, String key, Object value) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("key", key);
+        json.writeObjectFieldStart("value");
+        if (value instanceof Long || value instanceof Integer) {
+            json.writeStringField("intValue", value.toString());
+        } else if (value instanceof Boolean bool) {
+            json.writeBooleanField("boolValue", bool);
+        } else if (value instanceof Double number) {
+            json.writeNumberField("doubleValue", number);
+        } else {
+            json.writeStringField("stringValue", value.toString());
+        }
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    private static String hex(long id) {
+        String digits = Long.toHexString(id);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
@@ -0,0 +1,103 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.config.TracingProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Сэмплированные трассы запросов. Решение о записи принимается один раз на входе запроса; в остальных
+ * запросах {@link #start} стоит одного обращения к ThreadLocal и возвращает {@link Span#NOOP}.
+ */
+@Component
+@RequiredArgsConstructor
+public class Tracer {
+    private static final int TRACEPARENT_LENGTH = 55;
+
+    private final TracingProperties properties;
+    private final TraceExporter exporter;
+    private final ThreadLocal<Trace> current = new ThreadLocal<>();
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Записывается ли трасса текущего запроса; позволяет не собирать имя участка в остальных запросах.
+     */
+    public boolean isRecording() {
+        return current.get() != null;
+    }
+
+    /**
+     * Открывает корневой участок, если запрос попал в выборку; иначе возвращает {@link Span#NOOP}.
+     *
+     * @param traceparent заголовок W3C traceparent или null
+     */
+    public Span startTrace(String name, String traceparent) {
+        if (!properties.isEnabled() || current.get() != null) {
+            return Span.NOOP;
+        }
+        Trace trace = newTrace(traceparent);
+        if (trace == null) {
+            return Span.NOOP;
+        }
+        current.set(trace);
+        return trace.start(name, SpanKind.SERVER);
+    }
+
+    /**
+     * Вложенный участок текущей трассы.
+     */
+    public Span start(String name) {
+        Trace trace = current.get();
+        return trace == null ? Span.NOOP : trace.start(name, SpanKind.INTERNAL);
+    }
+
+    public Span current() {
+        Trace trace = current.get();
+        Span span = trace == null ? null : trace.current();
+        return span == null ? Span.NOOP : span;
+    }
+
+    /**
+     * Закрывает корневой участок вместе с незакрытыми вложенными и отдаёт трассу на запись.
+     */
+    public void endTrace(Span root) {
+        Trace trace = current.get();
+        if (trace == null || root == Span.NOOP) {
+            return;
+        }
+        current.remove();
+        if (trace.getDroppedSpans() > 0) {
+            root.setAttribute("filmorate.trace.dropped_spans", trace.getDroppedSpans());
+        }
+        root.close();
+        exporter.export(trace);
+    }
+
+    /**
+     * Заголовок traceparent имеет вид {@code 00-<trace-id>-<parent-id>-<flags>}. Если клиент уже решил
+     * записывать трассу (флаг sampled), запрос записывается независимо от доли сэмплирования, и наоборот;
+     * без заголовка или с битым заголовком решение принимается по {@code sampleRate}.
+     */
+    private Trace newTrace(String traceparent) {
+        int maxSpans = properties.getMaxSpansPerTrace();
+        if (traceparent != null && traceparent.length() == TRACEPARENT_LENGTH && traceparent.startsWith("00-")
+                && traceparent.charAt(35) == '-' && traceparent.charAt(52) == '-') {
+            try {
+                long high = Long.parseUnsignedLong(traceparent, 3, 19, 16);
+                long low = Long.parseUnsignedLong(traceparent, 19, 35, 16);
+                long parentId = Long.parseUnsignedLong(traceparent, 36, 52, 16);
+                int flags = Integer.parseInt(traceparent, 53, 55, 16);
+                if ((high != 0 || low != 0) && parentId != 0) {
+                    return (flags & 1) != 0 ? new Trace(high, low, parentId, maxSpans) : null;
+                }
+            } catch (NumberFormatException ignore) {
+                // битый заголовок не мешает запросу, решаем сами
+            }
+        }
+        return ThreadLocalRandom.current().nextDouble() < properties.getSampleRate() ? Trace.random(maxSpans) : null;
+    }
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jakarta.servlet.Filter;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.util.function.SingletonSupplier;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import org.springframework.web.bind.annotation.RestController;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Расставляет участки трассы вокруг фильтра Logbook, контроллеров, {@link FilmService}, {@link UserService}
+ * и хранилищ. Трассировщик берётся лениво: постпроцессор создаётся раньше обычных бинов, и прямая
+ * зависимость подняла бы MeterRegistry экспортёра до того, как Spring Boot его настроит.
+ * Контроллеры с {@code @Validated} уже обёрнуты MethodValidationPostProcessor, и участки добавляются
+ * в ту же цепочку: до проверки параметров и после неё.
+ */
+@Component
+public class TracingBeanPostProcessor implements BeanPostProcessor {
+    static final String LOGBOOK_FILTER = "logbookFilter";
+    private static final Pointcut PUBLIC_METHODS = new StaticMethodMatcherPointcut() {
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    };
+
+    private final boolean enabled;
+    private final Supplier<Tracer> tracer;
+
+    public TracingBeanPostProcessor(Environment environment, ObjectProvider<Tracer> tracer) {
+        this.enabled = environment.getProperty("filmorate.tracing.enabled", Boolean.class, true);
+        this.tracer = SingletonSupplier.of(tracer::getObject);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (enabled && LOGBOOK_FILTER.equals(beanName) && bean instanceof FilterRegistrationBean<?> registration) {
+            Filter logbook = registration.getFilter();
+            ((FilterRegistrationBean<Filter>) registration).setFilter(new SpanFilter("logbook", logbook, tracer));
+            registration.setName(LOGBOOK_FILTER);
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled) {
+            return bean;
+        }
+        Class<?> type = AopUtils.getTargetClass(bean);
+        if (AnnotatedElementUtils.hasAnnotation(type, RestController.class)) {
+            return traceController(bean, type);
+        }
+        if (bean instanceof FilmService || bean instanceof UserService
+                || bean instanceof FilmStorage || bean instanceof UserStorage) {
+            // сервисы без интерфейсов проксируются через CGLIB, хранилища — по своим интерфейсам
+            ProxyFactory factory = new ProxyFactory(bean);
+            factory.addAdvisor(advisor(new MethodSpanInterceptor(type, tracer, false)));
+            return factory.getProxy(type.getClassLoader());
+        }
+        return bean;
+    }
+
+    private Object traceController(Object bean, Class<?> type) {
+        if (bean instanceof Advised advised && !advised.isFrozen()) {
+            boolean validated = Arrays.stream(advised.getAdvisors())
+                    .anyMatch(advisor -> advisor.getAdvice() instanceof MethodValidationInterceptor);
+            advised.addAdvisor(0, advisor(new MethodSpanInterceptor(type, tracer, validated)));
+            if (validated) {
+                advised.addAdvisor(advisor(new MethodSpanInterceptor.ValidationBoundary(tracer)));
+            }
+            return bean;
+        }
+        ProxyFactory factory = new ProxyFactory(bean);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(advisor(new MethodSpanInterceptor(type, tracer, false)));
+        return factory.getProxy(type.getClassLoader());
+    }
+
+    private static Advisor advisor(MethodInterceptor interceptor) {
+        return new DefaultPointcutAdvisor(PUBLIC_METHODS, interceptor);
+    }
+}
@@ -0,0 +1,61 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Самый внешний фильтр: решает, записывать ли запрос, и открывает корневой участок. Остальные фильтры,
+ * включая Logbook, работают внутри него, так что их время видно как разница между корнем и вложенными.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class TracingFilter extends OncePerRequestFilter {
+    static final String TRACEPARENT = "traceparent";
+
+    private final Tracer tracer;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !tracer.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Span root = tracer.startTrace(request.getMethod(), request.getHeader(TRACEPARENT));
+        if (root == Span.NOOP) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            root.recordError(e);
+            throw e;
+        } finally {
+            // шаблон пути известен только после маршрутизации; без него имя остаётся просто методом
+            if (request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String route) {
+                root.updateName(request.getMethod() + " " + route);
+                root.setAttribute("http.route", route);
+            }
+            root.setAttribute("http.request.method", request.getMethod())
+                    .setAttribute("url.path", request.getRequestURI())
+                    .setAttribute("http.response.status_code", response.getStatus());
+            if (response.getStatus() >= 500) {
+                root.markError();
+            }
+            tracer.endTrace(root);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class TracingWebConfig implements WebMvcConfigurer {
+    private final Tracer tracer;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (tracer.isEnabled()) {
+            registry.addInterceptor(new HandlerSpanInterceptor(tracer));
+        }
+    }
+}
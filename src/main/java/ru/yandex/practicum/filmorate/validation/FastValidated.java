@@ -0,0 +1,17 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Заменяет {@code @Valid} на теле запроса: тело проверяется {@link FastValidator}, а Hibernate Validator
+ * вызывается только для невалидных объектов.
+ */
+@Target({ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface FastValidated {
+}
@@ -0,0 +1,76 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+import ru.yandex.practicum.filmorate.tracing.Span;
+import ru.yandex.practicum.filmorate.tracing.Tracer;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Валидирует тела запросов, помеченные {@link FastValidated}, через {@link FastValidator} с группами
+ * из {@link Validated} на методе контроллера. Если быстрая проверка не прошла, тело валидируется
+ * Hibernate Validator, поэтому ответ с ошибкой остаётся прежним.
+ */
+@RestControllerAdvice
+@RequiredArgsConstructor
+public class FastValidationAdvice extends RequestBodyAdviceAdapter {
+    private final FastValidator fastValidator;
+    private final Validator validator;
+    private final Tracer tracer;
+    private final Map<Method, Class<?>[]> groupsByMethod = new ConcurrentHashMap<>();
+
+    @Override
+    public boolean supports(MethodParameter methodParameter, Type targetType,
+                            Class<? extends HttpMessageConverter<?>> converterType) {
+        return methodParameter.hasParameterAnnotation(FastValidated.class)
+                && fastValidator.supports(methodParameter.getParameterType());
+    }
+
+    @Override
+    public Object afterBodyRead(Object body, HttpInputMessage inputMessage, MethodParameter parameter, Type targetType,
+                                Class<? extends HttpMessageConverter<?>> converterType) {
+        Class<?>[] groups = groupsByMethod.computeIfAbsent(parameter.getMethod(), FastValidationAdvice::groups);
+        try (Span span = tracer.start("validation.body")) {
+            if (!fastValidator.isValid(body, groups)) {
+                span.setAttribute("filmorate.validation.fallback", true);
+                validateWithHibernate(body, parameter, groups);
+            }
+        }
+        return body;
+    }
+
+    /**
+     * Сообщение собирается так же, как у исключения MethodValidationPostProcessor: путь каждого нарушения
+     * начинается с имени метода и параметра.
+     */
+    private void validateWithHibernate(Object body, MethodParameter parameter, Class<?>[] groups) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(body, groups);
+        if (!violations.isEmpty()) {
+            String prefix = parameter.getMethod().getName() + "." + parameter.getParameterName() + ".";
+            String message = violations.stream()
+                    .map(violation -> prefix + violation.getPropertyPath() + ": " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+            throw new ConstraintViolationException(message, violations);
+        }
+    }
+
+    private static Class<?>[] groups(Method method) {
+        Validated validated = AnnotatedElementUtils.findMergedAnnotation(method, Validated.class);
+        return validated == null ? new Class<?>[0] : validated.value();
+    }
+}
@@ -0,0 +1,175 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.groups.Default;
+import org.springframework.stereotype.Component;
+import ru.yandex.practicum.filmorate.annotation.ReleaseDateValidator;
+import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.net.IDN;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Заранее собранные проверки ограничений {@link Film} и {@link User} по группам валидации.
+ * Повторяет семантику Hibernate Validator для аннотаций на моделях без рефлексии и без аллокаций
+ * (кроме проверки имейла, которой нужны регулярные выражения). Отвечает только
+ * «валидно/невалидно»: для невалидных объектов подробности строит Hibernate, см. {@link FastValidationAdvice}.
+ */
+@Component
+public class FastValidator {
+    private static final int DESCRIPTION_MAX_LENGTH = 200;
+    private static final int EMAIL_LOCAL_PART_MAX_LENGTH = 64;
+    private static final int EMAIL_DOMAIN_MAX_LENGTH = 255;
+    private static final String LOCAL_PART_ATOM = "[a-z0-9!#$%&'*+/=?^_`{|}~\u0080-\uFFFF-]";
+    private static final String LOCAL_PART_INSIDE_QUOTES_ATOM =
+            "(?:[a-z0-9!#$%&'*.(),<>\\[\\]:;  @+/=?^_`{|}~\u0080-\uFFFF-]|\\\\\\\\|\\\\\\\")";
+    private static final String LOCAL_PART_WORD = "(?:" + LOCAL_PART_ATOM + "+|\"" + LOCAL_PART_INSIDE_QUOTES_ATOM
+            + "+\")";
+    private static final Pattern EMAIL_LOCAL_PART = Pattern.compile(
+            LOCAL_PART_WORD + "(?:\\." + LOCAL_PART_WORD + ")*", Pattern.CASE_INSENSITIVE);
+    private static final String DOMAIN_CHARS_WITHOUT_DASH = "[a-z\u0080-\uFFFF0-9!#$%&'*+/=?^_`{|}~]";
+    private static final String DOMAIN_LABEL = "(?:" + DOMAIN_CHARS_WITHOUT_DASH + "-*)*" + DOMAIN_CHARS_WITHOUT_DASH
+            + "+";
+    private static final String DOMAIN = DOMAIN_LABEL + "+(?:\\." + DOMAIN_LABEL + "+)*";
+    private static final String IP_DOMAIN = "[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}\\.[0-9]{1,3}";
+    private static final String IPV4_OCTET = "(?:25[0-5]|(?:2[0-4]|1{0,1}[0-9]){0,1}[0-9])";
+    private static final String IPV4_TAIL = "(?:" + IPV4_OCTET + "\\.){3,3}" + IPV4_OCTET;
+    private static final String IP_V6_DOMAIN = "(?:(?:[0-9a-fA-F]{1,4}:){7,7}[0-9a-fA-F]{1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,7}:"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,6}:[0-9a-fA-F]{1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,5}(?::[0-9a-fA-F]{1,4}){1,2}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,4}(?::[0-9a-fA-F]{1,4}){1,3}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,3}(?::[0-9a-fA-F]{1,4}){1,4}"
+            + "|(?:[0-9a-fA-F]{1,4}:){1,2}(?::[0-9a-fA-F]{1,4}){1,5}"
+            + "|[0-9a-fA-F]{1,4}:(?:(?::[0-9a-fA-F]{1,4}){1,6})"
+            + "|:(?:(?::[0-9a-fA-F]{1,4}){1,7}|:)"
+            + "|fe80:(?::[0-9a-fA-F]{0,4}){0,4}%[0-9a-zA-Z]{1,}"
+            + "|::(?:ffff(:0{1,4}){0,1}:){0,1}" + IPV4_TAIL
+            + "|(?:[0-9a-fA-F]{1,4}:){1,4}:" + IPV4_TAIL + ")";
+    private static final Pattern EMAIL_DOMAIN = Pattern.compile(
+            DOMAIN + "|\\[" + IP_DOMAIN + "\\]|\\[IPv6:" + IP_V6_DOMAIN + "\\]", Pattern.CASE_INSENSITIVE);
+
+    private final Map<Class<?>, Map<Class<?>, Predicate<Object>>> rules = Map.of(
+            Film.class, Map.of(
+                    Default.class, target -> true,
+                    Marker.OnCreate.class, target -> isValidOnCreate((Film) target),
+                    Marker.OnUpdate.class, target -> ((Film) target).getId() != null),
+            User.class, Map.of(
+                    Default.class, target -> true,
+                    Marker.OnCreate.class, target -> isValidOnCreate((User) target),
+                    Marker.OnUpdate.class, target -> ((User) target).getId() != null));
+
+    public boolean supports(Class<?> type) {
+        return rules.containsKey(type);
+    }
+
+    /**
+     * @return {@code true}, если объект проходит все ограничения указанных групп; для неизвестного
+     * типа или группы возвращает {@code false}, чтобы решение принял Hibernate Validator
+     */
+    public boolean isValid(Object target, Class<?>... groups) {
+        Map<Class<?>, Predicate<Object>> typeRules = rules.get(target.getClass());
+        if (typeRules == null) {
+            return false;
+        }
+        if (groups.length == 0) {
+            return typeRules.get(Default.class).test(target);
+        }
+        for (Class<?> group : groups) {
+            Predicate<Object> rule = typeRules.get(group);
+            if (rule == null || !rule.test(target)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isValidOnCreate(Film film) {
+        return isNotBlank(film.getName())
+                && (film.getDescription() == null || film.getDescription().length() <= DESCRIPTION_MAX_LENGTH)
+                && ReleaseDateValidator.isValid(film.getReleaseDate())
+                && (film.getDuration() == null || film.getDuration() > 0);
+    }
+
+    private boolean isValidOnCreate(User user) {
+        return isNotBlank(user.getEmail())
+                && isEmail(user.getEmail())
+                && isNotBlank(user.getLogin())
+                && hasNoWhitespace(user.getLogin())
+                && (user.getBirthday() == null || user.getBirthday().isBefore(LocalDate.now()));
+    }
+
+    /**
+     * {@code @NotBlank}: Hibernate сравнивает длину после {@link String#trim()}, то есть строка
+     * должна содержать хотя бы один символ больше пробела.
+     */
+    static boolean isNotBlank(String value) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@code @Email} без атрибутов — копия проверки Hibernate Validator 8.0 (AbstractEmailValidator и
+     * DomainNameUtil), чтобы не зависеть от её внутренних классов. Расхождение с Hibernate ловит
+     * FastValidatorTest. {@code null} и пустая строка валидны.
+     */
+    static boolean isEmail(String value) {
+        if (value == null || value.isEmpty()) {
+            return true;
+        }
+        int at = value.lastIndexOf('@');
+        if (at < 0) {
+            return false;
+        }
+        String localPart = value.substring(0, at);
+        String domain = value.substring(at + 1);
+        if (localPart.length() > EMAIL_LOCAL_PART_MAX_LENGTH || !EMAIL_LOCAL_PART.matcher(localPart).matches()) {
+            return false;
+        }
+        if (domain.endsWith(".")) {
+            return false;
+        }
+        try {
+            if (IDN.toASCII(domain).length() > EMAIL_DOMAIN_MAX_LENGTH) {
+                return false;
+            }
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return EMAIL_DOMAIN.matcher(domain).matches();
+    }
+
+    /**
+     * {@code @Pattern(regexp = "^\\S+$")}: непустая строка без символов класса {@code \s}.
+     * {@code null} считается валидным, как и в PatternValidator.
+     */
+    static boolean hasNoWhitespace(String value) {
+        if (value == null) {
+            return true;
+        }
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case ' ', '\t', '\n', '\u000B', '\f', '\r' -> {
+                    return false;
+                }
+                default -> {
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,98 @@
+package ru.yandex.practicum.filmorate.analytics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.AnalyticsProperties;
+import ru.yandex.practicum.filmorate.exception.AnalyticsNotReadyException;
+import ru.yandex.practicum.filmorate.model.AgeBracketLikers;
+import ru.yandex.practicum.filmorate.model.AnalyticsReport;
+import ru.yandex.practicum.filmorate.model.DecadeDuration;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.YearLikes;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AnalyticsServiceTest {
+
+    private final InMemoryFilmStorage films = new InMemoryFilmStorage();
+    private final InMemoryUserStorage users = new InMemoryUserStorage();
+    private AnalyticsService analyticsService;
+
+    @BeforeEach
+    public void setUp() {
+        AnalyticsProperties properties = new AnalyticsProperties();
+        properties.setEnabled(false);
+        properties.setParallelism(2);
+        // по одному фильму на подзадачу, чтобы проверить и слияние аккумуляторов
+        properties.setSplitThreshold(1);
+        analyticsService = new AnalyticsService(films, users, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        analyticsService.close();
+    }
+
+    @Test
+    public void getLikesByYear_whenNotRefreshed_throwsNotReady() {
+        assertThrows(AnalyticsNotReadyException.class, analyticsService::getLikesByYear);
+    }
+
+    @Test
+    public void refresh_aggregatesLikesAndDurations() {
+        long teen = user(LocalDate.now().minusYears(16));
+        long adult = user(LocalDate.now().minusYears(30));
+        user(LocalDate.now().minusYears(70));
+        film(LocalDate.of(1994, 5, 1), 120, teen, adult);
+        film(LocalDate.of(1999, 3, 31), 140, adult);
+        film(LocalDate.of(1999, 7, 1), null);
+        film(LocalDate.of(2001, 1, 1), 90, adult);
+
+        analyticsService.refresh();
+
+        AnalyticsReport<YearLikes> byYear = analyticsService.getLikesByYear();
+        assertEquals(4, byYear.films());
+        assertEquals(3, byYear.users());
+        assertEquals(List.of(new YearLikes(1994, 1, 2), new YearLikes(1999, 2, 1), new YearLikes(2001, 1, 1)),
+                byYear.items());
+        assertEquals(List.of(new DecadeDuration(1990, 2, 130.0), new DecadeDuration(2000, 1, 90.0)),
+                analyticsService.getDurationByDecade().items());
+        List<AgeBracketLikers> byAge = analyticsService.getLikersByAge().items();
+        assertEquals(new AgeBracketLikers("0-17", 1, 1, 1), byAge.get(0));
+        assertEquals(new AgeBracketLikers("25-34", 1, 1, 3), byAge.get(2));
+        assertEquals(new AgeBracketLikers("65+", 1, 0, 0), byAge.get(6));
+    }
+
+    @Test
+    public void refresh_whenCatalogueChanges_replacesReport() {
+        long userId = user(LocalDate.of(1990, 1, 1));
+        film(LocalDate.of(2010, 1, 1), 100, userId);
+        analyticsService.refresh();
+
+        film(LocalDate.of(2010, 6, 1), 100, userId);
+        assertEquals(1, analyticsService.getLikesByYear().films());
+
+        analyticsService.refresh();
+        assertEquals(List.of(new YearLikes(2010, 2, 2)), analyticsService.getLikesByYear().items());
+    }
+
+    private long user(LocalDate birthday) {
+        long n = users.getAll().size();
+        return users.create(new User(null, n + "@mail.ru", "login" + n, "Имя", birthday)).getId();
+    }
+
+    private void film(LocalDate releaseDate, Integer duration, Long... likers) {
+        Film film = new Film(null, "Фильм", "Описание", releaseDate, duration);
+        film.getLikes().addAll(Set.of(likers));
+        films.create(film);
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Процессорное время на один ответ /films/popular: без сжатия, со сжатием на каждый запрос
+ * и при отдаче заранее сжатых байтов из кэша ответов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CompressionBenchmark {
+
+    @Param({"10", "100"})
+    private int count;
+
+    private List<Film> popular;
+    private ObjectMapper json;
+    private byte[] cachedGzip;
+
+    @Setup
+    public void setUp() throws IOException {
+        json = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        popular = SerializationBenchmark.generateFilms(count, 100_000);
+        byte[] body = json.writeValueAsBytes(popular);
+        cachedGzip = gzip(body);
+        System.out.printf("%n[count=%d] json: %d байт, gzip: %d байт%n", count, body.length, cachedGzip.length);
+    }
+
+    @Benchmark
+    public byte[] compressionOff() throws IOException {
+        return json.writeValueAsBytes(popular);
+    }
+
+    @Benchmark
+    public byte[] compressionOn() throws IOException {
+        return gzip(json.writeValueAsBytes(popular));
+    }
+
+    @Benchmark
+    public byte[] cachedCompressed() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(cachedGzip.length);
+        out.writeBytes(cachedGzip);
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(body);
+        }
+        return out.toByteArray();
+    }
+}
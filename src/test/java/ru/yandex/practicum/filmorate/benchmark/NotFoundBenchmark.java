@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.handler.NotFoundBodies;
+import ru.yandex.practicum.filmorate.model.ErrorResponse;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поток 404 на /films/{id}: прежний путь (String.format, исключение со стектрейсом, сериализация
+ * {@link ErrorResponse}) против исключения без стектрейса и заранее сериализованного тела.
+ * Логирование не измеряется: в новом пути оно почти всегда подавлено.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class NotFoundBenchmark {
+    private ObjectMapper objectMapper;
+    private NotFoundBodies notFoundBodies;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        notFoundBodies = new NotFoundBodies(objectMapper);
+    }
+
+    @Benchmark
+    public byte[] legacy() throws JsonProcessingException {
+        try {
+            throw new LegacyNotFoundException(String.format(NotFoundException.FILM_TEMPLATE, nextId()));
+        } catch (LegacyNotFoundException e) {
+            return objectMapper.writeValueAsBytes(new ErrorResponse("Ошибка 404", e.getMessage()));
+        }
+    }
+
+    @Benchmark
+    public byte[] cheap() throws JsonProcessingException {
+        try {
+            throw NotFoundException.film(nextId());
+        } catch (NotFoundException e) {
+            return notFoundBodies.render(e);
+        }
+    }
+
+    private static long nextId() {
+        return ThreadLocalRandom.current().nextLong(1_000_000, 2_000_000);
+    }
+
+    private static class LegacyNotFoundException extends RuntimeException {
+        LegacyNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapFilmStorage;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Что хранение вне кучи даёт сборщику: один и тот же каталог в heap, cow и offheap. {@code fullGc} —
+ * пауза полной сборки при живом каталоге (её цена растёт с числом живых объектов), {@code read} —
+ * чтение с обновлением, при котором offheap собирает объекты заново; с {@code -prof gc} видны скорость
+ * аллокаций и время сборок. Занятая куча и direct-память после наполнения печатаются в начале прогона.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-XX:+UseG1GC"})
+public class OffHeapGcBenchmark {
+    private static final int FILMS = 500_000;
+    private static final int USERS = 100_000;
+    private static final int LIKES_PER_FILM = 5;
+
+    @Param({"heap", "cow", "offheap"})
+    private String mode;
+
+    private FilmStorage films;
+
+    @Setup
+    public void setUp() {
+        films = switch (mode) {
+            case "heap" -> new InMemoryFilmStorage();
+            case "cow" -> new CopyOnWriteFilmStorage();
+            case "offheap" -> new OffHeapFilmStorage(new StorageProperties());
+            default -> throw new IllegalArgumentException(mode);
+        };
+        for (int i = 0; i < FILMS; i++) {
+            Film film = new Film(null, "Фильм " + i, "Описание фильма " + i, LocalDate.of(2000, 1, 1), 120);
+            for (int like = 0; like < LIKES_PER_FILM; like++) {
+                film.getLikes().add(1 + (i * 31L + like * 7_919L) % USERS);
+            }
+            films.create(film);
+        }
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        long direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+        System.out.printf("%n%s: куча после сборки %d МБ, direct-память %d МБ%n",
+                mode, heap >> 20, direct >> 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 10)
+    public void fullGc() {
+        System.gc();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    @Warmup(iterations = 3, time = 2)
+    @Measurement(iterations = 5, time = 2)
+    public Object read() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = 1 + random.nextInt(FILMS);
+        if (random.nextInt(20) == 0) {
+            long userId = 1 + random.nextInt(USERS);
+            return films.addLike(id, userId) || films.removeLike(id, userId);
+        }
+        return films.findById(id);
+    }
+}
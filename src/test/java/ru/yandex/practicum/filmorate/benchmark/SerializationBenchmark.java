@@ -0,0 +1,100 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнивает JSON, CBOR и Smile на списке фильмов с лайками, похожем на ответ /films.
+ * Размеры полученных ответов печатаются один раз перед замерами.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"100", "1000"})
+    private int filmCount;
+
+    private List<Film> films;
+    private ObjectMapper json;
+    private ObjectMapper cbor;
+    private ObjectMapper smile;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        json = JsonMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        cbor = CBORMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        smile = SmileMapper.builder()
+                .addModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        films = generateFilms(filmCount, 100_000);
+        System.out.printf("%n[%d фильмов] json: %d байт, cbor: %d байт, smile: %d байт%n", filmCount,
+                json.writeValueAsBytes(films).length,
+                cbor.writeValueAsBytes(films).length,
+                smile.writeValueAsBytes(films).length);
+    }
+
+    @Benchmark
+    public byte[] json() throws JsonProcessingException {
+        return json.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws JsonProcessingException {
+        return cbor.writeValueAsBytes(films);
+    }
+
+    @Benchmark
+    public byte[] smile() throws JsonProcessingException {
+        return smile.writeValueAsBytes(films);
+    }
+
+    static List<Film> generateFilms(int count, int userCount) {
+        Random random = new Random(42);
+        List<Film> generated = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Film film = new Film(id, "Фильм " + id, "Описание фильма номер " + id + " с сюжетом средней длины",
+                    LocalDate.of(1950, 1, 1).plusDays(random.nextInt(25_000)), 80 + random.nextInt(100));
+            // число лайков распределено неравномерно: немного хитов и длинный хвост
+            int likes = (int) (5_000 / Math.pow(id, 0.8));
+            for (int i = 0; i < likes; i++) {
+                film.getLikes().add(1L + random.nextInt(userCount));
+            }
+            generated.add(film);
+        }
+        return generated;
+    }
+}
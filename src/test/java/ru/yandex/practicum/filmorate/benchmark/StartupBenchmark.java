@@ -0,0 +1,112 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время от запуска JVM до первого успешного {@code GET /films}: обычный fat jar против сборки профиля
+ * {@code fast-startup} (AOT, архив AppCDS, ленивая инициализация). Запускается профилем {@code fast-startup}
+ * с {@code -Dstartup.benchmark.skip=false}.
+ * <p>
+ * Аргументы: число запусков, путь к fat jar, путь к jar профиля fast-startup, путь к архиву CDS.
+ */
+public class StartupBenchmark {
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final HttpClient CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.parseInt(args[0]);
+        String baselineJar = args[1];
+        String fastJar = args[2];
+        String archive = args[3];
+
+        long[] baseline = measure(runs, List.of("-jar", baselineJar));
+        long[] fast = measure(runs, List.of(
+                "-XX:SharedArchiveFile=" + archive,
+                "-Dspring.aot.enabled=true",
+                "-Dspring.profiles.active=fast-startup",
+                "-jar", fastJar));
+
+        System.out.printf("%nДо первого успешного GET /films, мс (%d запусков)%n", runs);
+        print("baseline", baseline);
+        print("fast-startup", fast);
+        System.out.printf("Ускорение по медиане: %.2fx%n", (double) median(baseline) / median(fast));
+    }
+
+    private static long[] measure(int runs, List<String> arguments) throws Exception {
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = startOnce(arguments);
+        }
+        return millis;
+    }
+
+    private static long startOnce(List<String> arguments) throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(arguments);
+        command.add("--server.port=" + port);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/films"))
+                .timeout(Duration.ofSeconds(1))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Приложение завершилось с кодом " + process.exitValue());
+                }
+                try {
+                    if (CLIENT.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException ignore) {
+                    // сервер ещё не слушает порт
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("Приложение не ответило за " + TIMEOUT);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static void print(String name, long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-13s min %5d  median %5d  max %5d%n", name, sorted[0], median(millis),
+                sorted[sorted.length - 1]);
+    }
+
+    private static long median(long[] millis) {
+        long[] sorted = millis.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
@@ -0,0 +1,88 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapFilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapUserStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность записей из нескольких потоков: хранилище под блокировкой (offheap,
+ * ReadWriteLock) и copy-on-write с заменой снимка внутри {@code compute}.
+ * Лайки ставятся и снимаются, чтобы размер множеств не рос за время измерения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class StorageWriteBenchmark {
+    private static final int FILMS = 1_000;
+    private static final int USERS = 10_000;
+
+    @Param({"offheap", "cow"})
+    private String mode;
+
+    private FilmStorage films;
+    private UserStorage users;
+
+    @Setup
+    public void setUp() {
+        StorageProperties properties = new StorageProperties();
+        switch (mode) {
+            case "offheap" -> {
+                films = new OffHeapFilmStorage(properties);
+                users = new OffHeapUserStorage(properties);
+            }
+            case "cow" -> {
+                films = new CopyOnWriteFilmStorage();
+                users = new CopyOnWriteUserStorage();
+            }
+            default -> throw new IllegalArgumentException(mode);
+        }
+        for (int i = 0; i < FILMS; i++) {
+            films.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        for (int i = 0; i < USERS; i++) {
+            users.create(new User(null, i + "@mail.ru", "login" + i, "Имя", LocalDate.of(1990, 1, 1)));
+        }
+    }
+
+    @Benchmark
+    public boolean toggleLike() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long filmId = 1 + random.nextInt(FILMS);
+        long userId = 1 + random.nextInt(USERS);
+        return films.addLike(filmId, userId) || films.removeLike(filmId, userId);
+    }
+
+    @Benchmark
+    public boolean toggleFriendship() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long userId = 1 + random.nextInt(USERS);
+        long friendId = 1 + random.nextInt(USERS);
+        return users.addFriendship(userId, friendId) || users.removeFriendship(userId, friendId);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.tiered.TieredFilmStorage;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Чтения по id с распределением Ципфа (s = 0.99, как у популярности каталогов): всё в куче (cow)
+ * против двухуровневого хранилища с горячим уровнем на 1, 5 и 20% каталога. Доля попаданий
+ * печатается после прогона; каждое 20-е обращение ставит или снимает лайк, чтобы на диск шли и записи,
+ * а размер фильмов не рос за время измерения.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class TieredStorageBenchmark {
+    private static final int FILMS = 100_000;
+    private static final int USERS = 100;
+    private static final double SKEW = 0.99;
+    private static final String DESCRIPTION = "Описание фильма ".repeat(12);
+
+    @Param({"cow", "tiered-1", "tiered-5", "tiered-20"})
+    private String mode;
+
+    private FilmStorage films;
+    private double[] cumulative;
+
+    @Setup
+    public void setUp() {
+        if ("cow".equals(mode)) {
+            films = new CopyOnWriteFilmStorage();
+        } else {
+            int hotPercent = Integer.parseInt(mode.substring("tiered-".length()));
+            StorageProperties properties = new StorageProperties();
+            // вес фильма с таким описанием без лайков — около 500 байт
+            properties.getTiered().setHotBytes(500L * FILMS * hotPercent / 100);
+            films = new TieredFilmStorage(properties, new SimpleMeterRegistry());
+        }
+        for (int i = 0; i < FILMS; i++) {
+            films.create(new Film(null, "Фильм " + i, DESCRIPTION, LocalDate.of(2000, 1, 1), 120));
+        }
+        cumulative = new double[FILMS];
+        double sum = 0;
+        for (int rank = 1; rank <= FILMS; rank++) {
+            sum += 1 / Math.pow(rank, SKEW);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < FILMS; i++) {
+            cumulative[i] /= sum;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (films instanceof TieredFilmStorage tiered) {
+            long hits = tiered.getHits();
+            long total = hits + tiered.getMisses();
+            System.out.printf("%n%s: попаданий в горячий уровень %.1f%%%n", mode, 100.0 * hits / total);
+            tiered.close();
+        }
+    }
+
+    @Benchmark
+    public Object zipfianAccess() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id = nextId(random);
+        if (random.nextInt(20) == 0) {
+            long userId = 1 + random.nextInt(USERS);
+            return films.addLike(id, userId) || films.removeLike(id, userId);
+        }
+        return films.findById(id);
+    }
+
+    private long nextId(ThreadLocalRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : Math.min(-index - 1, FILMS - 1);
+        // ранги разбросаны по id, чтобы популярные фильмы не шли подряд в сегментах
+        return 1 + (rank * 7_919L) % FILMS;
+    }
+}
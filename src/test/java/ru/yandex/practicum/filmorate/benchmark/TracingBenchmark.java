@@ -0,0 +1,102 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.FileSystemUtils;
+import ru.yandex.practicum.filmorate.config.TracingProperties;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.tracing.Span;
+import ru.yandex.practicum.filmorate.tracing.TraceExporter;
+import ru.yandex.practicum.filmorate.tracing.Tracer;
+import ru.yandex.practicum.filmorate.tracing.TracingBeanPostProcessor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Цена трассировки на самом дешёвом пути — чтении фильма по id через сервис и хранилище. {@code off} —
+ * без прокси и без трассировщика; {@code 0} — прокси и проверка выборки, но ни одна трасса не пишется;
+ * {@code 0.01} — рабочая доля сэмплирования; {@code 1} — каждая трасса собирается и уходит экспортёру.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TracingBenchmark {
+    private static final int FILMS = 10_000;
+
+    @Param({"off", "0", "0.01", "1"})
+    private String sampleRate;
+
+    private Path directory;
+    private TraceExporter exporter;
+    private Tracer tracer;
+    private FilmService filmService;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-traces-benchmark");
+        TracingProperties properties = new TracingProperties();
+        properties.setEnabled(!"off".equals(sampleRate));
+        properties.setSampleRate("off".equals(sampleRate) ? 0 : Double.parseDouble(sampleRate));
+        properties.setDirectory(directory.toString());
+        exporter = new TraceExporter(properties, new SimpleMeterRegistry());
+        tracer = new Tracer(properties, exporter);
+
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("tracer", tracer);
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getSystemProperties().put("filmorate.tracing.enabled", String.valueOf(properties.isEnabled()));
+        TracingBeanPostProcessor postProcessor =
+                new TracingBeanPostProcessor(environment, beanFactory.getBeanProvider(Tracer.class));
+
+        FilmStorage films = (FilmStorage) postProcessor.postProcessAfterInitialization(
+                new CopyOnWriteFilmStorage(), "filmStorage");
+        for (int i = 0; i < FILMS; i++) {
+            films.create(new Film(null, "Фильм " + i, "Описание фильма", LocalDate.of(2000, 1, 1), 120));
+        }
+        filmService = (FilmService) postProcessor.postProcessAfterInitialization(
+                new FilmService(films, new CopyOnWriteUserStorage(), new ChangePublisher(event -> {
+                })), "filmService");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        exporter.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public Film getById() {
+        Span root = tracer.startTrace("GET", null);
+        try {
+            return filmService.getById(1 + ThreadLocalRandom.current().nextInt(FILMS));
+        } finally {
+            tracer.endTrace(root);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package ru.yandex.practicum.filmorate.benchmark;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.validation.FastValidator;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Валидация тела POST /films и POST /users в группе OnCreate: Hibernate Validator против {@link FastValidator}.
+ * Запускать с {@code -prof gc}, чтобы увидеть аллокации на операцию.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValidationBenchmark {
+    private static final Class<?>[] ON_CREATE = {Marker.OnCreate.class};
+
+    private ValidatorFactory factory;
+    private Validator hibernate;
+    private FastValidator fast;
+    private Film film;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        factory = Validation.buildDefaultValidatorFactory();
+        hibernate = factory.getValidator();
+        fast = new FastValidator();
+        film = new Film(null, "Фильм", "Описание фильма", LocalDate.of(2000, 1, 1), 120);
+        user = new User(null, "mail@mail.ru", "login", "Имя", LocalDate.of(1990, 1, 1));
+    }
+
+    @TearDown
+    public void tearDown() {
+        factory.close();
+    }
+
+    @Benchmark
+    public boolean filmHibernate() {
+        return hibernate.validate(film, ON_CREATE).isEmpty();
+    }
+
+    @Benchmark
+    public boolean filmFast() {
+        return fast.isValid(film, ON_CREATE);
+    }
+
+    @Benchmark
+    public boolean userHibernate() {
+        return hibernate.validate(user, ON_CREATE).isEmpty();
+    }
+
+    @Benchmark
+    public boolean userFast() {
+        return fast.isValid(user, ON_CREATE);
+    }
+}
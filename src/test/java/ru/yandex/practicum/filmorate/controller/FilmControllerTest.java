@@ -2,7 +2,9 @@ package ru.yandex.practicum.filmorate.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
 import ru.yandex.practicum.filmorate.model.Film;
 import ru.yandex.practicum.filmorate.model.User;
 import ru.yandex.practicum.filmorate.service.FilmService;
@@ -12,10 +14,13 @@ import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
 import ru.yandex.practicum.filmorate.storage.user.UserStorage;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -30,7 +35,7 @@ class FilmControllerTest {
     public void setUp() {
         userStorage = new InMemoryUserStorage();
         filmStorage = new InMemoryFilmStorage();
-        filmService = new FilmService(filmStorage, userStorage);
+        filmService = new FilmService(filmStorage, userStorage, new ChangePublisher(event -> { }));
         filmController = new FilmController(filmService);
     }
 
@@ -239,4 +244,75 @@ class FilmControllerTest {
             filmController.removeLike(createdFilm.getId(), notPresentId);
         });
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getByIds_returnsFilmsInRequestOrderAndMissingIds() {
+        var first = filmController.create(new Film(0L, "first", "first film",
+                LocalDate.parse("1967-03-25"), 100));
+        var second = filmController.create(new Film(0L, "second", "second film",
+                LocalDate.parse("1970-01-01"), 90));
+        var notPresentId = 99L;
+
+        var result = filmController.getByIds(List.of(second.getId(), notPresentId, first.getId(), second.getId()));
+
+        assertEquals(List.of(second, first), result.items());
+        assertEquals(List.of(notPresentId), result.missing());
+    }
+
+    @Test
+    public void getLikes_returnsSortedPagesWithCursor() {
+        var createdFilm = filmController.create(new Film(0L, "nisi eiusmod", "adipisicing",
+                LocalDate.parse("1967-03-25"), 100));
+        List<Long> userIds = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            userIds.add(userStorage.create(new User(0L, "user" + i + "@mail.com", "user" + i, "User " + i,
+                    LocalDate.parse("1967-03-25"))).getId());
+        }
+        for (int index : new int[]{4, 1, 3, 0, 2}) {
+            filmController.addLike(createdFilm.getId(), userIds.get(index));
+        }
+
+        var firstPage = filmController.getLikes(createdFilm.getId(), 0, 2);
+        var secondPage = filmController.getLikes(createdFilm.getId(), firstPage.next(), 2);
+        var lastPage = filmController.getLikes(createdFilm.getId(), secondPage.next(), 2);
+
+        assertEquals(userIds.subList(0, 2), firstPage.ids());
+        assertEquals(5, firstPage.total());
+        assertEquals(userIds.subList(2, 4), secondPage.ids());
+        assertEquals(userIds.subList(4, 5), lastPage.ids());
+        assertNull(lastPage.next());
+    }
+
+    @Test
+    public void delete_whenFilmPresent_removesFilm() {
+        var createdFilm = filmController.create(new Film());
+
+        filmController.delete(createdFilm.getId());
+
+        assertThrows(NotFoundException.class, () -> {
+            filmController.getById(createdFilm.getId());
+        });
+        assertThrows(NotFoundException.class, () -> {
+            filmController.delete(createdFilm.getId());
+        });
+    }
+
+    @Test
+    public void onUserDeleted_removesUserLikesFromFilms() {
+        var user = userStorage.create(new User(0L, "a@mail.com", "A1Ar", "Audrey",
+                LocalDate.parse("1967-03-25")));
+        var first = filmController.create(new Film(0L, "first", "first film",
+                LocalDate.parse("1967-03-25"), 100));
+        var second = filmController.create(new Film(0L, "second", "second film",
+                LocalDate.parse("1970-01-01"), 90));
+        filmController.addLike(first.getId(), user.getId());
+        filmController.addLike(second.getId(), user.getId());
+
+        assertEquals(List.of(first.getId(), second.getId()), filmService.getLikedFilmIds(user.getId(), 0, 10).ids());
+
+        filmService.onUserDeleted(new UserDeletedEvent(userStorage.delete(user.getId())));
+
+        assertTrue(filmController.getById(first.getId()).getLikes().isEmpty());
+        assertTrue(filmController.getById(second.getId()).getLikes().isEmpty());
+    }
+}
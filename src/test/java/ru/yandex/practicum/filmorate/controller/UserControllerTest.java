@@ -2,6 +2,7 @@ package ru.yandex.practicum.filmorate.controller;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
 import ru.yandex.practicum.filmorate.exception.DuplicateEmailException;
 import ru.yandex.practicum.filmorate.exception.DuplicateLoginException;
 import ru.yandex.practicum.filmorate.exception.NotFoundException;
@@ -10,6 +11,7 @@ import ru.yandex.practicum.filmorate.service.UserService;
 import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -23,7 +25,7 @@ class UserControllerTest {
 
     @BeforeEach
     public void setUp() {
-        userController = new UserController(new UserService(new InMemoryUserStorage()));
+        userController = new UserController(new UserService(new InMemoryUserStorage(), new ChangePublisher(event -> { })));
     }
 
     @Test
@@ -316,4 +318,69 @@ class UserControllerTest {
         assertEquals(1, commonFriends.size());
         assertTrue(commonFriends.contains(commonFriend));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void getCommonFriends_withSeveralOthers_returnsFriendsSharedByAll() {
+        var user = userController.create(new User(0L, "mail@mail.ru", "dolore",
+                "john", LocalDate.parse("1991-08-20")));
+        var second = userController.create(new User(0L, "yandex@mail.ru", "cusco",
+                "phil", LocalDate.parse("1997-02-12")));
+        var third = userController.create(new User(0L, "third@mail.ru", "third",
+                "kate", LocalDate.parse("1990-05-01")));
+
+        // sharedFriend — друг всех троих, almostShared — только первых двух
+        var sharedFriend = userController.create(new User(0L, "Dan70@yahoo.com", "cute",
+                "alice", LocalDate.parse("1974-12-17")));
+        var almostShared = userController.create(new User(0L, "olga29@gmail.com", "salma",
+                "olya", LocalDate.parse("2004-10-27")));
+        for (var member : List.of(user, second, third)) {
+            userController.addFriend(member.getId(), sharedFriend.getId());
+        }
+        userController.addFriend(user.getId(), almostShared.getId());
+        userController.addFriend(second.getId(), almostShared.getId());
+
+        var commonFriends = userController.getCommonFriends(user.getId(), List.of(second.getId(), third.getId()));
+
+        assertEquals(List.of(sharedFriend), List.copyOf(commonFriends));
+    }
+
+    @Test
+    public void getCommonFriends_whenOtherUserNotPresent_throwsException() {
+        var user = userController.create(new User(0L, "mail@mail.ru", "dolore",
+                "john", LocalDate.parse("1991-08-20")));
+
+        assertThrows(NotFoundException.class, () -> {
+            userController.getCommonFriends(user.getId(), List.of(user.getId() + 1));
+        });
+    }
+
+    @Test
+    public void getByIds_returnsUsersInRequestOrderAndMissingIds() {
+        var user = userController.create(new User(0L, "mail@mail.ru", "dolore",
+                "john", LocalDate.parse("1991-08-20")));
+        var otherUser = userController.create(new User(0L, "yandex@mail.ru", "cusco",
+                "phil", LocalDate.parse("1997-02-12")));
+        var notPresentId = otherUser.getId() + 1;
+
+        var result = userController.getByIds(List.of(notPresentId, otherUser.getId(), user.getId()));
+
+        assertEquals(List.of(otherUser, user), result.items());
+        assertEquals(List.of(notPresentId), result.missing());
+    }
+
+    @Test
+    public void delete_removesUserFromFriendsOfFriends() {
+        var user = userController.create(new User(0L, "mail@mail.ru", "dolore",
+                "john", LocalDate.parse("1991-08-20")));
+        var friend = userController.create(new User(0L, "yandex@mail.ru", "cusco",
+                "phil", LocalDate.parse("1997-02-12")));
+        userController.addFriend(user.getId(), friend.getId());
+
+        userController.delete(user.getId());
+
+        assertTrue(userController.getById(friend.getId()).getFriends().isEmpty());
+        assertThrows(NotFoundException.class, () -> {
+            userController.getById(user.getId());
+        });
+    }
+}
@@ -0,0 +1,105 @@
+package ru.yandex.practicum.filmorate.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangePublisherTest {
+
+    @Test
+    public void write_whenEarlierSeqStillRunning_waitsAndDeliversInSeqOrder() throws Exception {
+        List<Object> delivered = new CopyOnWriteArrayList<>();
+        var publisher = new ChangePublisher(delivered::add);
+        var stamped = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+
+        var first = CompletableFuture.runAsync(() -> publisher.write(() -> {
+            ChangeSequence.stamp();
+            stamped.countDown();
+            await(release);
+            return "первое";
+        }, change -> change));
+        assertTrue(stamped.await(5, TimeUnit.SECONDS));
+        var second = CompletableFuture.runAsync(() -> publisher.write(() -> {
+            ChangeSequence.stamp();
+            return "второе";
+        }, change -> change));
+
+        Thread.sleep(100);
+        assertFalse(second.isDone());
+        assertTrue(delivered.isEmpty());
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("первое", "второе"), delivered);
+    }
+
+    @Test
+    public void write_whenListenerWrites_deliversNestedChangeAfterCurrent() {
+        List<Object> delivered = new CopyOnWriteArrayList<>();
+        ChangePublisher[] publisher = new ChangePublisher[1];
+        publisher[0] = new ChangePublisher(event -> {
+            delivered.add(event);
+            if (event.equals("удаление")) {
+                publisher[0].write(() -> {
+                    ChangeSequence.stamp();
+                    return "каскад";
+                }, change -> change);
+                delivered.add("слушатель вернулся");
+            }
+        });
+
+        publisher[0].write(() -> {
+            ChangeSequence.stamp();
+            return "удаление";
+        }, change -> change);
+
+        assertEquals(List.of("удаление", "слушатель вернулся", "каскад"), delivered);
+    }
+
+    @Test
+    public void write_withoutStamp_publishesNothing() {
+        List<Object> delivered = new CopyOnWriteArrayList<>();
+        var publisher = new ChangePublisher(delivered::add);
+
+        assertEquals("ничего", publisher.write(() -> "ничего", change -> change));
+
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void write_whenWriteFailsAfterStamp_releasesSeq() {
+        List<Object> delivered = new CopyOnWriteArrayList<>();
+        var publisher = new ChangePublisher(delivered::add);
+
+        assertThrows(IllegalStateException.class, () -> publisher.write(() -> {
+            ChangeSequence.stamp();
+            throw new IllegalStateException("сбой записи");
+        }, change -> change));
+        publisher.write(() -> {
+            ChangeSequence.stamp();
+            return "следующее";
+        }, change -> change);
+
+        assertEquals(List.of("следующее"), delivered);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
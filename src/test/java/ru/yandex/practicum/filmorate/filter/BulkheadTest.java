@@ -0,0 +1,52 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.BulkheadProperties;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BulkheadTest {
+
+    @Test
+    public void tryEnter_whenSaturatedAndNoQueue_rejectsImmediately() {
+        var registry = new SimpleMeterRegistry();
+        var bulkhead = new Bulkhead("popular", endpointClass(1, 0, Duration.ofSeconds(5)), registry);
+
+        assertNull(bulkhead.tryEnter());
+        assertNotNull(bulkhead.tryEnter());
+        assertEquals(1.0, registry.get("filmorate.bulkhead.rejected")
+                .tag("reason", "queue_full")
+                .counter()
+                .count());
+
+        bulkhead.release();
+        assertNull(bulkhead.tryEnter());
+    }
+
+    @Test
+    public void tryEnter_whenQueueDeadlineExpires_rejects() {
+        var registry = new SimpleMeterRegistry();
+        var bulkhead = new Bulkhead("popular", endpointClass(1, 1, Duration.ofMillis(10)), registry);
+
+        assertNull(bulkhead.tryEnter());
+        assertNotNull(bulkhead.tryEnter());
+        assertEquals(1.0, registry.get("filmorate.bulkhead.rejected")
+                .tag("reason", "timeout")
+                .counter()
+                .count());
+    }
+
+    private static BulkheadProperties.EndpointClass endpointClass(int maxConcurrent, int maxQueue,
+                                                                  Duration maxWait) {
+        var endpointClass = new BulkheadProperties.EndpointClass();
+        endpointClass.setMaxConcurrent(maxConcurrent);
+        endpointClass.setMaxQueue(maxQueue);
+        endpointClass.setMaxWait(maxWait);
+        return endpointClass;
+    }
+}
@@ -0,0 +1,72 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    public void claim_whenKeyRepeated_returnsExistingEntry() {
+        var cache = new IdempotencyCache(10, Duration.ofMinutes(1), now::get);
+
+        var first = cache.claim("POST /films k1", fingerprint("42"));
+        var second = cache.claim("POST /films k1", fingerprint("42"));
+
+        assertTrue(first.owner());
+        assertFalse(second.owner());
+        assertSame(first.entry(), second.entry());
+    }
+
+    @Test
+    public void claim_whenEntryExpired_grantsNewOwnership() {
+        var cache = new IdempotencyCache(10, Duration.ofMinutes(1), now::get);
+        var first = cache.claim("POST /films k1", fingerprint("42"));
+
+        now.addAndGet(Duration.ofMinutes(2).toMillis());
+        var second = cache.claim("POST /films k1", fingerprint("42"));
+
+        assertTrue(second.owner());
+        assertFalse(first.entry() == second.entry());
+    }
+
+    @Test
+    public void claim_whenCapacityExceeded_evictsOldestEntries() {
+        var cache = new IdempotencyCache(2, Duration.ofMinutes(1), now::get);
+
+        cache.claim("k1", fingerprint("1"));
+        cache.claim("k2", fingerprint("2"));
+        cache.claim("k3", fingerprint("3"));
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.claim("k1", fingerprint("1")).owner());
+    }
+
+    @Test
+    public void claim_whenBodiesCollideInArraysHashCode_stillTellsThemApart() {
+        var cache = new IdempotencyCache(10, Duration.ofMinutes(1), now::get);
+        byte[] first = "{\"name\":\"Aa\"}".getBytes(StandardCharsets.UTF_8);
+        byte[] second = "{\"name\":\"BB\"}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(Arrays.hashCode(first), Arrays.hashCode(second));
+
+        cache.claim("POST /films k1", IdempotencyCache.fingerprint(first));
+        var repeated = cache.claim("POST /films k1", IdempotencyCache.fingerprint(second));
+
+        assertFalse(repeated.owner());
+        assertFalse(repeated.entry().matches(IdempotencyCache.fingerprint(second)));
+    }
+
+    private static byte[] fingerprint(String body) {
+        return IdempotencyCache.fingerprint(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,70 @@
+package ru.yandex.practicum.filmorate.filter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResponseCacheTest {
+
+    @Test
+    public void put_whenEvictedSinceRequestStart_rejectsStaleResponse() {
+        var cache = new ResponseCache(10);
+        long startGeneration = cache.generation(1);
+
+        cache.evict(1);
+
+        assertFalse(cache.put(1, "json", response("старый"), startGeneration));
+        assertNull(cache.get(1, "json"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void put_whenOtherKeyEvictedSinceRequestStart_keepsResponse() {
+        var cache = new ResponseCache(10);
+        long startGeneration = cache.generation(1);
+        var film = response("фильм");
+
+        cache.evict(0);
+
+        assertTrue(cache.put(1, "json", film, startGeneration));
+        assertSame(film, cache.get(1, "json"));
+    }
+
+    @Test
+    public void evict_removesAllVariantsOfKey() {
+        var cache = new ResponseCache(10);
+        cache.put(1, "json", response("a"), cache.generation(1));
+        cache.put(1, "cbor", response("b"), cache.generation(1));
+        var popular = response("c");
+        cache.put(0, "json", popular, cache.generation(0));
+
+        cache.evict(1);
+
+        assertNull(cache.get(1, "json"));
+        assertNull(cache.get(1, "cbor"));
+        assertSame(popular, cache.get(0, "json"));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void put_whenFull_clearsAndKeepsAdmitting() {
+        var cache = new ResponseCache(2);
+        cache.put(1, "json", response("a"), cache.generation(1));
+        cache.put(2, "json", response("b"), cache.generation(2));
+
+        var third = response("c");
+        assertTrue(cache.put(3, "json", third, cache.generation(3)));
+
+        assertNull(cache.get(1, "json"));
+        assertSame(third, cache.get(3, "json"));
+        assertEquals(1, cache.size());
+    }
+
+    private static CachedResponse response(String body) {
+        return CachedResponse.of("application/json", body.getBytes(), Integer.MAX_VALUE);
+    }
+}
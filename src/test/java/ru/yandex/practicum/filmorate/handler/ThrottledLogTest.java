@@ -0,0 +1,27 @@
+package ru.yandex.practicum.filmorate.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ThrottledLogTest {
+
+    @Test
+    public void tryAcquire_allowsOneMessagePerIntervalAndCountsSuppressed() {
+        AtomicLong now = new AtomicLong(1_000);
+        ThrottledLog throttle = new ThrottledLog(100, now::get);
+
+        assertEquals(0, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+
+        now.addAndGet(99);
+        assertEquals(-1, throttle.tryAcquire());
+
+        now.addAndGet(1);
+        assertEquals(3, throttle.tryAcquire());
+        assertEquals(-1, throttle.tryAcquire());
+    }
+}
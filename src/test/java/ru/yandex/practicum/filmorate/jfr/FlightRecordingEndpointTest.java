@@ -0,0 +1,128 @@
+package ru.yandex.practicum.filmorate.jfr;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.util.FileSystemUtils;
+import ru.yandex.practicum.filmorate.config.FlightRecorderProperties;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecordingEndpointTest {
+
+    private Path directory;
+    private FlightRecorderProperties properties;
+    private FlightRecordingEndpoint endpoint;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-jfr-test");
+        properties = new FlightRecorderProperties();
+        properties.setDirectory(directory.toString());
+        FlightRecorderProperties.Thresholds thresholds = properties.getThresholds();
+        thresholds.setPopularFilms(Duration.ZERO);
+        thresholds.setAddLike(Duration.ZERO);
+        thresholds.setCommonFriends(Duration.ZERO);
+        thresholds.setDuplicateCheck(Duration.ZERO);
+        thresholds.setStorageScan(Duration.ZERO);
+        endpoint = new FlightRecordingEndpoint(properties);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        endpoint.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void dump_containsServiceEventsWithSizes() throws IOException {
+        long id = endpoint.start(Duration.ofMinutes(1)).getBody().id();
+        InMemoryFilmStorage films = new InMemoryFilmStorage();
+        InMemoryUserStorage users = new InMemoryUserStorage();
+        FilmService filmService = new FilmService(films, users, new ChangePublisher(event -> {
+        }));
+        UserService userService = new UserService(users, new ChangePublisher(event -> {
+        }));
+        for (int i = 1; i <= 3; i++) {
+            userService.create(new User(null, i + "@mail.ru", "login" + i, "Имя", LocalDate.of(1990, 1, 1)));
+            films.create(new Film(null, "Фильм " + i, "Описание фильма", LocalDate.of(2000, 1, 1), 120));
+        }
+        userService.addFriend(1, 3);
+        userService.addFriend(2, 3);
+        filmService.addLike(2, 1);
+        filmService.getPopularFilms(2);
+        userService.getCommonFriends(1, 2);
+
+        WebEndpointResponse<Resource> dump = endpoint.dump(id);
+
+        assertEquals(WebEndpointResponse.STATUS_OK, dump.getStatus());
+        List<RecordedEvent> recorded = RecordingFile.readAllEvents(dump.getBody().getFile().toPath());
+        assertFalse(recorded.stream().anyMatch(event -> event.getEventType().getName().startsWith("jdk.Initial")));
+        Map<String, List<RecordedEvent>> events = recorded.stream()
+                .filter(event -> event.getEventType().getName().startsWith("filmorate."))
+                .collect(Collectors.groupingBy(event -> event.getEventType().getName()));
+        assertEquals(6, events.get("filmorate.DuplicateCheck").size());
+        assertEquals(6, events.get("filmorate.StorageScan").size());
+        RecordedEvent popular = events.get("filmorate.PopularFilms").get(0);
+        assertEquals(2, popular.getInt("count"));
+        assertEquals(3, popular.getInt("datasetSize"));
+        assertEquals(2, popular.getInt("resultSize"));
+        RecordedEvent like = events.get("filmorate.AddLike").get(0);
+        assertEquals(2L, like.getLong("filmId"));
+        assertEquals(1, like.getInt("resultSize"));
+        assertTrue(like.getBoolean("added"));
+        RecordedEvent common = events.get("filmorate.CommonFriends").get(0);
+        assertEquals(2, common.getInt("datasetSize"));
+        assertEquals(1, common.getInt("resultSize"));
+        assertFalse(events.get("filmorate.DuplicateCheck").stream().anyMatch(event -> event.getBoolean("duplicate")));
+    }
+
+    @Test
+    public void start_whenRunning_returnsConflictAndCapsDuration() {
+        properties.setMaxDuration(Duration.ofMinutes(5));
+
+        RecordingStatus started = endpoint.start(Duration.ofHours(1)).getBody();
+        WebEndpointResponse<RecordingStatus> second = endpoint.start(null);
+
+        assertEquals(Duration.ofMinutes(5), started.duration());
+        assertEquals("RUNNING", started.state());
+        assertEquals(409, second.getStatus());
+        assertEquals(started.id(), second.getBody().id());
+    }
+
+    @Test
+    public void stop_thenStart_replacesRecordingAndItsDump() throws IOException {
+        long first = endpoint.start(null).getBody().id();
+        Path dumped = endpoint.dump(first).getBody().getFile().toPath();
+
+        assertEquals("STOPPED", endpoint.stop(first).getBody().state());
+        long second = endpoint.start(null).getBody().id();
+
+        assertFalse(Files.exists(dumped));
+        assertEquals(WebEndpointResponse.STATUS_NOT_FOUND, endpoint.dump(first).getStatus());
+        assertEquals(second, endpoint.status().id());
+        assertEquals(properties.getDefaultDuration(), endpoint.status().duration());
+    }
+}
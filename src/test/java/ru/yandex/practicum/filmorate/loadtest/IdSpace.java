@@ -0,0 +1,43 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Диапазоны id, которые уже есть в приложении. Счётчики растут только после успешного создания,
+ * поэтому выбранный id всегда существует.
+ */
+class IdSpace {
+    private static final double HOT_SKEW = 3.0;
+
+    private final AtomicLong films = new AtomicLong();
+    private final AtomicLong users = new AtomicLong();
+    private final AtomicLong userSeq = new AtomicLong();
+
+    void filmCreated() {
+        films.incrementAndGet();
+    }
+
+    void userCreated() {
+        users.incrementAndGet();
+    }
+
+    long nextUserSeq() {
+        return userSeq.incrementAndGet();
+    }
+
+    long hotFilm(ThreadLocalRandom random) {
+        return 1 + (long) (films.get() * Math.pow(random.nextDouble(), HOT_SKEW));
+    }
+
+    long user(ThreadLocalRandom random) {
+        return 1 + random.nextLong(users.get());
+    }
+
+    long[] userPair(ThreadLocalRandom random) {
+        long count = users.get();
+        long first = 1 + random.nextLong(count);
+        long second = 1 + random.nextLong(count - 1);
+        return new long[]{first, second >= first ? second + 1 : second};
+    }
+}
@@ -0,0 +1,51 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Итог прогона: пропускная способность и перцентили задержек по операциям. Тот же формат хранится
+ * как базовая линия в {@code src/test/resources/loadtest/baseline.json}.
+ */
+record LoadReport(int threads, int durationSeconds, double throughput, long errors,
+                  Map<Operation, OperationStats> operations) {
+
+    record OperationStats(long count, long errors, double throughput, double p50Ms, double p90Ms, double p99Ms,
+                          double maxMs) {
+    }
+
+    /**
+     * @return описания регрессий относительно базовой линии; пустой список, если их нет
+     */
+    List<String> regressionsAgainst(LoadReport baseline, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        if (throughput < baseline.throughput() * (1 - tolerance)) {
+            regressions.add(String.format("общая пропускная способность %.1f < %.1f rps",
+                    throughput, baseline.throughput()));
+        }
+        baseline.operations().forEach((operation, expected) -> {
+            OperationStats actual = operations.get(operation);
+            if (actual == null || actual.count() == 0) {
+                return;
+            }
+            if (actual.throughput() < expected.throughput() * (1 - tolerance)) {
+                regressions.add(String.format("%s: пропускная способность %.1f < %.1f rps",
+                        operation, actual.throughput(), expected.throughput()));
+            }
+            if (actual.p99Ms() > expected.p99Ms() * (1 + tolerance)) {
+                regressions.add(String.format("%s: p99 %.2f > %.2f мс", operation, actual.p99Ms(), expected.p99Ms()));
+            }
+        });
+        return regressions;
+    }
+
+    void print() {
+        System.out.printf("%n%-15s %9s %7s %10s %9s %9s %9s %9s%n",
+                "операция", "запросов", "ошибок", "rps", "p50, мс", "p90, мс", "p99, мс", "max, мс");
+        operations.forEach((operation, stats) -> System.out.printf("%-15s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                operation, stats.count(), stats.errors(), stats.throughput(),
+                stats.p50Ms(), stats.p90Ms(), stats.p99Ms(), stats.maxMs()));
+        System.out.printf("%-15s %9s %7d %10.1f%n", "всего", "", errors, throughput);
+    }
+}
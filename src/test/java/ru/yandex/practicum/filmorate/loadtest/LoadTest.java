@@ -0,0 +1,193 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон: поднимает приложение на свободном порту, наполняет его фильмами и юзерами,
+ * после прогрева гоняет смесь операций из {@link LoadTestConfig} замкнутым циклом в нескольких потоках
+ * и сравнивает результат с базовой линией. Регрессия или доля ошибок выше допустимой роняют запуск.
+ * <p>
+ * Ограничение частоты и bulkhead на время прогона выключены: измеряется само приложение, а не защита от него.
+ */
+public class LoadTest {
+    private static final String[] APP_DEFAULTS = {
+            "--server.port=0",
+            "--filmorate.rate-limit.enabled=false",
+            "--filmorate.bulkhead.enabled=false",
+            "--logging.level.org.zalando.logbook=INFO",
+            "--logging.level.ru.yandex.practicum.filmorate=WARN"
+    };
+
+    private final LoadTestConfig config;
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final IdSpace ids = new IdSpace();
+    private final Operation[] schedule;
+    private URI base;
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    LoadTest(LoadTestConfig config) {
+        this.config = config;
+        this.schedule = schedule(config.mix());
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+        List<String> appArgs = new ArrayList<>(List.of(APP_DEFAULTS));
+        appArgs.addAll(List.of(config.appArgs()));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .run(appArgs.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            new LoadTest(config).run(URI.create("http://localhost:" + port));
+        }
+    }
+
+    void run(URI base) throws Exception {
+        this.base = base;
+        seed();
+        ObjectMapper json = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        LoadReport report = drive();
+        report.print();
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        json.writeValue(config.output().toFile(), report);
+        if (config.updateBaseline()) {
+            Files.createDirectories(config.baseline().toAbsolutePath().getParent());
+            json.writeValue(config.baseline().toFile(), report);
+            System.out.println("Базовая линия обновлена: " + config.baseline());
+            return;
+        }
+
+        List<String> failures = new ArrayList<>();
+        long total = report.operations().values().stream().mapToLong(LoadReport.OperationStats::count).sum();
+        if (report.errors() > total * config.maxErrorRate()) {
+            failures.add(String.format("ошибок %d из %d запросов", report.errors(), total + report.errors()));
+        }
+        if (Files.exists(config.baseline())) {
+            LoadReport baseline = json.readValue(config.baseline().toFile(), LoadReport.class);
+            failures.addAll(report.regressionsAgainst(baseline, config.tolerance()));
+        } else {
+            System.out.println("Базовая линия не найдена: " + config.baseline());
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Нагрузочный тест не пройден: " + String.join("; ", failures));
+        }
+        System.out.println("Регрессий относительно базовой линии нет");
+    }
+
+    private void seed() throws IOException, InterruptedException {
+        for (int i = 0; i < config.seedUsers(); i++) {
+            send(Operation.CREATE_USER, ThreadLocalRandom.current());
+        }
+        for (int i = 0; i < config.seedFilms(); i++) {
+            send(Operation.CREATE_FILM, ThreadLocalRandom.current());
+        }
+    }
+
+    private LoadReport drive() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(config.threads());
+        try {
+            List<Future<Map<Operation, LatencyRecorder>>> workers = new ArrayList<>();
+            for (int i = 0; i < config.threads(); i++) {
+                workers.add(executor.submit(this::work));
+            }
+            TimeUnit.SECONDS.sleep(config.warmupSeconds());
+            measuring = true;
+            long start = System.nanoTime();
+            TimeUnit.SECONDS.sleep(config.durationSeconds());
+            measuring = false;
+            double seconds = (System.nanoTime() - start) / 1e9;
+            running = false;
+
+            Map<Operation, LatencyRecorder> merged = new EnumMap<>(Operation.class);
+            for (Future<Map<Operation, LatencyRecorder>> worker : workers) {
+                worker.get().forEach((operation, recorder) ->
+                        merged.computeIfAbsent(operation, key -> new LatencyRecorder()).merge(recorder));
+            }
+            Map<Operation, LoadReport.OperationStats> stats = new EnumMap<>(Operation.class);
+            merged.forEach((operation, recorder) -> stats.put(operation, recorder.stats(seconds)));
+            long count = stats.values().stream().mapToLong(LoadReport.OperationStats::count).sum();
+            long errors = stats.values().stream().mapToLong(LoadReport.OperationStats::errors).sum();
+            return new LoadReport(config.threads(), config.durationSeconds(), count / seconds, errors, stats);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Map<Operation, LatencyRecorder> work() throws InterruptedException {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            Operation operation = schedule[random.nextInt(schedule.length)];
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = send(operation, random);
+            } catch (IOException e) {
+                ok = false;
+            }
+            long latency = System.nanoTime() - start;
+            if (measuring) {
+                LatencyRecorder recorder = recorders.computeIfAbsent(operation, key -> new LatencyRecorder());
+                if (ok) {
+                    recorder.record(latency);
+                } else {
+                    recorder.error();
+                }
+            }
+        }
+        return recorders;
+    }
+
+    private boolean send(Operation operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        int status = client.send(operation.request(base, ids, random), HttpResponse.BodyHandlers.discarding())
+                .statusCode();
+        boolean ok = status / 100 == 2;
+        if (ok && operation == Operation.CREATE_FILM) {
+            ids.filmCreated();
+        } else if (ok && operation == Operation.CREATE_USER) {
+            ids.userCreated();
+        }
+        return ok;
+    }
+
+    /**
+     * Раскладывает веса операций в массив, из которого достаточно выбрать случайный элемент.
+     */
+    private static Operation[] schedule(Map<Operation, Integer> mix) {
+        List<Operation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("В смеси операций нет ни одной операции с положительным весом");
+        }
+        return slots.toArray(Operation[]::new);
+    }
+}
@@ -0,0 +1,45 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры нагрузочного прогона из системных свойств {@code loadtest.*}.
+ */
+record LoadTestConfig(int threads, int warmupSeconds, int durationSeconds, int seedFilms, int seedUsers,
+                      Map<Operation, Integer> mix, String[] appArgs, Path baseline, Path output,
+                      double tolerance, double maxErrorRate, boolean updateBaseline) {
+    private static final String DEFAULT_MIX =
+            "CREATE_FILM=5,CREATE_USER=5,LIKE=30,FRIEND=20,POPULAR=25,COMMON_FRIENDS=15";
+
+    static LoadTestConfig fromSystemProperties() {
+        String appArgs = System.getProperty("loadtest.appArgs", "").trim();
+        return new LoadTestConfig(
+                Integer.getInteger("loadtest.threads", 16),
+                Integer.getInteger("loadtest.warmupSeconds", 10),
+                Integer.getInteger("loadtest.durationSeconds", 30),
+                Integer.getInteger("loadtest.seedFilms", 1_000),
+                Integer.getInteger("loadtest.seedUsers", 1_000),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                appArgs.isEmpty() ? new String[0] : appArgs.split("\\s+"),
+                Path.of(System.getProperty("loadtest.baseline", "src/test/resources/loadtest/baseline.json")),
+                Path.of(System.getProperty("loadtest.output", "target/loadtest/result.json")),
+                Double.parseDouble(System.getProperty("loadtest.tolerance", "0.25")),
+                Double.parseDouble(System.getProperty("loadtest.maxErrorRate", "0.01")),
+                Boolean.getBoolean("loadtest.updateBaseline"));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес операции не может быть отрицательным: " + part);
+            }
+            weights.put(Operation.valueOf(pair[0].trim()), weight);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,69 @@
+package ru.yandex.practicum.filmorate.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Операции нагрузочного профиля. Фильмы для лайков выбираются со смещением к меньшим id,
+ * чтобы небольшая часть каталога собирала большую часть лайков, как в реальном трафике.
+ */
+enum Operation {
+    CREATE_FILM {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            return json(base.resolve("/films"), String.format(
+                    "{\"name\":\"Фильм %d\",\"description\":\"Описание\",\"releaseDate\":\"2000-01-01\","
+                            + "\"duration\":%d}", random.nextInt(1_000_000), 60 + random.nextInt(120)));
+        }
+    },
+    CREATE_USER {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            long seq = ids.nextUserSeq();
+            return json(base.resolve("/users"), String.format(
+                    "{\"email\":\"load%d@mail.ru\",\"login\":\"load%d\",\"birthday\":\"1990-01-01\"}", seq, seq));
+        }
+    },
+    LIKE {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            return put(base.resolve("/films/" + ids.hotFilm(random) + "/like/" + ids.user(random)));
+        }
+    },
+    FRIEND {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            long[] pair = ids.userPair(random);
+            return put(base.resolve("/users/" + pair[0] + "/friends/" + pair[1]));
+        }
+    },
+    POPULAR {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            return HttpRequest.newBuilder(base.resolve("/films/popular?count=10")).GET().build();
+        }
+    },
+    COMMON_FRIENDS {
+        @Override
+        HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random) {
+            long[] pair = ids.userPair(random);
+            return HttpRequest.newBuilder(base.resolve("/users/" + pair[0] + "/friends/common/" + pair[1]))
+                    .GET()
+                    .build();
+        }
+    };
+
+    abstract HttpRequest request(URI base, IdSpace ids, ThreadLocalRandom random);
+
+    private static HttpRequest json(URI uri, String body) {
+        return HttpRequest.newBuilder(uri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static HttpRequest put(URI uri) {
+        return HttpRequest.newBuilder(uri).PUT(HttpRequest.BodyPublishers.noBody()).build();
+    }
+}
@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.memory;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.offheap.OffHeapFilmStorage;
+import ru.yandex.practicum.filmorate.storage.tiered.TieredFilmStorage;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Бюджеты удерживаемой кучи на фильм и на лайк, измеренные обходом графа объектов (JOL).
+ * Бюджеты взяты с запасом около 20% над текущими значениями; падение теста означает, что раскладка
+ * данных стала дороже, и бюджет надо либо осознанно поднять, либо вернуть прежнюю раскладку.
+ */
+class FootprintBudgetTest {
+    private static final int FILMS = 5_000;
+    private static final int LIKES_PER_FILM = 10;
+    private static final int USERS = 1_000;
+
+    @Test
+    public void heapStorage_staysWithinBudget() {
+        // сейчас около 350 байт на фильм и 130 на лайк
+        assertWithinBudget(new InMemoryFilmStorage(), 450, 160);
+    }
+
+    @Test
+    public void copyOnWriteStorage_staysWithinBudget() {
+        // сейчас около 270 байт на фильм и 100 на лайк
+        assertWithinBudget(new CopyOnWriteFilmStorage(), 360, 128);
+    }
+
+    @Test
+    public void offHeapStorage_keepsOnlyIndexesOnHeap() {
+        // в куче только массив смещений и списки лайков пользователей, остальное в арене
+        assertWithinBudget(new OffHeapFilmStorage(new StorageProperties()), 16, 8);
+    }
+
+    @Test
+    public void tieredStorage_keepsColdFilmsOffHeap() {
+        StorageProperties properties = new StorageProperties();
+        properties.getTiered().setHotBytes(64 * 1024);
+        TieredFilmStorage storage = new TieredFilmStorage(properties, new SimpleMeterRegistry());
+        try {
+            // горячий уровень ограничен, остальное — массивы по id и обратный индекс на long[]
+            assertWithinBudget(storage, 96, 16);
+        } finally {
+            storage.close();
+        }
+    }
+
+    @Test
+    public void estimate_matchesMeasuredLayout() {
+        assertEstimateClose(new InMemoryFilmStorage());
+        assertEstimateClose(new CopyOnWriteFilmStorage());
+    }
+
+    private static void assertWithinBudget(FilmStorage storage, long filmBudget, long likeBudget) {
+        long empty = retained(storage);
+        createFilms(storage);
+        long withFilms = retained(storage);
+        addLikes(storage);
+        long withLikes = retained(storage);
+
+        double perFilm = (double) (withFilms - empty) / FILMS;
+        double perLike = (double) (withLikes - withFilms) / (FILMS * LIKES_PER_FILM);
+        assertTrue(perFilm <= filmBudget,
+                () -> String.format("%.1f байт на фильм при бюджете %d", perFilm, filmBudget));
+        assertTrue(perLike <= likeBudget,
+                () -> String.format("%.1f байт на лайк при бюджете %d", perLike, likeBudget));
+    }
+
+    private static <T extends FilmStorage & FootprintSource> void assertEstimateClose(T storage) {
+        long empty = retained(storage);
+        createFilms(storage);
+        addLikes(storage);
+        long measured = retained(storage) - empty;
+        long estimated = storage.estimateFootprint().stream().mapToLong(FootprintEntry::bytes).sum();
+
+        double ratio = (double) estimated / measured;
+        assertTrue(ratio > 0.9 && ratio < 1.1, () -> String.format("%s: оценка %d байт, измерено %d",
+                storage.getClass().getSimpleName(), estimated, measured));
+    }
+
+    private static void createFilms(FilmStorage storage) {
+        for (int i = 0; i < FILMS; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание фильма " + i, LocalDate.of(2000, 1, 1), 120));
+        }
+    }
+
+    private static void addLikes(FilmStorage storage) {
+        for (long filmId = 1; filmId <= FILMS; filmId++) {
+            for (int i = 0; i < LIKES_PER_FILM; i++) {
+                // при шаге 97 десять пользователей одного фильма не совпадают
+                storage.addLike(filmId, 1 + (filmId * 31 + i * 97L) % USERS);
+            }
+        }
+    }
+
+    private static long retained(Object root) {
+        return GraphLayout.parseInstance(root).totalSize();
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.projection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.ConstraintViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.BatchResult;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProjectionSerializerTest {
+
+    private ObjectMapper objectMapper;
+    private Film film;
+
+    @BeforeEach
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        film = new Film(1L, "name", "description", LocalDate.parse("2000-01-01"), 100);
+        film.getLikes().addAll(Set.of(3L, 1L, 2L));
+    }
+
+    @Test
+    public void serialize_summary_replacesLikesWithCount() throws JsonProcessingException {
+        String json = objectMapper.writeValueAsString(new Projection(List.of(film), EntityFields.FILM.summary()));
+
+        assertEquals("[{\"id\":1,\"name\":\"name\",\"description\":\"description\","
+                + "\"releaseDate\":\"2000-01-01\",\"duration\":100,\"likeCount\":3}]", json);
+    }
+
+    @Test
+    public void serialize_selectedFields_keepsFullResponseOrder() throws JsonProcessingException {
+        var fields = EntityFields.FILM.select(Set.of("likes", "id"));
+        var batch = new BatchResult<>(List.of(film), List.of(5L));
+
+        String json = objectMapper.writeValueAsString(new Projection(batch, fields));
+
+        assertEquals("{\"items\":[{\"id\":1,\"likes\":[1,2,3]}],\"missing\":[5]}", json);
+    }
+
+    @Test
+    public void select_whenFieldUnknown_throwsException() {
+        assertThrows(ConstraintViolationException.class, () -> {
+            EntityFields.USER.select(Set.of("id", "likes"));
+        });
+    }
+}
@@ -0,0 +1,164 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.ChangeLogProperties;
+import ru.yandex.practicum.filmorate.event.ChangePublisher;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmUpdatedEvent;
+import ru.yandex.practicum.filmorate.event.FriendshipEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.exception.ResyncRequiredException;
+import ru.yandex.practicum.filmorate.model.ChangeEntry;
+import ru.yandex.practicum.filmorate.model.ChangeType;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteFilmStorage;
+import ru.yandex.practicum.filmorate.storage.cow.CopyOnWriteUserStorage;
+import ru.yandex.practicum.filmorate.storage.film.InMemoryFilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.InMemoryUserStorage;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChangeLogServiceTest {
+
+    private ChangeLogService changeLogService;
+
+    @BeforeEach
+    public void setUp() {
+        var properties = new ChangeLogProperties();
+        properties.setRetention(3);
+        changeLogService = new ChangeLogService(properties);
+    }
+
+    @Test
+    public void getChanges_returnsOnlyChangesAfterSince() {
+        changeLogService.onLike(new LikeEvent(1L, 2L, true, 1));
+        changeLogService.onFriendship(new FriendshipEvent(2L, 3L, true));
+
+        var response = changeLogService.getChanges(1, 10);
+
+        assertEquals(2, response.lastSeq());
+        assertFalse(response.hasMore());
+        assertEquals(1, response.changes().size());
+        assertEquals(ChangeType.FRIEND_ADDED, response.changes().get(0).type());
+        assertEquals(2, response.changes().get(0).seq());
+    }
+
+    @Test
+    public void getChanges_whenLimitReached_reportsHasMore() {
+        changeLogService.onLike(new LikeEvent(1L, 2L, true, 1));
+        changeLogService.onLike(new LikeEvent(1L, 2L, false, 0));
+
+        var response = changeLogService.getChanges(0, 1);
+
+        assertTrue(response.hasMore());
+        assertEquals(1, response.changes().size());
+        assertEquals(ChangeType.LIKE_ADDED, response.changes().get(0).type());
+    }
+
+    @Test
+    public void getChanges_whenClientTooFarBehind_throwsException() {
+        for (int i = 0; i < 5; i++) {
+            changeLogService.onLike(new LikeEvent(1L, i, true, i + 1));
+        }
+
+        assertThrows(ResyncRequiredException.class, () -> {
+            changeLogService.getChanges(1, 10);
+        });
+        assertEquals(3, changeLogService.getChanges(2, 10).changes().size());
+    }
+
+    @Test
+    public void concurrentLikeToggles_areLoggedInStorageOrder() throws InterruptedException {
+        ChangeLogService log = changeLog(100_000);
+        CopyOnWriteFilmStorage films = new CopyOnWriteFilmStorage();
+        CopyOnWriteUserStorage users = new CopyOnWriteUserStorage();
+        FilmService filmService = new FilmService(films, users, publisherFor(log));
+        users.create(new User(null, "user@mail.ru", "user", "Имя", LocalDate.of(1990, 1, 1)));
+        filmService.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 2_000; i++) {
+                    if (ThreadLocalRandom.current().nextBoolean()) {
+                        filmService.addLike(1, 1);
+                    } else {
+                        filmService.removeLike(1, 1);
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+
+        boolean liked = false;
+        for (ChangeEntry entry : log.getChanges(1, Integer.MAX_VALUE).changes()) {
+            boolean added = entry.type() == ChangeType.LIKE_ADDED;
+            assertNotEquals(liked, added, "событие seq " + entry.seq() + " повторяет текущее состояние лайка");
+            liked = added;
+        }
+        assertEquals(films.findById(1).getLikes().contains(1L), liked);
+    }
+
+    @Test
+    public void filmEntry_keepsDataAsOfItsChange() {
+        ChangeLogService log = changeLog(10);
+        FilmService filmService = new FilmService(new InMemoryFilmStorage(), new InMemoryUserStorage(),
+                publisherFor(log));
+        filmService.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        filmService.update(new Film(1L, "Новое название", null, null, null));
+
+        var changes = log.getChanges(0, 10).changes();
+
+        assertEquals("Фильм", changes.get(0).data().get("name"));
+        assertEquals("Новое название", changes.get(1).data().get("name"));
+    }
+
+    @Test
+    public void filmCreatedEntry_includesInitialLikes() {
+        ChangeLogService log = changeLog(10);
+        FilmService filmService = new FilmService(new InMemoryFilmStorage(), new InMemoryUserStorage(),
+                publisherFor(log));
+        Film film = new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120);
+        film.getLikes().addAll(Set.of(3L, 1L, 2L));
+        filmService.create(film);
+
+        var changes = log.getChanges(0, 10).changes();
+
+        assertEquals(1, changes.size());
+        assertEquals(List.of(1L, 2L, 3L), changes.get(0).data().get("likes"));
+    }
+
+    private static ChangeLogService changeLog(int retention) {
+        var properties = new ChangeLogProperties();
+        properties.setRetention(retention);
+        properties.setMaxLimit(retention);
+        return new ChangeLogService(properties);
+    }
+
+    private static ChangePublisher publisherFor(ChangeLogService log) {
+        return new ChangePublisher(event -> {
+            if (event instanceof FilmCreatedEvent created) {
+                log.onFilmCreated(created);
+            } else if (event instanceof FilmUpdatedEvent updated) {
+                log.onFilmUpdated(updated);
+            } else if (event instanceof LikeEvent like) {
+                log.onLike(like);
+            }
+        });
+    }
+}
@@ -0,0 +1,74 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.event.FilmCreatedEvent;
+import ru.yandex.practicum.filmorate.event.FilmDeletedEvent;
+import ru.yandex.practicum.filmorate.event.LikeEvent;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PopularityIndexTest {
+
+    private PopularityIndex popularityIndex;
+
+    @BeforeEach
+    public void setUp() {
+        popularityIndex = new PopularityIndex();
+    }
+
+    @Test
+    public void getTop_returnsFilmsSortedByLikesDesc() {
+        popularityIndex.onLike(new LikeEvent(1L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(2L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(2L, 11L, true, 2));
+        popularityIndex.onLike(new LikeEvent(3L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(3L, 11L, true, 2));
+        popularityIndex.onLike(new LikeEvent(3L, 12L, true, 3));
+
+        assertEquals(List.of(3L, 2L), popularityIndex.getTop(2));
+        assertEquals(3, popularityIndex.getLikeCount(3L));
+    }
+
+    @Test
+    public void getTop_whenLikeRemoved_dropsFilmWithoutLikes() {
+        popularityIndex.onLike(new LikeEvent(1L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(2L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(1L, 10L, false, 0));
+
+        assertEquals(List.of(2L), popularityIndex.getTop(10));
+        assertEquals(0, popularityIndex.getLikeCount(1L));
+    }
+
+    @Test
+    public void onFilmCreated_countsLikesTheFilmCameWith() {
+        Film film = film(1L);
+        film.getLikes().addAll(List.of(10L, 11L));
+        popularityIndex.onFilmCreated(new FilmCreatedEvent(film));
+        popularityIndex.onLike(new LikeEvent(2L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(1L, 12L, true, 3));
+
+        assertEquals(List.of(1L, 2L), popularityIndex.getTop(10));
+        assertEquals(3, popularityIndex.getLikeCount(1L));
+    }
+
+    @Test
+    public void onFilmDeleted_removesFilmFromRanking() {
+        popularityIndex.onLike(new LikeEvent(1L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(2L, 10L, true, 1));
+        popularityIndex.onLike(new LikeEvent(2L, 11L, true, 2));
+        popularityIndex.onFilmDeleted(new FilmDeletedEvent(film(2L)));
+
+        assertEquals(List.of(1L), popularityIndex.getTop(10));
+        assertEquals(0, popularityIndex.getLikeCount(2L));
+        assertEquals(1, popularityIndex.estimateFootprint().get(0).count());
+    }
+
+    private static Film film(long id) {
+        return new Film(id, "Фильм " + id, "Описание", LocalDate.of(2000, 1, 1), 120);
+    }
+}
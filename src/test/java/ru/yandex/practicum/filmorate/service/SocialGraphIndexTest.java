@@ -0,0 +1,114 @@
+package ru.yandex.practicum.filmorate.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.event.FriendshipEvent;
+import ru.yandex.practicum.filmorate.event.UserCreatedEvent;
+import ru.yandex.practicum.filmorate.event.UserDeletedEvent;
+import ru.yandex.practicum.filmorate.model.GraphStats;
+import ru.yandex.practicum.filmorate.model.User;
+import ru.yandex.practicum.filmorate.model.UserComponent;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SocialGraphIndexTest {
+
+    private SocialGraphIndex socialGraphIndex;
+
+    @BeforeEach
+    public void setUp() {
+        socialGraphIndex = new SocialGraphIndex();
+        for (long id = 1; id <= 5; id++) {
+            User user = new User(id, "user" + id + "@mail.ru", "user" + id, "User", LocalDate.of(2000, 1, 1));
+            socialGraphIndex.onUserCreated(new UserCreatedEvent(user));
+        }
+    }
+
+    @Test
+    public void getStats_whenFriendshipsAdded_mergesComponents() {
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(2L, 3L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(4L, 5L, true));
+
+        GraphStats stats = socialGraphIndex.getStats();
+
+        assertEquals(5, stats.users());
+        assertEquals(3, stats.friendships());
+        assertEquals(2, stats.components());
+        assertEquals(3, stats.largestComponent());
+        assertEquals(Map.of(1, 4, 2, 1), stats.degreeDistribution());
+        assertEquals(new UserComponent(3L, 1L, 3), socialGraphIndex.getComponent(3L));
+    }
+
+    @Test
+    public void getComponent_whenFriendshipRemoved_splitsComponent() {
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(2L, 3L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, false));
+
+        assertEquals(new UserComponent(3L, 2L, 2), socialGraphIndex.getComponent(3L));
+        assertEquals(new UserComponent(1L, 1L, 1), socialGraphIndex.getComponent(1L));
+        assertEquals(4, socialGraphIndex.getStats().components());
+    }
+
+    @Test
+    public void getStats_whenFriendshipAddedAfterRemoval_keepsCountsConsistent() {
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, false));
+        socialGraphIndex.onFriendship(new FriendshipEvent(3L, 4L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(3L, 4L, true));
+
+        GraphStats stats = socialGraphIndex.getStats();
+
+        assertEquals(1, stats.friendships());
+        assertEquals(4, stats.components());
+        assertEquals(2, stats.largestComponent());
+        assertEquals(Map.of(0, 3, 1, 2), stats.degreeDistribution());
+    }
+
+    @Test
+    public void onUserDeleted_dropsUserAndSplitsComponent() {
+        socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, true));
+        socialGraphIndex.onFriendship(new FriendshipEvent(2L, 3L, true));
+
+        User deleted = new User(2L, "user2@mail.ru", "user2", "User", LocalDate.of(2000, 1, 1));
+        deleted.getFriends().addAll(List.of(1L, 3L));
+        socialGraphIndex.onUserDeleted(new UserDeletedEvent(deleted));
+
+        GraphStats stats = socialGraphIndex.getStats();
+        assertEquals(4, stats.users());
+        assertEquals(0, stats.friendships());
+        assertEquals(4, stats.components());
+        assertEquals(Map.of(0, 4), stats.degreeDistribution());
+    }
+
+    @Test
+    public void getStats_whileFriendshipsChange_endsInFinalState() throws Exception {
+        Thread writer = new Thread(() -> {
+            for (int round = 0; round < 2_000; round++) {
+                socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, true));
+                socialGraphIndex.onFriendship(new FriendshipEvent(2L, 3L, true));
+                socialGraphIndex.onFriendship(new FriendshipEvent(1L, 2L, false));
+                socialGraphIndex.onFriendship(new FriendshipEvent(2L, 3L, false));
+            }
+            socialGraphIndex.onFriendship(new FriendshipEvent(4L, 5L, true));
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            socialGraphIndex.getStats();
+            socialGraphIndex.getComponent(2L);
+        }
+        writer.join();
+
+        GraphStats stats = socialGraphIndex.getStats();
+        assertEquals(1, stats.friendships());
+        assertEquals(4, stats.components());
+        assertEquals(2, stats.largestComponent());
+        assertEquals(new UserComponent(2L, 2L, 1), socialGraphIndex.getComponent(2L));
+        assertEquals(new UserComponent(5L, 4L, 2), socialGraphIndex.getComponent(5L));
+    }
+}
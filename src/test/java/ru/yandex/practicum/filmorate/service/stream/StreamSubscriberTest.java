@@ -0,0 +1,56 @@
+package ru.yandex.practicum.filmorate.service.stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import ru.yandex.practicum.filmorate.model.LikeDelta;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StreamSubscriberTest {
+
+    @Test
+    public void drain_whenSameFilmUpdatedTwice_coalescesDeltas() {
+        var subscriber = new StreamSubscriber(new SseEmitter(), 8);
+
+        subscriber.offer(List.of(new LikeDelta(1L, 1, 1)), null);
+        subscriber.offer(List.of(new LikeDelta(1L, 1, 2)), null);
+
+        var batch = subscriber.drain();
+
+        assertEquals(List.of(new LikeDelta(1L, 2, 2)), batch.likes());
+        assertFalse(subscriber.hasPending());
+    }
+
+    @Test
+    public void drain_whenBufferOverflows_dropsOldestAndReportsIt() {
+        var subscriber = new StreamSubscriber(new SseEmitter(), 2);
+
+        subscriber.offer(List.of(new LikeDelta(1L, 1, 1), new LikeDelta(2L, 1, 1),
+                new LikeDelta(3L, 1, 1)), null);
+
+        var batch = subscriber.drain();
+
+        assertEquals(1, batch.dropped());
+        assertEquals(List.of(new LikeDelta(2L, 1, 1), new LikeDelta(3L, 1, 1)), batch.likes());
+    }
+
+    @Test
+    public void drain_reportsTopMembershipChangesSinceLastSent() {
+        var subscriber = new StreamSubscriber(new SseEmitter(), 8);
+        subscriber.offer(List.of(), List.of(1L, 2L));
+        subscriber.drain();
+
+        subscriber.offer(List.of(), List.of(3L, 1L));
+        subscriber.offer(List.of(), List.of(1L, 3L));
+        var topChange = subscriber.drain().topChange();
+
+        assertEquals(List.of(1L, 3L), topChange.top());
+        assertEquals(List.of(3L), topChange.entered());
+        assertEquals(List.of(2L), topChange.left());
+        assertNull(subscriber.drain().topChange());
+    }
+}
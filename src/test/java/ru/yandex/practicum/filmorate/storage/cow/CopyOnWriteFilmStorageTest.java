@@ -0,0 +1,118 @@
+package ru.yandex.practicum.filmorate.storage.cow;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CopyOnWriteFilmStorageTest {
+
+    private CopyOnWriteFilmStorage storage;
+
+    @BeforeEach
+    public void setUp() {
+        storage = new CopyOnWriteFilmStorage();
+    }
+
+    @Test
+    public void findById_returnsIndependentCopy() {
+        Film created = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+
+        Film found = storage.findById(created.getId());
+        found.setName("Изменено");
+        assertThrows(UnsupportedOperationException.class, () -> found.getLikes().add(7L));
+
+        Film again = storage.findById(created.getId());
+        assertNotSame(found, again);
+        assertEquals("Фильм", again.getName());
+        assertTrue(again.getLikes().isEmpty());
+    }
+
+    @Test
+    public void getAllAndGetPopular_orderFilmsAfterDeletes() {
+        for (int i = 0; i < 6; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(5L, 1L);
+        storage.addLike(5L, 2L);
+        storage.addLike(2L, 1L);
+        storage.addLike(6L, 1L);
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L), storage.getAll().stream().map(Film::getId).toList());
+        assertEquals(List.of(5L, 2L, 6L), storage.getPopular(3).stream().map(Film::getId).toList());
+
+        for (long id = 1; id <= 4; id++) {
+            storage.delete(id);
+        }
+
+        assertEquals(List.of(5L, 6L), storage.getAll().stream().map(Film::getId).toList());
+        assertEquals(List.of(5L, 6L), storage.getPopular(10).stream().map(Film::getId).toList());
+        assertTrue(storage.getPopular(0).isEmpty());
+    }
+
+    @Test
+    public void update_keepsLikesPublishedInBetween() {
+        Film created = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        Film stale = storage.findById(created.getId());
+        storage.addLike(created.getId(), 5L);
+
+        stale.setName("Новое имя");
+        Film updated = storage.update(stale);
+
+        assertEquals("Новое имя", updated.getName());
+        assertEquals(Set.of(5L), updated.getLikes());
+    }
+
+    @Test
+    public void addLike_returnsWhetherVersionChanged() {
+        Film created = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+
+        assertTrue(storage.addLike(created.getId(), 1L));
+        assertFalse(storage.addLike(created.getId(), 1L));
+        assertTrue(storage.removeLike(created.getId(), 1L));
+        assertFalse(storage.removeLike(created.getId(), 1L));
+        assertFalse(storage.addLike(99L, 1L));
+    }
+
+    @Test
+    public void getPopular_ordersByLikesThenById() {
+        for (int i = 0; i < 4; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(3L, 1L);
+        storage.addLike(3L, 2L);
+        storage.addLike(2L, 1L);
+        storage.addLike(4L, 1L);
+
+        List<Long> ids = storage.getPopular(3).stream().map(Film::getId).toList();
+
+        assertEquals(List.of(3L, 2L, 4L), ids);
+    }
+
+    @Test
+    public void delete_removesFilmFromReverseIndex() {
+        Film first = storage.create(new Film(null, "Первый", "Описание", LocalDate.of(2000, 1, 1), 120));
+        Film second = storage.create(new Film(null, "Второй", "Описание", LocalDate.of(2000, 1, 1), 120));
+        storage.addLike(first.getId(), 1L);
+        storage.addLike(second.getId(), 1L);
+        storage.addLike(second.getId(), 2L);
+
+        Film deleted = storage.delete(second.getId());
+
+        assertEquals(Set.of(1L, 2L), deleted.getLikes());
+        assertEquals(List.of(first.getId()), List.copyOf(storage.findLikedFilmIds(1L)));
+        assertTrue(storage.findLikedFilmIds(2L).isEmpty());
+        assertFalse(storage.addLike(second.getId(), 3L));
+        assertNull(storage.delete(second.getId()));
+    }
+}
@@ -0,0 +1,210 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapFilmStorageTest {
+
+    private OffHeapFilmStorage storage;
+
+    @BeforeEach
+    public void setUp() {
+        StorageProperties properties = new StorageProperties();
+        properties.setOffHeapChunkSize(1024);
+        storage = new OffHeapFilmStorage(properties);
+    }
+
+    @Test
+    public void create_thenFindById_materializesSameFields() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание фильма", LocalDate.of(2000, 1, 1), 120));
+
+        Film found = storage.findById(film.getId());
+
+        assertEquals(1L, found.getId());
+        assertEquals("Фильм", found.getName());
+        assertEquals("Описание фильма", found.getDescription());
+        assertEquals(LocalDate.of(2000, 1, 1), found.getReleaseDate());
+        assertEquals(120, found.getDuration());
+        assertNull(storage.findById(2L));
+    }
+
+    @Test
+    public void update_keepsLikesAndAllowsNullFields() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        storage.addLike(film.getId(), 5L);
+
+        storage.update(new Film(film.getId(), "Новое имя", null, null, null));
+        Film found = storage.findById(film.getId());
+
+        assertEquals("Новое имя", found.getName());
+        assertNull(found.getDescription());
+        assertNull(found.getReleaseDate());
+        assertNull(found.getDuration());
+        assertEquals(Set.of(5L), found.getLikes());
+    }
+
+    @Test
+    public void addLike_growsSetAcrossChunks() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+
+        for (long userId = 100; userId > 0; userId--) {
+            assertTrue(storage.addLike(film.getId(), userId));
+        }
+        assertFalse(storage.addLike(film.getId(), 50L));
+        assertTrue(storage.removeLike(film.getId(), 50L));
+        assertFalse(storage.removeLike(film.getId(), 50L));
+
+        assertEquals(99, storage.findById(film.getId()).getLikes().size());
+        assertTrue(storage.getArena().getFreeBytes() > 0);
+    }
+
+    @Test
+    public void addLike_growsSetBeyondChunkSize() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+
+        // 1000 id — это 8000 байт, почти восемь чанков по 1024
+        for (long userId = 1; userId <= 1_000; userId += 2) {
+            assertTrue(storage.addLike(film.getId(), userId));
+        }
+        for (long userId = 1_000; userId > 0; userId -= 2) {
+            assertTrue(storage.addLike(film.getId(), userId));
+        }
+        assertTrue(storage.removeLike(film.getId(), 500L));
+        // повторный лайк находится двоичным поиском, только если массив остался отсортированным
+        for (long userId = 1; userId <= 1_000; userId++) {
+            assertEquals(userId == 500L, storage.addLike(film.getId(), userId));
+        }
+        assertTrue(storage.removeLike(film.getId(), 500L));
+
+        Set<Long> likes = storage.findById(film.getId()).getLikes();
+        assertEquals(999, likes.size());
+        assertFalse(likes.contains(500L));
+    }
+
+    @Test
+    public void getAll_acrossSeveralSlices_skipsDeletedFilms() {
+        for (int i = 0; i < 600; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        List<Long> expected = new ArrayList<>();
+        for (long id = 1; id <= 600; id++) {
+            if (id % 7 == 0) {
+                storage.delete(id);
+            } else {
+                expected.add(id);
+            }
+        }
+
+        assertEquals(expected, storage.getAll().stream().map(Film::getId).toList());
+    }
+
+    @Test
+    public void removeLike_lastLikeOfUser_releasesReverseIndexRecord() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        likeAndUnlike(film.getId(), 1, 50);
+        long used = storage.getArena().getUsedBytes();
+
+        likeAndUnlike(film.getId(), 51, 100);
+
+        assertEquals(used, storage.getArena().getUsedBytes());
+        assertTrue(storage.findLikedFilmIds(75L).isEmpty());
+        assertEquals(0, storage.estimateFootprint().get(3).count());
+    }
+
+    @Test
+    public void delete_lastLikedFilmOfUser_releasesReverseIndexRecord() {
+        Film kept = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        storage.addLike(kept.getId(), 1L);
+        long used = storage.getArena().getUsedBytes();
+
+        Film deleted = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        for (long userId = 1; userId <= 50; userId++) {
+            storage.addLike(deleted.getId(), userId);
+        }
+        storage.delete(deleted.getId());
+
+        assertEquals(used, storage.getArena().getUsedBytes());
+        assertEquals(List.of(kept.getId()), List.copyOf(storage.findLikedFilmIds(1L)));
+        assertEquals(1, storage.estimateFootprint().get(3).count());
+    }
+
+    @Test
+    public void churn_reusesFreedMemoryInsteadOfGrowing() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        churn(film.getId(), 10);
+        long reserved = storage.getArena().getReservedBytes();
+
+        churn(film.getId(), 1_000);
+
+        assertEquals(reserved, storage.getArena().getReservedBytes());
+        assertEquals("Фильм 999", storage.findById(film.getId()).getName());
+    }
+
+    private void churn(long filmId, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            storage.update(new Film(filmId, "Фильм " + round, "Описание " + round, LocalDate.of(2000, 1, 1), 120));
+            for (long userId = 1; userId <= 20; userId++) {
+                storage.addLike(filmId, userId);
+            }
+            for (long userId = 1; userId <= 20; userId++) {
+                storage.removeLike(filmId, userId);
+            }
+            Film temporary = storage.create(new Film(null, "Временный", null, null, null));
+            storage.addLike(temporary.getId(), 1L);
+            storage.delete(temporary.getId());
+        }
+    }
+
+    @Test
+    public void getPopular_ordersByLikesThenById() {
+        for (int i = 0; i < 4; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(3L, 1L);
+        storage.addLike(3L, 2L);
+        storage.addLike(2L, 1L);
+        storage.addLike(4L, 1L);
+
+        List<Long> ids = storage.getPopular(3).stream().map(Film::getId).toList();
+
+        assertEquals(List.of(3L, 2L, 4L), ids);
+    }
+
+    @Test
+    public void delete_leavesEmptySlotAndCleansReverseIndex() {
+        for (int i = 0; i < 3; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(2L, 7L);
+        storage.addLike(3L, 7L);
+
+        storage.delete(2L);
+
+        assertNull(storage.findById(2L));
+        assertEquals(List.of(1L, 3L), storage.getAll().stream().map(Film::getId).toList());
+        assertEquals(List.of(3L), List.copyOf(storage.findLikedFilmIds(7L)));
+        assertEquals(List.of(3L, 1L), storage.getPopular(5).stream().map(Film::getId).toList());
+        assertFalse(storage.addLike(2L, 8L));
+    }
+
+    private void likeAndUnlike(long filmId, long fromUser, long toUser) {
+        for (long userId = fromUser; userId <= toUser; userId++) {
+            storage.addLike(filmId, userId);
+        }
+        for (long userId = fromUser; userId <= toUser; userId++) {
+            storage.removeLike(filmId, userId);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.storage.offheap;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapUserStorageTest {
+
+    private OffHeapUserStorage storage;
+
+    @BeforeEach
+    public void setUp() {
+        StorageProperties properties = new StorageProperties();
+        properties.setOffHeapChunkSize(1024);
+        storage = new OffHeapUserStorage(properties);
+    }
+
+    @Test
+    public void addFriendship_whenFriendMissing_changesNothing() {
+        User user = storage.create(new User(null, "a@mail.ru", "a", "a", LocalDate.of(1990, 1, 1)));
+
+        assertFalse(storage.addFriendship(user.getId(), 42L));
+        assertTrue(storage.findById(user.getId()).getFriends().isEmpty());
+    }
+
+    @Test
+    public void addFriendship_whenFriendDeleted_changesNothing() {
+        User user = storage.create(new User(null, "a@mail.ru", "a", "a", LocalDate.of(1990, 1, 1)));
+        User friend = storage.create(new User(null, "b@mail.ru", "b", "b", LocalDate.of(1990, 1, 1)));
+        storage.delete(friend.getId());
+
+        assertFalse(storage.addFriendship(user.getId(), friend.getId()));
+        assertFalse(storage.addFriendship(friend.getId(), user.getId()));
+        assertTrue(storage.findById(user.getId()).getFriends().isEmpty());
+    }
+}
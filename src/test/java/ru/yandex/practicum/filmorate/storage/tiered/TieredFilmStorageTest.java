@@ -0,0 +1,148 @@
+package ru.yandex.practicum.filmorate.storage.tiered;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.StorageProperties;
+import ru.yandex.practicum.filmorate.model.Film;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TieredFilmStorageTest {
+
+    private TieredFilmStorage storage;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        StorageProperties properties = new StorageProperties();
+        // помещается около четырёх фильмов, сегмент — около десяти записей
+        properties.getTiered().setHotBytes(1024);
+        properties.getTiered().setSegmentBytes(1024);
+        meterRegistry = new SimpleMeterRegistry();
+        storage = new TieredFilmStorage(properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        storage.close();
+    }
+
+    @Test
+    public void findById_readsEvictedFilmsFromDisk() {
+        for (int i = 1; i <= 50; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание " + i, LocalDate.of(2000, 1, i % 28 + 1), i));
+        }
+
+        Film first = storage.findById(1L);
+
+        assertEquals("Фильм 1", first.getName());
+        assertEquals("Описание 1", first.getDescription());
+        assertEquals(LocalDate.of(2000, 1, 2), first.getReleaseDate());
+        assertEquals(1, first.getDuration());
+        assertEquals(50, storage.getAll().size());
+        assertNull(storage.findById(51L));
+        assertTrue(storage.getEvictions() > 0);
+        assertTrue(storage.getMisses() > 0);
+    }
+
+    @Test
+    public void update_andLikes_surviveEvictionAndNullFields() {
+        Film film = storage.create(new Film(null, "Фильм", "Описание", LocalDate.of(2000, 1, 1), 120));
+        storage.addLike(film.getId(), 5L);
+        storage.update(new Film(film.getId(), "Новое имя", null, null, null));
+        for (int i = 0; i < 20; i++) {
+            storage.create(new Film(null, "Другой " + i, "Описание", LocalDate.of(2000, 1, 1), 90));
+        }
+
+        Film found = storage.findById(film.getId());
+
+        assertEquals("Новое имя", found.getName());
+        assertNull(found.getDescription());
+        assertNull(found.getReleaseDate());
+        assertNull(found.getDuration());
+        assertEquals(Set.of(5L), found.getLikes());
+        assertFalse(storage.addLike(film.getId(), 5L));
+        assertTrue(storage.removeLike(film.getId(), 5L));
+        assertFalse(storage.removeLike(film.getId(), 5L));
+    }
+
+    @Test
+    public void repeatedReads_areServedFromHotTier() {
+        for (int i = 1; i <= 20; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.findById(1L);
+        long misses = storage.getMisses();
+        long hits = storage.getHits();
+
+        for (int i = 0; i < 10; i++) {
+            storage.findById(1L);
+        }
+
+        assertEquals(misses, storage.getMisses());
+        assertEquals(hits + 10, storage.getHits());
+        assertEquals(hits + 10, meterRegistry.get("filmorate.storage.tiered.requests")
+                .tag("result", "hit")
+                .functionCounter()
+                .count());
+    }
+
+    @Test
+    public void rewritesOfEvictedFilms_compactSegments() {
+        for (int i = 1; i <= 20; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        for (int round = 0; round < 20; round++) {
+            for (long id = 1; id <= 20; id++) {
+                storage.update(new Film(id, "Фильм " + id + "/" + round, "Описание", null, null));
+            }
+        }
+
+        assertEquals("Фильм 7/19", storage.findById(7L).getName());
+        assertEquals(20, storage.getAll().size());
+        // без сжатия 400 перезаписей заняли бы около 30 сегментов
+        assertTrue(storage.getSegmentCount() < 10);
+    }
+
+    @Test
+    public void getPopular_ordersByLikesThenById() {
+        for (int i = 0; i < 20; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(3L, 1L);
+        storage.addLike(3L, 2L);
+        storage.addLike(2L, 1L);
+        storage.addLike(4L, 1L);
+
+        List<Long> ids = storage.getPopular(3).stream().map(Film::getId).toList();
+
+        assertEquals(List.of(3L, 2L, 4L), ids);
+    }
+
+    @Test
+    public void delete_removesFilmAndReverseIndex() {
+        for (int i = 0; i < 10; i++) {
+            storage.create(new Film(null, "Фильм " + i, "Описание", LocalDate.of(2000, 1, 1), 120));
+        }
+        storage.addLike(1L, 7L);
+        storage.addLike(2L, 7L);
+
+        Film deleted = storage.delete(1L);
+
+        assertEquals(Set.of(7L), deleted.getLikes());
+        assertNull(storage.findById(1L));
+        assertNull(storage.delete(1L));
+        assertFalse(storage.addLike(1L, 8L));
+        assertEquals(List.of(2L), List.copyOf(storage.findLikedFilmIds(7L)));
+        assertEquals(9, storage.getAll().size());
+    }
+}
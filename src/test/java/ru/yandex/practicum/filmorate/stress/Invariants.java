@@ -0,0 +1,136 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.GraphStats;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Инварианты, которые должны держаться после любой смеси параллельных операций. Проверяются
+ * в тишине между раундами, когда все операции раунда завершились.
+ */
+final class Invariants {
+    private static final int MAX_REPORTED = 5;
+
+    private final List<String> violations = new ArrayList<>();
+    private final Map<String, Integer> reported = new HashMap<>();
+
+    private Invariants() {
+    }
+
+    /**
+     * @return описания нарушений; пустой список, если всё сходится
+     */
+    static List<String> check(StressTarget target, StressIds ids, int seedFilms, int seedUsers) {
+        Invariants invariants = new Invariants();
+        Collection<User> users = target.users().getAll();
+        Collection<Film> films = target.films().getAll();
+        invariants.checkIds("юзеры", users.stream().map(User::getId).toList(), ids.createdUsers(), seedUsers,
+                target.users().size());
+        invariants.checkIds("фильмы", films.stream().map(Film::getId).toList(), ids.createdFilms(), seedFilms,
+                target.films().size());
+        invariants.checkFriendships(target, users);
+        invariants.checkLikes(target, films);
+        invariants.reported.forEach((kind, count) -> {
+            if (count > MAX_REPORTED) {
+                invariants.violations.add(String.format("%s: ещё %d нарушений", kind, count - MAX_REPORTED));
+            }
+        });
+        return invariants.violations;
+    }
+
+    private void checkIds(String kind, List<Long> stored, Collection<Long> created, int seeded, int size) {
+        Set<Long> distinct = new HashSet<>(stored);
+        if (distinct.size() != stored.size()) {
+            fail(kind, String.format("в хранилище %d записей, различных id %d", stored.size(), distinct.size()));
+        }
+        Set<Long> createdDistinct = new HashSet<>(created);
+        if (createdDistinct.size() != created.size()) {
+            fail(kind, String.format("создание вернуло %d id, различных %d", created.size(), createdDistinct.size()));
+        }
+        if (!distinct.containsAll(createdDistinct)) {
+            fail(kind, "не все созданные id есть в хранилище");
+        }
+        if (stored.size() != seeded + created.size() || size != stored.size()) {
+            fail(kind, String.format("засеяно %d, создано %d, в хранилище %d, size() %d",
+                    seeded, created.size(), stored.size(), size));
+        }
+    }
+
+    private void checkFriendships(StressTarget target, Collection<User> users) {
+        Map<Long, Set<Long>> friends = new HashMap<>();
+        for (User user : users) {
+            friends.put(user.getId(), user.getFriends());
+        }
+        long degrees = 0;
+        for (Map.Entry<Long, Set<Long>> entry : friends.entrySet()) {
+            degrees += entry.getValue().size();
+            for (Long friendId : entry.getValue()) {
+                Set<Long> back = friends.get(friendId);
+                if (back == null || !back.contains(entry.getKey())) {
+                    fail("дружба", String.format("юзер %d дружит с %d, а обратной связи нет", entry.getKey(),
+                            friendId));
+                }
+            }
+        }
+        GraphStats stats = target.socialGraph().getStats();
+        if (stats.friendships() * 2 != degrees) {
+            fail("граф дружбы", String.format("в индексе %d дружб, в хранилище %d связей",
+                    stats.friendships(), degrees));
+        }
+        if (stats.users() != users.size()) {
+            fail("граф дружбы", String.format("в индексе %d юзеров, в хранилище %d", stats.users(), users.size()));
+        }
+    }
+
+    private void checkLikes(StressTarget target, Collection<Film> films) {
+        Map<Long, Integer> likeCounts = new HashMap<>();
+        long likes = 0;
+        Set<Long> likers = new HashSet<>();
+        for (Film film : films) {
+            int count = film.getLikes().size();
+            likeCounts.put(film.getId(), count);
+            likes += count;
+            likers.addAll(film.getLikes());
+            int indexed = target.popularity().getLikeCount(film.getId());
+            if (indexed != count) {
+                fail("рейтинг", String.format("у фильма %d лайков %d, в индексе популярности %d",
+                        film.getId(), count, indexed));
+            }
+            for (Long userId : film.getLikes()) {
+                if (!target.films().findLikedFilmIds(userId).contains(film.getId())) {
+                    fail("обратный индекс лайков", String.format("лайк юзера %d фильму %d не найден по юзеру",
+                            userId, film.getId()));
+                }
+            }
+        }
+        long reverse = 0;
+        for (Long userId : likers) {
+            reverse += target.films().findLikedFilmIds(userId).size();
+        }
+        if (reverse != likes) {
+            fail("обратный индекс лайков", String.format("лайков %d, в обратном индексе %d", likes, reverse));
+        }
+        int previous = Integer.MAX_VALUE;
+        for (Long filmId : target.popularity().getTop(10)) {
+            int count = likeCounts.getOrDefault(filmId, 0);
+            if (count > previous) {
+                fail("рейтинг", "топ по индексу популярности не упорядочен по числу лайков: " + filmId);
+            }
+            previous = count;
+        }
+    }
+
+    private void fail(String kind, String message) {
+        if (reported.merge(kind, 1, Integer::sum) <= MAX_REPORTED) {
+            violations.add(kind + ": " + message);
+        }
+    }
+}
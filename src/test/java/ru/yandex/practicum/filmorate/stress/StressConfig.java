@@ -0,0 +1,42 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Параметры стресс-прогона из системных свойств {@code stress.*}.
+ */
+record StressConfig(List<String> modes, int[] threads, int roundSeconds, int seedFilms, int seedUsers,
+                    Map<StressOperation, Integer> mix, Path output) {
+    private static final String DEFAULT_MIX =
+            "CREATE_FILM=2,CREATE_USER=1,ADD_LIKE=35,REMOVE_LIKE=20,ADD_FRIEND=25,REMOVE_FRIEND=17";
+
+    static StressConfig fromSystemProperties() {
+        return new StressConfig(
+                List.of(System.getProperty("stress.modes", "cow,offheap,tiered").split("\\s*,\\s*")),
+                Arrays.stream(System.getProperty("stress.threads", "1,2,4,8,16").split("\\s*,\\s*"))
+                        .mapToInt(Integer::parseInt)
+                        .toArray(),
+                Integer.getInteger("stress.roundSeconds", 5),
+                Integer.getInteger("stress.seedFilms", 200),
+                Integer.getInteger("stress.seedUsers", 500),
+                parseMix(System.getProperty("stress.mix", DEFAULT_MIX)),
+                Path.of(System.getProperty("stress.output", "target/stress/result.json")));
+    }
+
+    static Map<StressOperation, Integer> parseMix(String mix) {
+        Map<StressOperation, Integer> weights = new EnumMap<>(StressOperation.class);
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Вес операции не может быть отрицательным: " + part);
+            }
+            weights.put(StressOperation.valueOf(pair[0].trim()), weight);
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,122 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Гоняет смесь операций в заданном числе потоков и после каждого раунда проверяет {@link Invariants}.
+ * Состояние копится между раундами: следующий раунд начинается с лайков и дружб предыдущих.
+ */
+class StressDriver {
+    private final StressTarget target;
+    private final StressOperation[] schedule;
+    private final int seedFilms;
+    private final int seedUsers;
+    private final StressIds ids = new StressIds();
+    private volatile boolean running;
+
+    StressDriver(StressTarget target, Map<StressOperation, Integer> mix, int seedFilms, int seedUsers) {
+        this.target = target;
+        this.schedule = schedule(mix);
+        this.seedFilms = seedFilms;
+        this.seedUsers = seedUsers;
+    }
+
+    void seed() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < seedUsers; i++) {
+            StressOperation.CREATE_USER.run(target, ids, random);
+        }
+        for (int i = 0; i < seedFilms; i++) {
+            StressOperation.CREATE_FILM.run(target, ids, random);
+        }
+        ids.createdUsers().clear();
+        ids.createdFilms().clear();
+        ids.seeded(seedFilms, seedUsers);
+    }
+
+    /**
+     * @param baseline пропускная способность, относительно которой считается ускорение; 0 — этот раунд и есть база
+     */
+    StressReport.Round round(String mode, int threads, long millis, double baseline) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        try {
+            CountDownLatch ready = new CountDownLatch(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> workers = new ArrayList<>(threads);
+            running = true;
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> work(ready, start, firstError)));
+            }
+            ready.await();
+            long started = System.nanoTime();
+            start.countDown();
+            TimeUnit.MILLISECONDS.sleep(millis);
+            running = false;
+            long operations = 0;
+            long errors = 0;
+            for (Future<long[]> worker : workers) {
+                long[] counts = worker.get();
+                operations += counts[0];
+                errors += counts[1];
+            }
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            List<String> violations = new ArrayList<>(Invariants.check(target, ids, seedFilms, seedUsers));
+            if (firstError.get() != null) {
+                violations.add(0, "первое исключение: " + firstError.get());
+            }
+            double throughput = operations / seconds;
+            return new StressReport.Round(mode, threads, operations, errors, throughput, throughput / threads,
+                    baseline == 0 ? 1 : throughput / baseline, violations);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long[] work(CountDownLatch ready, CountDownLatch start, AtomicReference<Throwable> firstError)
+            throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long operations = 0;
+        long errors = 0;
+        ready.countDown();
+        start.await();
+        while (running) {
+            StressOperation operation = schedule[random.nextInt(schedule.length)];
+            try {
+                operation.run(target, ids, random);
+                operations++;
+            } catch (RuntimeException e) {
+                // все id существуют и ничего не удаляется, так что любое исключение — ошибка хранилища
+                errors++;
+                firstError.compareAndSet(null, e);
+            }
+        }
+        return new long[]{operations, errors};
+    }
+
+    /**
+     * Раскладывает веса операций в массив, из которого достаточно выбрать случайный элемент.
+     */
+    private static StressOperation[] schedule(Map<StressOperation, Integer> mix) {
+        List<StressOperation> slots = new ArrayList<>();
+        mix.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        if (slots.isEmpty()) {
+            throw new IllegalArgumentException("В смеси операций нет ни одной операции с положительным весом");
+        }
+        return slots.toArray(StressOperation[]::new);
+    }
+}
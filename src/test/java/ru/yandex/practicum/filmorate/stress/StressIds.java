@@ -0,0 +1,60 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Лайки и дружба выбирают id только из засеянных фильмов и юзеров: маленький общий набор держит
+ * потоки на одних и тех же записях. Все id, которые вернуло создание, копятся для проверки уникальности.
+ */
+class StressIds {
+    private final Queue<Long> films = new ConcurrentLinkedQueue<>();
+    private final Queue<Long> users = new ConcurrentLinkedQueue<>();
+    private final AtomicLong userSeq = new AtomicLong();
+    private long seedFilms;
+    private long seedUsers;
+
+    void filmCreated(long id) {
+        films.add(id);
+    }
+
+    void userCreated(long id) {
+        users.add(id);
+    }
+
+    /**
+     * Фиксирует засеянные диапазоны: id из хранилищ идут подряд с единицы.
+     */
+    void seeded(int filmCount, int userCount) {
+        this.seedFilms = filmCount;
+        this.seedUsers = userCount;
+    }
+
+    long nextUserSeq() {
+        return userSeq.incrementAndGet();
+    }
+
+    long film(ThreadLocalRandom random) {
+        return 1 + random.nextLong(seedFilms);
+    }
+
+    long user(ThreadLocalRandom random) {
+        return 1 + random.nextLong(seedUsers);
+    }
+
+    long[] userPair(ThreadLocalRandom random) {
+        long first = 1 + random.nextLong(seedUsers);
+        long second = 1 + random.nextLong(seedUsers - 1);
+        return new long[]{first, second >= first ? second + 1 : second};
+    }
+
+    Queue<Long> createdFilms() {
+        return films;
+    }
+
+    Queue<Long> createdUsers() {
+        return users;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Изменяющие операции стресс-прогона. Все они идут через сервисы, как запросы контроллеров, поэтому
+ * вместе с хранилищем нагружаются и слушатели событий, которые ведут индексы.
+ */
+enum StressOperation {
+    CREATE_FILM {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            Film film = target.filmService().create(new Film(null, "Фильм " + random.nextInt(1_000_000),
+                    "Описание", LocalDate.of(2000, 1, 1), 60 + random.nextInt(120)));
+            ids.filmCreated(film.getId());
+        }
+    },
+    CREATE_USER {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            long seq = ids.nextUserSeq();
+            User user = target.userService().create(
+                    new User(null, "stress" + seq + "@mail.ru", "stress" + seq, null, LocalDate.of(1990, 1, 1)));
+            ids.userCreated(user.getId());
+        }
+    },
+    ADD_LIKE {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            target.filmService().addLike(ids.film(random), ids.user(random));
+        }
+    },
+    REMOVE_LIKE {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            target.filmService().removeLike(ids.film(random), ids.user(random));
+        }
+    },
+    ADD_FRIEND {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            long[] pair = ids.userPair(random);
+            target.userService().addFriend(pair[0], pair[1]);
+        }
+    },
+    REMOVE_FRIEND {
+        @Override
+        void run(StressTarget target, StressIds ids, ThreadLocalRandom random) {
+            long[] pair = ids.userPair(random);
+            target.userService().removeFriend(pair[0], pair[1]);
+        }
+    };
+
+    abstract void run(StressTarget target, StressIds ids, ThreadLocalRandom random);
+}
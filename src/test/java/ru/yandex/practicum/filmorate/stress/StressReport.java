@@ -0,0 +1,29 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import java.util.List;
+
+/**
+ * Итог стресс-прогона: по раунду на каждую пару «режим хранилища × число потоков».
+ * {@code speedup} — пропускная способность относительно первого раунда того же режима.
+ */
+record StressReport(int roundSeconds, List<Round> rounds) {
+
+    record Round(String mode, int threads, long operations, long errors, double throughput,
+                 double throughputPerThread, double speedup, List<String> violations) {
+    }
+
+    boolean failed() {
+        return rounds.stream().anyMatch(round -> round.errors() > 0 || !round.violations().isEmpty());
+    }
+
+    void print() {
+        System.out.printf("%n%-14s %7s %12s %9s %12s %12s %9s %10s%n",
+                "режим", "потоков", "операций", "ошибок", "оп/с", "оп/с/поток", "ускорение", "нарушений");
+        for (Round round : rounds) {
+            System.out.printf("%-14s %7d %12d %9d %12.0f %12.0f %9.2f %10d%n",
+                    round.mode(), round.threads(), round.operations(), round.errors(), round.throughput(),
+                    round.throughputPerThread(), round.speedup(), round.violations().size());
+            round.violations().forEach(violation -> System.out.println("    " + violation));
+        }
+    }
+}
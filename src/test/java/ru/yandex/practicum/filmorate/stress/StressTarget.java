@@ -0,0 +1,23 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import org.springframework.context.ApplicationContext;
+import ru.yandex.practicum.filmorate.service.FilmService;
+import ru.yandex.practicum.filmorate.service.PopularityIndex;
+import ru.yandex.practicum.filmorate.service.SocialGraphIndex;
+import ru.yandex.practicum.filmorate.service.UserService;
+import ru.yandex.practicum.filmorate.storage.film.FilmStorage;
+import ru.yandex.practicum.filmorate.storage.user.UserStorage;
+
+/**
+ * Что нагружается и что проверяется: сервисы — точка входа операций, хранилища и индексы — источник
+ * правды для инвариантов.
+ */
+record StressTarget(FilmService filmService, UserService userService, FilmStorage films, UserStorage users,
+                    PopularityIndex popularity, SocialGraphIndex socialGraph) {
+
+    static StressTarget of(ApplicationContext context) {
+        return new StressTarget(context.getBean(FilmService.class), context.getBean(UserService.class),
+                context.getBean(FilmStorage.class), context.getBean(UserStorage.class),
+                context.getBean(PopularityIndex.class), context.getBean(SocialGraphIndex.class));
+    }
+}
@@ -0,0 +1,81 @@
+package ru.yandex.practicum.filmorate.stress;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.yandex.practicum.filmorate.FilmorateApplication;
+
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Стресс-прогон конкурентности: для каждого режима хранилища поднимает контекст приложения без
+ * веб-сервера, засевает фильмы и юзеров и раунд за раундом гоняет лайки, дружбу и создание в 1, 2, 4…
+ * потоках. После каждого раунда проверяет инварианты (уникальные id, симметричная дружба, лайки
+ * совпадают с индексом популярности и обратным индексом) и печатает пропускную способность по числу потоков.
+ * Любое нарушение или исключение роняет запуск.
+ * <p>
+ * Режим heap по умолчанию не гоняется: его хранилища на обычных {@code HashMap} не рассчитаны на
+ * параллельные записи.
+ */
+public class StressTest {
+    private static final String[] APP_DEFAULTS = {
+            "--filmorate.tracing.enabled=false",
+            "--logging.level.org.zalando.logbook=INFO",
+            "--logging.level.ru.yandex.practicum.filmorate=WARN"
+    };
+
+    public static void main(String[] args) throws Exception {
+        StressConfig config = StressConfig.fromSystemProperties();
+        List<StressReport.Round> rounds = new ArrayList<>();
+        for (String mode : config.modes()) {
+            rounds.addAll(runMode(config, mode));
+        }
+        StressReport report = new StressReport(config.roundSeconds(), rounds);
+        report.print();
+
+        Files.createDirectories(config.output().toAbsolutePath().getParent());
+        new ObjectMapper()
+                .enable(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(config.output().toFile(), report);
+        if (report.failed()) {
+            throw new IllegalStateException("Стресс-прогон не пройден: есть нарушения инвариантов или исключения");
+        }
+        System.out.println("Инварианты держатся во всех режимах");
+    }
+
+    private static List<StressReport.Round> runMode(StressConfig config, String mode) throws Exception {
+        List<String> appArgs = new ArrayList<>(List.of(APP_DEFAULTS));
+        appArgs.add("--filmorate.storage.mode=" + mode);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(FilmorateApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(appArgs.toArray(String[]::new))) {
+            StressDriver driver = new StressDriver(StressTarget.of(context), config.mix(),
+                    config.seedFilms(), config.seedUsers());
+            driver.seed();
+            long millis = config.roundSeconds() * 1_000L;
+            // прогрев JIT на максимальном числе потоков; его результат тоже проверяется, но не печатается
+            int maxThreads = 1;
+            for (int threads : config.threads()) {
+                maxThreads = Math.max(maxThreads, threads);
+            }
+            List<String> warmup = driver.round(mode, maxThreads, millis, 0).violations();
+            List<StressReport.Round> rounds = new ArrayList<>();
+            double baseline = 0;
+            for (int threads : config.threads()) {
+                StressReport.Round round = driver.round(mode, threads, millis, baseline);
+                if (baseline == 0) {
+                    baseline = round.throughput();
+                }
+                if (rounds.isEmpty() && !warmup.isEmpty()) {
+                    round.violations().addAll(0, warmup);
+                }
+                rounds.add(round);
+            }
+            return rounds;
+        }
+    }
+}
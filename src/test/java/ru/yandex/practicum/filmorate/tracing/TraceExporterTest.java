@@ -0,0 +1,110 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.FileSystemUtils;
+import ru.yandex.practicum.filmorate.config.TracingProperties;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceExporterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Path directory;
+    private TracingProperties properties;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("filmorate-traces-test");
+        properties = new TracingProperties();
+        properties.setDirectory(directory.toString());
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Test
+    public void export_writesTraceAsOtlpJsonLine() throws IOException {
+        TraceExporter exporter = new TraceExporter(properties, new SimpleMeterRegistry());
+        Trace trace = Trace.random(16);
+        Span root = trace.start("GET /films/popular", SpanKind.SERVER)
+                .setAttribute("http.response.status_code", 200);
+        Span storage = trace.start("CopyOnWriteFilmStorage.getPopular", SpanKind.INTERNAL);
+        storage.recordError(new IllegalStateException("сбой"));
+        root.close();
+
+        exporter.export(trace);
+        exporter.close();
+
+        List<String> lines = Files.readAllLines(directory.resolve(TraceExporter.CURRENT_FILE));
+        assertEquals(1, lines.size());
+        JsonNode resourceSpans = objectMapper.readTree(lines.get(0)).path("resourceSpans").get(0);
+        assertEquals("filmorate", resourceSpans.at("/resource/attributes/0/value/stringValue").asText());
+        JsonNode spans = resourceSpans.at("/scopeSpans/0/spans");
+        assertEquals(2, spans.size());
+
+        JsonNode rootJson = spans.get(0);
+        JsonNode storageJson = spans.get(1);
+        assertTrue(rootJson.path("traceId").asText().matches("[0-9a-f]{32}"));
+        assertTrue(rootJson.path("spanId").asText().matches("[0-9a-f]{16}"));
+        assertFalse(rootJson.has("parentSpanId"));
+        assertEquals(2, rootJson.path("kind").asInt());
+        assertEquals("200", rootJson.at("/attributes/0/value/intValue").asText());
+        assertEquals(rootJson.path("traceId"), storageJson.path("traceId"));
+        assertEquals(rootJson.path("spanId"), storageJson.path("parentSpanId"));
+        assertEquals(1, storageJson.path("kind").asInt());
+        assertEquals(2, storageJson.at("/status/code").asInt());
+        long start = Long.parseLong(storageJson.path("startTimeUnixNano").asText());
+        long end = Long.parseLong(storageJson.path("endTimeUnixNano").asText());
+        assertTrue(start >= Long.parseLong(rootJson.path("startTimeUnixNano").asText()));
+        assertTrue(end >= start);
+        assertEquals(1, exporter.getExported());
+    }
+
+    @Test
+    public void export_whenFileFull_rotatesAndKeepsMaxFiles() throws IOException {
+        properties.setMaxFileBytes(1);
+        properties.setMaxFiles(3);
+        TraceExporter exporter = new TraceExporter(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 10; i++) {
+            Trace trace = Trace.random(16);
+            trace.start("GET", SpanKind.SERVER).close();
+            exporter.export(trace);
+        }
+        exporter.close();
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(file -> file.getFileName().toString()).sorted().toList();
+            assertEquals(List.of("traces.1.jsonl", "traces.2.jsonl", "traces.jsonl"), names);
+        }
+        assertEquals(1, Files.readAllLines(directory.resolve("traces.2.jsonl")).size());
+        assertEquals(10, exporter.getExported());
+    }
+
+    @Test
+    public void export_whenQueueFull_dropsTraceWithoutBlocking() {
+        properties.setEnabled(false);
+        properties.setQueueSize(1);
+        TraceExporter exporter = new TraceExporter(properties, new SimpleMeterRegistry());
+
+        exporter.export(Trace.random(16));
+        exporter.export(Trace.random(16));
+
+        assertEquals(1, exporter.getDropped());
+    }
+}
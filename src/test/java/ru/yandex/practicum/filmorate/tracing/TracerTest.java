@@ -0,0 +1,132 @@
+package ru.yandex.practicum.filmorate.tracing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.config.TracingProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracerTest {
+    private static final String TRACEPARENT = "00-0af7651916cd43dd8448eb211c80319c-b7ad6b7169203331-01";
+
+    private final List<Trace> exported = new ArrayList<>();
+
+    @Test
+    public void startTrace_whenNotSampled_returnsNoop() {
+        Tracer tracer = tracer(0);
+
+        Span root = tracer.startTrace("GET", null);
+
+        assertSame(Span.NOOP, root);
+        assertFalse(tracer.isRecording());
+        assertSame(Span.NOOP, tracer.start("FilmService.getAll"));
+        tracer.endTrace(root);
+        assertTrue(exported.isEmpty());
+    }
+
+    @Test
+    public void start_nestsUnderCurrentSpan_andClosingParentClosesOpenChildren() {
+        Tracer tracer = tracer(1);
+
+        Span root = tracer.startTrace("GET", null);
+        Span handler = tracer.start("handler");
+        Span service = tracer.start("FilmService.getPopularFilms");
+        service.close();
+        Span serialize = tracer.start("serialize");
+        handler.close();
+        tracer.endTrace(root);
+
+        assertFalse(tracer.isRecording());
+        assertEquals(1, exported.size());
+        List<Span> spans = exported.get(0).getSpans();
+        assertEquals(List.of(root, handler, service, serialize), spans);
+        assertSame(handler, service.getParent());
+        assertSame(handler, serialize.getParent());
+        assertTrue(spans.stream().allMatch(Span::isEnded));
+        assertEquals(handler.getEndNanos(), serialize.getEndNanos());
+        assertEquals(SpanKind.SERVER, root.getKind());
+    }
+
+    @Test
+    public void startTrace_whenTraceparentSampled_recordsWithRemoteParent() {
+        Tracer tracer = tracer(0);
+
+        Span root = tracer.startTrace("GET", TRACEPARENT);
+        tracer.endTrace(root);
+
+        Trace trace = exported.get(0);
+        assertEquals(0x0af7651916cd43ddL, trace.getTraceIdHigh());
+        assertEquals(0x8448eb211c80319cL, trace.getTraceIdLow());
+        assertEquals(0xb7ad6b7169203331L, trace.getRemoteParentId());
+    }
+
+    @Test
+    public void startTrace_whenTraceparentNotSampled_skipsTrace() {
+        Tracer tracer = tracer(1);
+
+        Span root = tracer.startTrace("GET", TRACEPARENT.substring(0, 53) + "00");
+
+        assertSame(Span.NOOP, root);
+        assertFalse(tracer.isRecording());
+    }
+
+    @Test
+    public void startTrace_whenTraceparentMalformed_fallsBackToSampleRate() {
+        Tracer tracer = tracer(1);
+
+        Span root = tracer.startTrace("GET", "00-zzz");
+        tracer.endTrace(root);
+
+        assertEquals(1, exported.size());
+        assertEquals(0, exported.get(0).getRemoteParentId());
+    }
+
+    @Test
+    public void start_whenSpanLimitReached_dropsSpansAndCountsThem() {
+        TracingProperties properties = properties(1);
+        properties.setMaxSpansPerTrace(3);
+        Tracer tracer = new Tracer(properties, exporter(properties));
+
+        Span root = tracer.startTrace("GET", null);
+        for (int i = 0; i < 5; i++) {
+            tracer.start("CopyOnWriteFilmStorage.findById").close();
+        }
+        tracer.endTrace(root);
+
+        assertEquals(3, exported.get(0).getSpans().size());
+        assertEquals(3, exported.get(0).getDroppedSpans());
+        assertEquals(3, root.getAttributes().get("filmorate.trace.dropped_spans"));
+    }
+
+    private Tracer tracer(double sampleRate) {
+        TracingProperties properties = properties(sampleRate);
+        return new Tracer(properties, exporter(properties));
+    }
+
+    private static TracingProperties properties(double sampleRate) {
+        TracingProperties properties = new TracingProperties();
+        properties.setSampleRate(sampleRate);
+        return properties;
+    }
+
+    /**
+     * Экспортёр без потока записи, который просто собирает трассы.
+     */
+    private TraceExporter exporter(TracingProperties properties) {
+        TracingProperties disabled = new TracingProperties();
+        disabled.setEnabled(false);
+        disabled.setQueueSize(properties.getQueueSize());
+        return new TraceExporter(disabled, new SimpleMeterRegistry()) {
+            @Override
+            void export(Trace trace) {
+                exported.add(trace);
+            }
+        };
+    }
+}
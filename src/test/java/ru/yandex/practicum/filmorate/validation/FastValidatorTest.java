@@ -0,0 +1,97 @@
+package ru.yandex.practicum.filmorate.validation;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import ru.yandex.practicum.filmorate.controller.marker.Marker;
+import ru.yandex.practicum.filmorate.model.Film;
+import ru.yandex.practicum.filmorate.model.User;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FastValidatorTest {
+    private static final List<String> STRINGS = Arrays.asList(null, "", " ", "\t", " ", " ", "a", " a ",
+            "a b", "a\tb", "a\u000Bb", "a\u001Cb", "a b", "a\nb", "a\n", "юзер", "x".repeat(200), "x".repeat(201));
+    private static final List<String> EMAILS = Arrays.asList(null, "", " ", "mail", "mail@", "@mail.ru",
+            "mail@mail.ru", "mail@mail", "ma il@mail.ru", "mail@mail.ru\n", "\"quoted mail\"@mail.ru",
+            "mail@[127.0.0.1]", "mail@-mail.ru", "a".repeat(65) + "@mail.ru", "почта@почта.рф");
+    private static final List<String> MORE_EMAILS = List.of("MAIL@MAIL.RU", "first.last@mail.ru",
+            "first..last@mail.ru", ".first@mail.ru", "a+b=c@mail.ru", "a@b@mail.ru", "\"a@b\"@mail.ru",
+            "\"a\\\"b\"@mail.ru", "\"\"@mail.ru", "mail@mail.ru.", "mail@mail..ru", "mail@mail-.ru", "mail@ma--il.ru",
+            "mail@" + "a".repeat(63) + ".ru", "mail@" + "a".repeat(64) + ".ru",
+            "mail@" + ("a".repeat(60) + ".").repeat(4) + "ru", "mail@" + ("a".repeat(60) + ".").repeat(5) + "ru",
+            "mail@[256.1.1.1]", "mail@[1.2.3]", "mail@[IPv6:::1]", "mail@[IPv6:2001:db8::1]", "mail@[IPv6:zz::1]",
+            "mail@[IPv6:::ffff:192.168.0.1]", "mail@[ipv6:::1]", "a".repeat(64) + "@mail.ru",
+            "почта@mail.ru", "mail@почта.рф", "mail@xn--80a1acny.xn--p1ai", "mail@mail.ru ", "mail@ma_il.ru");
+    private static final List<LocalDate> DATES = Arrays.asList(null, LocalDate.of(1895, 12, 27),
+            LocalDate.of(1895, 12, 28), LocalDate.of(2000, 1, 1), LocalDate.now().minusDays(1), LocalDate.now(),
+            LocalDate.now().plusDays(1));
+    private static final List<Integer> DURATIONS = Arrays.asList(null, Integer.MIN_VALUE, -1, 0, 1, 120);
+    private static final List<Class<?>[]> GROUPS = List.of(new Class<?>[0],
+            new Class<?>[]{Marker.OnCreate.class}, new Class<?>[]{Marker.OnUpdate.class});
+
+    private static ValidatorFactory factory;
+    private static Validator validator;
+    private final FastValidator fastValidator = new FastValidator();
+
+    @BeforeAll
+    public static void setUpValidator() {
+        factory = Validation.buildDefaultValidatorFactory();
+        validator = factory.getValidator();
+    }
+
+    @AfterAll
+    public static void closeValidator() {
+        factory.close();
+    }
+
+    @Test
+    public void isValid_film_matchesHibernateValidator() {
+        for (Long id : Arrays.asList(null, 1L)) {
+            for (String name : STRINGS) {
+                for (String description : STRINGS) {
+                    for (LocalDate releaseDate : DATES) {
+                        for (Integer duration : DURATIONS) {
+                            assertParity(new Film(id, name, description, releaseDate, duration));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void isValid_user_matchesHibernateValidator() {
+        for (Long id : Arrays.asList(null, 1L)) {
+            for (String email : EMAILS) {
+                for (String login : STRINGS) {
+                    for (LocalDate birthday : DATES) {
+                        assertParity(new User(id, email, login, "name", birthday));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void isValid_userEmail_matchesHibernateEmailConstraint() {
+        for (String email : MORE_EMAILS) {
+            assertParity(new User(null, email, "login", "name", LocalDate.of(2000, 1, 1)));
+        }
+    }
+
+    private void assertParity(Object target) {
+        for (Class<?>[] groups : GROUPS) {
+            boolean expected = validator.validate(target, groups).isEmpty();
+            assertEquals(expected, fastValidator.isValid(target, groups),
+                    () -> target + " в группах " + Arrays.toString(groups));
+        }
+    }
+}